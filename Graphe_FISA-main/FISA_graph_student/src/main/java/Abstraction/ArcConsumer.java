@@ -0,0 +1,14 @@
+package Abstraction;
+
+/**
+ * Receives the arcs of a node as two ints, so that weighted traversals box nothing.
+ */
+@FunctionalInterface
+public interface ArcConsumer {
+
+	/**
+	 * @param target the other end of the arc
+	 * @param weight the weight of the arc, 0 if the graph is not valued
+	 */
+	void accept(int target, int weight);
+}
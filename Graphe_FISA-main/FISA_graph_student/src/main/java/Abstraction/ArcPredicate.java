@@ -0,0 +1,13 @@
+package Abstraction;
+
+/**
+ * Test on an arc given as two ints and its weight, so that filtering boxes nothing.
+ */
+@FunctionalInterface
+public interface ArcPredicate {
+
+	/**
+	 * @return true if the arc (from,to) of this weight is kept
+	 */
+	boolean test(int from, int to, int weight);
+}
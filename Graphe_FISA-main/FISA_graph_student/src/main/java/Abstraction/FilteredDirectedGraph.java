@@ -0,0 +1,69 @@
+package Abstraction;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Filtered view of a directed graph, which also filters the predecessors so that backward
+ * searches and TransposedGraph run on it. Built by the factories of FilteredGraph when the
+ * graph is an IDirectedGraph.
+ */
+public class FilteredDirectedGraph extends FilteredGraph implements IDirectedGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final IDirectedGraph graph;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Same parameters as FilteredGraph(graph, nodeMask, arcFilter).
+	 */
+	public FilteredDirectedGraph(IDirectedGraph graph, long[] nodeMask, ArcPredicate arcFilter) {
+		super(graph, nodeMask, arcFilter);
+		this.graph = graph;
+	}
+
+	public FilteredDirectedGraph(IDirectedGraph graph, ArcPredicate arcFilter) {
+		this(graph, null, arcFilter);
+	}
+
+	public static FilteredDirectedGraph maxWeight(IDirectedGraph g, int k) {
+		return (FilteredDirectedGraph) FilteredGraph.maxWeight(g, k);
+	}
+
+	public static FilteredDirectedGraph induced(IDirectedGraph g, int... nodes) {
+		return (FilteredDirectedGraph) FilteredGraph.induced(g, nodes);
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		if (!isKept(v)) {
+			return;
+		}
+		graph.forEachInArc(v, (u, w) -> {
+			if (keepsArc(u, v, w)) {
+				action.accept(u);
+			}
+		});
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		if (!isKept(v)) {
+			return;
+		}
+		graph.forEachInArc(v, (u, w) -> {
+			if (keepsArc(u, v, w)) {
+				action.accept(u, w);
+			}
+		});
+	}
+}
@@ -0,0 +1,273 @@
+package Abstraction;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyConcurrent.ConcurrentDirectedGraph;
+import AdjacencyList.AdjacencyListUndirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import Collection.Hashing;
+import Collection.LongHashSet;
+import GraphAlgorithms.GraphToolsList;
+import GraphAlgorithms.GraphToolsParallel;
+import GraphAlgorithms.ShortestPaths;
+
+/**
+ * Zero-copy view of a subgraph: the nodes outside a bit mask and the arcs rejected by a
+ * predicate are skipped while the neighbours are iterated, so any algorithm on IGraph runs
+ * on "the arcs of weight at most k", "the nodes of this region" or "the graph minus these
+ * failed links" without building a new graph. Building the view costs O(n/64).
+ *
+ * The nodes keep their labels: a hidden node is still counted by getNbNodes() but has no
+ * arc and is never given as a neighbour. The view follows the changes made to the
+ * underlying graph, and hideNode/showNode change the mask in place.
+ *
+ * The view only knows the successors: the factories return a FilteredDirectedGraph, which
+ * also filters the predecessors, when the graph is an IDirectedGraph.
+ */
+public class FilteredGraph implements IGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final IGraph graph;
+	private final long[] nodeMask;		// Bit v is set iff v is kept
+	private final ArcPredicate arcFilter;	// null to keep every arc between kept nodes
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * @param nodeMask bit (v & 63) of nodeMask[v >>> 6] tells if v is kept, null to keep every
+	 *                 node. The array is copied.
+	 * @param arcFilter null to keep every arc between kept nodes
+	 */
+	public FilteredGraph(IGraph graph, long[] nodeMask, ArcPredicate arcFilter) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null");
+		}
+		int words = (graph.getNbNodes() + 63) >>> 6;
+		this.graph = graph;
+		this.nodeMask = new long[words];
+		if (nodeMask == null) {
+			Arrays.fill(this.nodeMask, -1L);
+		} else {
+			System.arraycopy(nodeMask, 0, this.nodeMask, 0, Math.min(words, nodeMask.length));
+		}
+		if ((graph.getNbNodes() & 63) != 0) {
+			this.nodeMask[words - 1] &= (1L << graph.getNbNodes()) - 1;
+		}
+		this.arcFilter = arcFilter;
+	}
+
+	public FilteredGraph(IGraph graph, ArcPredicate arcFilter) {
+		this(graph, null, arcFilter);
+	}
+
+	/**
+	 * @return a FilteredDirectedGraph if g is an IDirectedGraph, a FilteredGraph otherwise
+	 */
+	static FilteredGraph of(IGraph g, long[] nodeMask, ArcPredicate arcFilter) {
+		if (g instanceof IDirectedGraph) {
+			return new FilteredDirectedGraph((IDirectedGraph) g, nodeMask, arcFilter);
+		}
+		return new FilteredGraph(g, nodeMask, arcFilter);
+	}
+
+	/**
+	 * @return the view of the arcs of weight at most k
+	 */
+	public static FilteredGraph maxWeight(IGraph g, int k) {
+		return of(g, null, (u, v, w) -> w <= k);
+	}
+
+	/**
+	 * @return the view of the subgraph induced by the given nodes
+	 */
+	public static FilteredGraph induced(IGraph g, int... nodes) {
+		long[] mask = new long[(g.getNbNodes() + 63) >>> 6];
+		for (int v : nodes) {
+			mask[v >>> 6] |= 1L << v;
+		}
+		return of(g, mask, null);
+	}
+
+	/**
+	 * @return the view of g without the arcs of failed, looked up in a hash set of packed pairs.
+	 *         Both directions of a link are removed when g is one of the undirected graphs.
+	 */
+	public static FilteredGraph withoutArcs(IGraph g, EdgeList failed) {
+		return withoutArcs(g, failed, g instanceof AdjacencyListUndirectedGraph || g instanceof AdjacencyMatrixUndirectedGraph);
+	}
+
+	/**
+	 * @param undirected at true if (u,v) in failed removes (v,u) too, as for a CSR graph built
+	 *                   from both directions of each edge
+	 */
+	public static FilteredGraph withoutArcs(IGraph g, EdgeList failed, boolean undirected) {
+		LongHashSet removed = new LongHashSet(failed.size());
+		for (int i = 0; i < failed.size(); i++) {
+			removed.add(linkKey(failed.getSource(i), failed.getTarget(i), undirected));
+		}
+		return of(g, null, (u, v, w) -> !removed.contains(linkKey(u, v, undirected)));
+	}
+
+	private static long linkKey(int u, int v, boolean undirected) {
+		return undirected ? Hashing.pack(Math.min(u, v), Math.max(u, v)) : Hashing.pack(u, v);
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	/**
+	 * @return the graph seen through this view
+	 */
+	public IGraph getGraph() {
+		return graph;
+	}
+
+	@Override
+	public int getNbNodes() {
+		return graph.getNbNodes();
+	}
+
+	public boolean isKept(int v) {
+		return (nodeMask[v >>> 6] & 1L << v) != 0;
+	}
+
+	/**
+	 * @return the number of nodes kept by the mask
+	 */
+	public int getNbKeptNodes() {
+		int count = 0;
+		for (long word : nodeMask) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public void hideNode(int v) {
+		nodeMask[v >>> 6] &= ~(1L << v);
+	}
+
+	public void showNode(int v) {
+		nodeMask[v >>> 6] |= 1L << v;
+	}
+
+	/**
+	 * @return true if the arc (u,v) of weight w is in the view
+	 */
+	protected boolean keepsArc(int u, int v, int w) {
+		return isKept(u) && isKept(v) && (arcFilter == null || arcFilter.test(u, v, w));
+	}
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		if (!isKept(u)) {
+			return;
+		}
+		if (arcFilter == null) {
+			graph.forEachSuccessor(u, v -> {
+				if (isKept(v)) {
+					action.accept(v);
+				}
+			});
+		} else {
+			graph.forEachArc(u, (v, w) -> {
+				if (isKept(v) && arcFilter.test(u, v, w)) {
+					action.accept(v);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		if (!isKept(u)) {
+			return;
+		}
+		graph.forEachArc(u, (v, w) -> {
+			if (keepsArc(u, v, w)) {
+				action.accept(v, w);
+			}
+		});
+	}
+
+	/**
+	 * Copies the view into a CSR graph, in O(n+m), when it is read many times.
+	 */
+	public CSRGraph materialize() {
+		EdgeList edges = new EdgeList(getNbNodes());
+		for (int u = 0; u < getNbNodes(); u++) {
+			final int from = u;
+			forEachArc(u, (v, w) -> edges.add(from, v, w));
+		}
+		return CSRGraph.fromEdgeList(edges);
+	}
+
+	public static void main(String[] args) {
+		EdgeList edges = GraphToolsParallel.generateValuedEdgeList(5000, 50000L, false, false, true, false, 11L, 1);
+		CSRGraph g = CSRGraph.fromEdgeList(edges);
+
+		FilteredGraph light = maxWeight(g, 50);
+		EdgeList kept = new EdgeList(edges.getNbNodes());
+		for (int i = 0; i < edges.size(); i++) {
+			if (edges.getWeight(i) <= 50) {
+				kept.add(edges.getSource(i), edges.getTarget(i), edges.getWeight(i));
+			}
+		}
+		ShortestPaths onView = GraphToolsList.dijkstra(light, 0);
+		ShortestPaths onCopy = GraphToolsList.dijkstra(CSRGraph.fromEdgeList(kept), 0);
+		boolean same = true;
+		for (int v = 0; v < g.getNbNodes(); v++) {
+			same &= onView.getDistance(v) == onCopy.getDistance(v);
+		}
+		System.out.println("Dijkstra on the view of weights <= 50 = on a filtered copy? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+
+		int[] region = new int[2500];
+		for (int i = 0; i < region.length; i++) {
+			region[i] = 2 * i;
+		}
+		FilteredGraph even = induced(g, region);
+		boolean onlyEven = true;
+		for (int v : GraphToolsList.parcoursBFSLargeur(even, 0).getOrder()) {
+			onlyEven &= v % 2 == 0;
+		}
+		System.out.println("BFS stays in the region? " + onlyEven + " (Should be TRUE) " + (onlyEven ? "✅" : "❌")
+				+ ", " + even.getNbKeptNodes() + " nodes kept");
+
+		EdgeList failed = new EdgeList(g.getNbNodes());
+		g.forEachSuccessor(0, v -> failed.add(0, v));
+		FilteredGraph broken = withoutArcs(g, failed);
+		int[] degree = {0};
+		broken.forEachSuccessor(0, v -> degree[0]++);
+		System.out.println("Out-degree of 0 once its links failed = " + degree[0] + " (Should be 0) " + (degree[0] == 0 ? "✅" : "❌"));
+		broken.hideNode(1);
+		boolean hidden = GraphToolsList.parcoursBFSLargeur(broken, 1).getNbReached() == 1;
+		System.out.println("Hidden node isolated? " + hidden + " (Should be TRUE) " + (hidden ? "✅" : "❌"));
+
+		AdjacencyListUndirectedGraph ring = new AdjacencyListUndirectedGraph(new int[][] {{0, 1, 1}, {1, 0, 1}, {1, 1, 0}});
+		EdgeList cut = new EdgeList(3);
+		cut.add(0, 1);
+		FilteredGraph open = withoutArcs(ring, cut);
+		int[] links = {0};
+		open.forEachSuccessor(1, v -> links[0] += v == 0 ? 1 : 0);
+		IDirectedGraph live = ConcurrentDirectedGraph.fromEdgeList(edges);
+		int[] inOut = {0, 0};
+		new TransposedGraph(FilteredDirectedGraph.maxWeight(live, 50)).forEachPredecessor(0, u -> inOut[0]++);
+		light.forEachSuccessor(0, v -> inOut[1]++);
+		boolean transposed = inOut[0] == inOut[1];
+		System.out.println("Filtered directed graph transposed? " + transposed + " (Should be TRUE) " + (transposed ? "✅" : "❌"));
+		boolean bothWays = links[0] == 0 && !(open instanceof IDirectedGraph) && maxWeight(g, 50) instanceof FilteredGraph;
+		System.out.println("Failed link gone both ways on an undirected graph? " + bothWays + " (Should be TRUE) " + (bothWays ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,20 @@
+package Abstraction;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only view of a directed graph that also knows the predecessors of its nodes,
+ * so that backward searches need no inverse graph.
+ */
+public interface IDirectedGraph extends IGraph {
+
+	/**
+	 * Calls action on the label of each predecessor of v, in the order of the representation.
+	 */
+	void forEachPredecessor(int v, IntConsumer action);
+
+	/**
+	 * Calls action on each arc entering v with its origin and its weight.
+	 */
+	void forEachInArc(int v, ArcConsumer action);
+}
@@ -0,0 +1,28 @@
+package Abstraction;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only view of a directed graph whose nodes are labelled from 0 to getNbNodes()-1,
+ * implemented by every representation so that one traversal or shortest path algorithm
+ * runs on all of them. The iterations allocate nothing per neighbour. An undirected graph
+ * is seen with both directions of each edge.
+ */
+public interface IGraph {
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	int getNbNodes();
+
+	/**
+	 * Calls action on the label of each successor of u, in the order of the representation.
+	 */
+	void forEachSuccessor(int u, IntConsumer action);
+
+	/**
+	 * Calls action on each arc leaving u with its target and its weight, in the same order
+	 * as forEachSuccessor.
+	 */
+	void forEachArc(int u, ArcConsumer action);
+}
@@ -0,0 +1,129 @@
+package Abstraction;
+
+import java.util.function.IntConsumer;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+
+/**
+ * Zero-copy view of the inverse of a directed graph: the successors of a node are its
+ * predecessors in the underlying graph and conversely. Building the view costs O(1) and
+ * it follows the changes made to the underlying graph.
+ */
+public class TransposedGraph implements IDirectedGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final IDirectedGraph graph;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public TransposedGraph(IDirectedGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null");
+		}
+		this.graph = graph;
+	}
+
+	/**
+	 * @return the inverse view of g, or the graph under g if g is already a view
+	 */
+	public static IDirectedGraph of(IDirectedGraph g) {
+		if (g instanceof TransposedGraph) {
+			return ((TransposedGraph) g).graph;
+		}
+		return new TransposedGraph(g);
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	/**
+	 * @return the graph seen through this view
+	 */
+	public IDirectedGraph getGraph() {
+		return graph;
+	}
+
+	@Override
+	public int getNbNodes() {
+		return graph.getNbNodes();
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		graph.forEachPredecessor(u, action);
+	}
+
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		graph.forEachSuccessor(v, action);
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		graph.forEachInArc(u, action);
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		graph.forEachArc(v, action);
+	}
+
+	/**
+	 * Copies the inverse graph into a CSR graph, in O(n+m), when it is read many times.
+	 */
+	public CSRGraph materialize() {
+		int n = getNbNodes();
+		int[] offsets = new int[n + 1];
+		for (int u = 0; u < n; u++) {
+			final int slot = u + 1;
+			forEachSuccessor(u, v -> offsets[slot]++);
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		int[] next = new int[] {0};
+		for (int u = 0; u < n; u++) {
+			forEachArc(u, (v, w) -> {
+				targets[next[0]] = v;
+				weights[next[0]++] = w;
+			});
+		}
+		return new CSRGraph(offsets, targets, weights);
+	}
+
+	public static void main(String[] args) {
+		int[][] matrix = {
+			{0, 1, 0, 1, 0},
+			{0, 0, 1, 0, 0},
+			{0, 0, 0, 1, 1},
+			{1, 0, 0, 0, 0},
+			{0, 1, 0, 0, 0}
+		};
+		AdjacencyMatrixDirectedGraph g = new AdjacencyMatrixDirectedGraph(matrix);
+		IDirectedGraph inverse = TransposedGraph.of(g);
+		CSRGraph copy = ((TransposedGraph) inverse).materialize();
+		AdjacencyMatrixDirectedGraph expected = g.computeInverse();
+		boolean same = copy.getNbArcs() == expected.getNbArcs();
+		for (int u = 0; u < g.getNbNodes(); u++) {
+			for (int v = 0; v < g.getNbNodes(); v++) {
+				same &= copy.isArc(u, v) == expected.isArc(u, v);
+			}
+		}
+		System.out.println("View equals computeInverse()? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+		boolean back = TransposedGraph.of(inverse) == g;
+		System.out.println("Inverse of the view is the graph itself? " + back + " (Should be TRUE) " + (back ? "✅" : "❌"));
+	}
+}
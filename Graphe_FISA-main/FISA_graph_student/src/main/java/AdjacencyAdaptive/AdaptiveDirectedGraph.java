@@ -0,0 +1,345 @@
+package AdjacencyAdaptive;
+
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+import AdjacencyAdaptive.GraphFactory.Representation;
+import AdjacencyCSR.EdgeList;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import AdjacencyMatrix.BitMatrixDirectedGraph;
+import AdjacencyPersistent.PersistentDirectedGraph;
+
+/**
+ * Mutable directed graph which moves to the representation chosen by GraphFactory when its
+ * density changes: adjacency arrays while sparse, a bit matrix (unvalued) or an int matrix
+ * (positive weights) once dense.
+ *
+ * The graph goes to a matrix as soon as GraphFactory prefers it, and back to the arrays only
+ * when it would still prefer them with twice the arcs. Between two migrations, which cost
+ * O(n^2), the number of arcs changes by Θ(n^2), so a migration costs O(1) per mutation
+ * amortized and a graph near a threshold does not go back and forth.
+ *
+ * A valued graph has non-zero costs, 0 being the "unvalued" weight of the library. A negative
+ * cost keeps the graph in the arrays, since the int matrix only sees positive cells.
+ */
+public class AdaptiveDirectedGraph implements IGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int nbNodes;
+	private final boolean valued;
+	private int nbArcs;
+	private int nbNegative;			// Arcs of negative cost, which forbid the int matrix
+	private int nbMigrations;
+	private Representation representation;
+	// Only the field of the current representation is not null
+	private PersistentDirectedGraph lists;
+	private BitMatrixDirectedGraph bits;
+	private AdjacencyMatrixDirectedValuedGraph matrix;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Creates a graph with nbNodes nodes and no arc, in the representation of an empty graph.
+	 */
+	public AdaptiveDirectedGraph(int nbNodes, boolean valued) {
+		this(nbNodes, valued, GraphFactory.choose(nbNodes, 0, valued, true, 0));
+	}
+
+	private AdaptiveDirectedGraph(int nbNodes, boolean valued, Representation representation) {
+		this.nbNodes = nbNodes;
+		this.valued = valued;
+		this.nbArcs = 0;
+		this.nbNegative = 0;
+		this.nbMigrations = 0;
+		allocate(representation);
+	}
+
+	/**
+	 * Builds the graph in the representation chosen by GraphFactory.choose(edges, true), which
+	 * also looks at the skew of the degrees. The graph is valued iff an arc has a non-zero
+	 * weight; a repeated arc keeps its last weight, the loops are ignored.
+	 */
+	public static AdaptiveDirectedGraph fromEdgeList(EdgeList edges) {
+		boolean valued = false;
+		for (int i = 0; i < edges.size() && !valued; i++) {
+			valued = edges.getWeight(i) != 0;
+		}
+		AdaptiveDirectedGraph g = new AdaptiveDirectedGraph(edges.getNbNodes(), valued, GraphFactory.choose(edges, true));
+		for (int i = 0; i < edges.size(); i++) {
+			int u = edges.getSource(i);
+			int v = edges.getTarget(i);
+			if (u == v) {
+				continue;
+			}
+			if (!valued) {
+				g.putArc(u, v, 0);
+			} else if (edges.getWeight(i) != 0) {
+				g.putArc(u, v, edges.getWeight(i));
+			} else {
+				throw new IllegalArgumentException("Arc (" + u + "," + v + ") has no weight in a valued edge list");
+			}
+		}
+		return g;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	public int getNbArcs() {
+		return nbArcs;
+	}
+
+	public boolean isValued() {
+		return valued;
+	}
+
+	public Representation getRepresentation() {
+		return representation;
+	}
+
+	/**
+	 * @return the number of changes of representation since the construction
+	 */
+	public int getNbMigrations() {
+		return nbMigrations;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public boolean isArc(int from, int to) {
+		switch (representation) {
+			case BIT_MATRIX: return bits.isArc(from, to);
+			case INT_MATRIX: return from != to && matrix.isArc(from, to);
+			default: return lists.isArc(from, to);
+		}
+	}
+
+	/**
+	 * @return the cost of the arc (from,to), which must exist, 0 if the graph is not valued
+	 */
+	public int getWeight(int from, int to) {
+		if (!isArc(from, to)) {
+			throw new IllegalArgumentException("No arc (" + from + "," + to + ")");
+		}
+		switch (representation) {
+			case BIT_MATRIX: return 0;
+			case INT_MATRIX: return matrix.getMatrix()[from][to];
+			default: return lists.getWeight(from, to);
+		}
+	}
+
+	/**
+	 * Adds the arc (from,to) to an unvalued graph, if it is not already present.
+	 */
+	public void addArc(int from, int to) {
+		if (valued) {
+			throw new IllegalArgumentException("The arcs of a valued graph need a cost");
+		}
+		checkArc(from, to);
+		putArc(from, to, 0);
+	}
+
+	/**
+	 * Adds the arc (from,to) with cost to a valued graph, or updates its cost.
+	 */
+	public void addArc(int from, int to, int cost) {
+		if (!valued) {
+			throw new IllegalArgumentException("The graph is not valued");
+		}
+		if (cost == 0) {
+			throw new IllegalArgumentException("A cost of 0 is the weight of unvalued arcs");
+		}
+		checkArc(from, to);
+		putArc(from, to, cost);
+	}
+
+	/**
+	 * Removes the arc (from,to), if it exists.
+	 */
+	public void removeArc(int from, int to) {
+		if (!isArc(from, to)) {
+			return;
+		}
+		if (getWeight(from, to) < 0) {
+			nbNegative--;
+		}
+		switch (representation) {
+			case BIT_MATRIX: bits.removeArc(from, to); break;
+			case INT_MATRIX: matrix.getMatrix()[from][to] = 0; break;
+			default: lists.removeArc(from, to);
+		}
+		nbArcs--;
+		if (representation != Representation.LIST
+				&& GraphFactory.choose(nbNodes, 2L * nbArcs, valued, true, 0) == Representation.LIST) {
+			migrate(Representation.LIST);
+		}
+	}
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		switch (representation) {
+			case BIT_MATRIX: bits.forEachSuccessor(u, action); break;
+			case INT_MATRIX: matrix.forEachSuccessor(u, action); break;
+			default: lists.forEachSuccessor(u, action);
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		switch (representation) {
+			case BIT_MATRIX: bits.forEachArc(u, action); break;
+			case INT_MATRIX: matrix.forEachArc(u, action); break;
+			default: lists.forEachArc(u, action);
+		}
+	}
+
+	/**
+	 * @return the list of the arcs, sorted by source
+	 */
+	public EdgeList toEdgeList() {
+		EdgeList edges = new EdgeList(nbNodes, nbArcs);
+		for (int u = 0; u < nbNodes; u++) {
+			final int from = u;
+			forEachArc(u, (v, w) -> edges.add(from, v, w));
+		}
+		return edges;
+	}
+
+	private void checkArc(int from, int to) {
+		if (from < 0 || from >= nbNodes || to < 0 || to >= nbNodes) {
+			throw new IndexOutOfBoundsException("Arc (" + from + "," + to + ") is out of bounds (0.." + (nbNodes - 1) + ")");
+		}
+		if (from == to) {
+			throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+		}
+	}
+
+	/**
+	 * Adds or updates the arc, then moves to a matrix if the graph became dense enough.
+	 */
+	private void putArc(int from, int to, int cost) {
+		boolean present = isArc(from, to);
+		int delta = (cost < 0 ? 1 : 0) - (present && getWeight(from, to) < 0 ? 1 : 0);
+		nbNegative += delta;
+		if (representation == Representation.INT_MATRIX && cost < 0) {
+			migrate(Representation.LIST);
+		}
+		switch (representation) {
+			case BIT_MATRIX: bits.addArc(from, to); break;
+			case INT_MATRIX: matrix.getMatrix()[from][to] = cost; break;
+			default: lists.addArc(from, to, cost);
+		}
+		if (!present) {
+			nbArcs++;
+		}
+		if (representation == Representation.LIST && nbNegative == 0) {
+			Representation preferred = GraphFactory.choose(nbNodes, nbArcs, valued, true, 0);
+			if (preferred != Representation.LIST) {
+				migrate(preferred);
+			}
+		}
+	}
+
+	private void allocate(Representation r) {
+		this.representation = r;
+		this.lists = r == Representation.LIST ? new PersistentDirectedGraph(nbNodes) : null;
+		this.bits = r == Representation.BIT_MATRIX ? new BitMatrixDirectedGraph(nbNodes) : null;
+		this.matrix = r == Representation.INT_MATRIX ? new AdjacencyMatrixDirectedValuedGraph(new int[nbNodes][nbNodes]) : null;
+	}
+
+	/**
+	 * Copies the arcs into the new representation, in O(n^2) from or to a matrix.
+	 */
+	private void migrate(Representation target) {
+		EdgeList edges = toEdgeList();
+		allocate(target);
+		for (int i = 0; i < edges.size(); i++) {
+			int u = edges.getSource(i);
+			int v = edges.getTarget(i);
+			switch (representation) {
+				case BIT_MATRIX: bits.addArc(u, v); break;
+				case INT_MATRIX: matrix.getMatrix()[u][v] = edges.getWeight(i); break;
+				default: lists.addArc(u, v, edges.getWeight(i));
+			}
+		}
+		nbMigrations++;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Adaptive Directed Graph (").append(representation).append(")\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(nbArcs).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		int n = 1000;
+		AdaptiveDirectedGraph g = new AdaptiveDirectedGraph(n, false);
+		System.out.println("Empty graph in " + g.getRepresentation() + " (Should be LIST) "
+				+ (g.getRepresentation() == Representation.LIST ? "✅" : "❌"));
+		Random random = new Random(5);
+		while (g.getRepresentation() == Representation.LIST) {
+			int u = random.nextInt(n);
+			int v = random.nextInt(n);
+			if (u != v) {
+				g.addArc(u, v);
+			}
+		}
+		System.out.println("Moved to " + g.getRepresentation() + " with " + g.getNbArcs() + " arcs, density "
+				+ g.getNbArcs() / (double) n / n + " (Should be BIT_MATRIX) " + (g.getRepresentation() == Representation.BIT_MATRIX ? "✅" : "❌"));
+		EdgeList before = g.toEdgeList();
+		boolean kept = true;
+		for (int i = 0; i < before.size(); i += 97) {
+			kept &= g.isArc(before.getSource(i), before.getTarget(i));
+		}
+		System.out.println("Arcs kept by the migration? " + kept + " (Should be TRUE) " + (kept ? "✅" : "❌"));
+		int removed = 0;
+		for (int i = 0; i < before.size() && g.getRepresentation() == Representation.BIT_MATRIX; i++) {
+			g.removeArc(before.getSource(i), before.getTarget(i));
+			removed++;
+		}
+		System.out.println("Back to " + g.getRepresentation() + " after " + removed + " removals, " + g.getNbArcs() + " arcs left (Should be LIST) "
+				+ (g.getRepresentation() == Representation.LIST ? "✅" : "❌"));
+
+		EdgeList dense = new EdgeList(200);
+		for (int u = 0; u < 200; u++) {
+			for (int v = 0; v < 200; v++) {
+				if (u != v && (u + v) % 3 != 0) {
+					dense.add(u, v, 1 + (u * v) % 9);
+				}
+			}
+		}
+		IGraph readOnly = GraphFactory.buildReadOnly(dense);
+		System.out.println("Valued graph of density 0.66 stored as " + readOnly.getClass().getSimpleName()
+				+ " (Should be AdjacencyMatrixDirectedValuedGraph) " + (readOnly instanceof AdjacencyMatrixDirectedValuedGraph ? "✅" : "❌"));
+		AdaptiveDirectedGraph valued = GraphFactory.buildMutable(dense);
+		valued.addArc(0, 3, -2);
+		System.out.println("Negative cost moves it to " + valued.getRepresentation() + " (Should be LIST) "
+				+ (valued.getRepresentation() == Representation.LIST && valued.getWeight(0, 3) == -2 ? "✅" : "❌"));
+
+		EdgeList star = new EdgeList(100000);
+		for (int v = 1; v < 100000; v++) {
+			star.add(0, v);
+			star.add(v, (v * 7) % 100000);
+		}
+		System.out.println("Sparse graph stored as " + GraphFactory.buildReadOnly(star).getClass().getSimpleName() + " (Should be CSRGraph) "
+				+ (GraphFactory.choose(star, false) == Representation.CSR ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,130 @@
+package AdjacencyAdaptive;
+
+import Abstraction.IGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyMatrix.BitMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+
+/**
+ * Builds the representation of a directed graph that suits its size, from the number of
+ * nodes and arcs and the skew of the out-degrees:
+ * <ul>
+ * <li>BIT_MATRIX, n^2/8 bytes, for dense unvalued graphs;</li>
+ * <li>INT_MATRIX, 4n^2 bytes, for very dense graphs with positive weights;</li>
+ * <li>CSR, about 4n + 8m bytes, for the other read-only graphs;</li>
+ * <li>LIST, adjacency arrays of about 12m bytes, for the other graphs to be modified.</li>
+ * </ul>
+ * A matrix is chosen as soon as it takes no more memory than the sparse form, or twice as
+ * much when a few nodes hold most of the arcs: their isArc would cost O(degree) in lists.
+ * The matrices ignore the loops, as the other simple graphs of the library.
+ */
+public class GraphFactory {
+
+	public enum Representation {BIT_MATRIX, INT_MATRIX, CSR, LIST}
+
+	/**
+	 * A graph is skewed when its maximal out-degree is above SKEW_THRESHOLD times the average.
+	 */
+	public static final double SKEW_THRESHOLD = 32;
+
+	private GraphFactory() {
+
+	}
+
+	// ------------------------------------------
+	// 				Choice
+	// ------------------------------------------
+
+	/**
+	 * @param valued true if the arcs carry weights, which must then be positive for a matrix
+	 * @param mutable true if arcs will be added or removed after the construction
+	 * @param maxDegree the maximal out-degree, or 0 if unknown
+	 */
+	public static Representation choose(int n, long m, boolean valued, boolean mutable, int maxDegree) {
+		boolean skewed = n > 0 && m > 0 && maxDegree > SKEW_THRESHOLD * m / n;
+		double allowance = skewed ? 2 : 1;
+		if (valued) {
+			if (matrixBytes(n, true) <= allowance * sparseBytes(n, m, mutable)) {
+				return Representation.INT_MATRIX;
+			}
+		} else if (matrixBytes(n, false) <= allowance * sparseBytes(n, m, mutable)) {
+			return Representation.BIT_MATRIX;
+		}
+		return mutable ? Representation.LIST : Representation.CSR;
+	}
+
+	/**
+	 * Reads the arcs once to find whether they are valued, and the maximal out-degree.
+	 * Negative or zero weights among valued arcs rule the int matrix out, where 0 means no arc.
+	 */
+	public static Representation choose(EdgeList edges, boolean mutable) {
+		int n = edges.getNbNodes();
+		int[] degrees = new int[n];
+		int maxDegree = 0;
+		boolean valued = false;
+		boolean positive = true;
+		for (int i = 0; i < edges.size(); i++) {
+			maxDegree = Math.max(maxDegree, ++degrees[edges.getSource(i)]);
+			int w = edges.getWeight(i);
+			valued |= w != 0;
+			positive &= w > 0;
+		}
+		Representation r = choose(n, edges.size(), valued, mutable, maxDegree);
+		if (r == Representation.INT_MATRIX && !positive) {
+			return mutable ? Representation.LIST : Representation.CSR;
+		}
+		return r;
+	}
+
+	/**
+	 * @return an estimation of the memory taken by the matrix, in bytes
+	 */
+	static double matrixBytes(int n, boolean valued) {
+		return valued ? 4.0 * n * n : n * (double) ((n + 63) >>> 6) * 8;
+	}
+
+	/**
+	 * @return an estimation of the memory taken by the sparse form, in bytes
+	 */
+	static double sparseBytes(int n, long m, boolean mutable) {
+		return mutable ? 16.0 * n + 12.0 * m : 4.0 * n + 8.0 * m;
+	}
+
+	// ------------------------------------------
+	// 				Builders
+	// ------------------------------------------
+
+	/**
+	 * @return a BitMatrixDirectedGraph, an AdjacencyMatrixDirectedValuedGraph or a CSRGraph
+	 */
+	public static IGraph buildReadOnly(EdgeList edges) {
+		switch (choose(edges, false)) {
+			case BIT_MATRIX:
+				BitMatrixDirectedGraph bits = new BitMatrixDirectedGraph(edges.getNbNodes());
+				for (int i = 0; i < edges.size(); i++) {
+					if (edges.getSource(i) != edges.getTarget(i)) {
+						bits.addArc(edges.getSource(i), edges.getTarget(i));
+					}
+				}
+				return bits;
+			case INT_MATRIX:
+				AdjacencyMatrixDirectedValuedGraph matrix = GraphConverter.toMatrixDirectedValuedGraph(edges);
+				for (int u = 0; u < edges.getNbNodes(); u++) {
+					matrix.getMatrix()[u][u] = 0;
+				}
+				return matrix;
+			default:
+				return CSRGraph.fromEdgeList(edges);
+		}
+	}
+
+	/**
+	 * @return a graph which starts in the representation chosen for the arcs, and changes
+	 * of representation when its density crosses the thresholds
+	 */
+	public static AdaptiveDirectedGraph buildMutable(EdgeList edges) {
+		return AdaptiveDirectedGraph.fromEdgeList(edges);
+	}
+}
@@ -0,0 +1,230 @@
+package AdjacencyCSR;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import Collection.Hashing;
+import Collection.IdDictionary;
+import GraphAlgorithms.GraphToolsParallel;
+import Nodes_Edges.DirectedNode;
+
+/**
+ * A batch of arc insertions and deletions made ready to be applied to a mutable graph in one
+ * pass: each arc appears once, sorted by (source, target), so the arcs of a node are next to
+ * each other and its adjacency list is visited once for the whole batch.
+ *
+ * The deletions of a batch happen before its insertions: an arc both deleted and inserted is
+ * kept with its inserted weight, and an arc inserted several times keeps its last weight.
+ * For an undirected graph each pair is given as (min, max), (u,v) and (v,u) being the same edge.
+ */
+public final class ArcBatch {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final long[] keys;			// Packed (source, target), increasing
+	private final int[] weights;
+	private final boolean[] inserts;	// false for a deletion
+	private final int nbInserts;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	private ArcBatch(long[] keys, int[] weights, boolean[] inserts, int nbInserts) {
+		this.keys = keys;
+		this.weights = weights;
+		this.inserts = inserts;
+		this.nbInserts = nbInserts;
+	}
+
+	/**
+	 * Deduplicates the two lists (either may be null) in O(k log k) for k arcs in the batch.
+	 * The weights of deletes are ignored.
+	 */
+	public static ArcBatch of(EdgeList inserts, EdgeList deletes, boolean undirected) {
+		int k = (inserts == null ? 0 : inserts.size()) + (deletes == null ? 0 : deletes.size());
+		IdDictionary slots = new IdDictionary(k);
+		int[] weightOf = new int[k];
+		boolean[] insertOf = new boolean[k];
+		if (deletes != null) {
+			for (int i = 0; i < deletes.size(); i++) {
+				slots.getOrAdd(key(deletes.getSource(i), deletes.getTarget(i), undirected));
+			}
+		}
+		if (inserts != null) {
+			for (int i = 0; i < inserts.size(); i++) {
+				int slot = slots.getOrAdd(key(inserts.getSource(i), inserts.getTarget(i), undirected));
+				weightOf[slot] = inserts.getWeight(i);
+				insertOf[slot] = true;
+			}
+		}
+		long[] keys = slots.toIdArray();
+		Arrays.sort(keys);
+		int[] weights = new int[keys.length];
+		boolean[] isInsert = new boolean[keys.length];
+		int nbInserts = 0;
+		for (int i = 0; i < keys.length; i++) {
+			int slot = slots.indexOf(keys[i]);
+			weights[i] = weightOf[slot];
+			isInsert[i] = insertOf[slot];
+			if (isInsert[i]) {
+				nbInserts++;
+			}
+		}
+		return new ArcBatch(keys, weights, isInsert, nbInserts);
+	}
+
+	private static long key(int from, int to, boolean undirected) {
+		return undirected ? Hashing.pack(Math.min(from, to), Math.max(from, to)) : Hashing.pack(from, to);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	/**
+	 * @return the number of distinct arcs of the batch
+	 */
+	public int size() {
+		return keys.length;
+	}
+
+	public int getNbInserts() {
+		return nbInserts;
+	}
+
+	public int getNbDeletes() {
+		return keys.length - nbInserts;
+	}
+
+	public int getSource(int i) {
+		return Hashing.first(keys[i]);
+	}
+
+	public int getTarget(int i) {
+		return Hashing.second(keys[i]);
+	}
+
+	public int getWeight(int i) {
+		return weights[i];
+	}
+
+	public boolean isInsert(int i) {
+		return inserts[i];
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * @return the index of the arc (from,to) in the batch, or a negative value if it is not in it,
+	 * found by binary search. Undirected batches must be searched as (min, max).
+	 */
+	public int indexOf(int from, int to) {
+		return Arrays.binarySearch(keys, Hashing.pack(from, to));
+	}
+
+	/**
+	 * @return the index after the last arc with the same source as arc i
+	 */
+	public int groupEnd(int i) {
+		int u = getSource(i);
+		int j = i + 1;
+		while (j < keys.length && getSource(j) == u) {
+			j++;
+		}
+		return j;
+	}
+
+	/**
+	 * Checks that every arc is between nodes of 0..nbNodes-1, and when loops are not allowed
+	 * that no inserted arc is a loop, before the graph is changed.
+	 */
+	public void validate(int nbNodes, boolean loopsAllowed) {
+		for (int i = 0; i < keys.length; i++) {
+			int u = getSource(i);
+			int v = getTarget(i);
+			if (u < 0 || u >= nbNodes || v < 0 || v >= nbNodes) {
+				throw new IndexOutOfBoundsException("Arc (" + u + "," + v + ") is out of bounds (0.." + (nbNodes - 1) + ")");
+			}
+			if (!loopsAllowed && inserts[i] && u == v) {
+				throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Arc Batch\n");
+		s.append("Insertions: ").append(nbInserts).append(", deletions: ").append(getNbDeletes()).append("\n");
+		for (int i = 0; i < keys.length; i++) {
+			s.append(inserts[i] ? "+(" : "-(").append(getSource(i)).append(",").append(getTarget(i));
+			if (inserts[i] && weights[i] != 0) {
+				s.append(",").append(weights[i]);
+			}
+			s.append(")  ");
+		}
+		s.append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		EdgeList inserts = new EdgeList(4);
+		inserts.add(2, 3, 7);
+		inserts.add(0, 1, 4);
+		inserts.add(2, 3, 9);
+		EdgeList deletes = new EdgeList(4);
+		deletes.add(0, 1);
+		deletes.add(1, 2);
+		ArcBatch batch = ArcBatch.of(inserts, deletes, false);
+		System.out.println(batch);
+		boolean resolved = batch.size() == 3 && batch.isInsert(batch.indexOf(0, 1)) && batch.getWeight(batch.indexOf(2, 3)) == 9;
+		System.out.println("(0,1) kept as inserted and (2,3) with its last weight? " + resolved + " (Should be TRUE) " + (resolved ? "✅" : "❌"));
+
+		EdgeList base = GraphToolsParallel.generateValuedEdgeList(20000, 200000L, false, false, true, false, 47L, 1);
+		AdjacencyListDirectedValuedGraph one = GraphConverter.toDirectedValuedGraph(base);
+		AdjacencyListDirectedValuedGraph batched = GraphConverter.toDirectedValuedGraph(base);
+		Random rand = new Random(47);
+		EdgeList added = new EdgeList(base.getNbNodes());
+		EdgeList removed = new EdgeList(base.getNbNodes());
+		for (int i = 0; i < 2000; i++) {
+			int k = rand.nextInt(base.size());
+			removed.add(base.getSource(k), base.getTarget(k));
+			int u = rand.nextInt(base.getNbNodes());
+			int v = rand.nextInt(base.getNbNodes());
+			if (u != v) {
+				added.add(u, v, 1 + rand.nextInt(15));
+			}
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < removed.size(); i++) {
+			one.removeArc(one.getNodes().get(removed.getSource(i)), one.getNodes().get(removed.getTarget(i)));
+		}
+		for (int i = 0; i < added.size(); i++) {
+			one.addArc(one.getNodes().get(added.getSource(i)), one.getNodes().get(added.getTarget(i)), added.getWeight(i));
+		}
+		long oneMs = (System.nanoTime() - start) / 1000000;
+		start = System.nanoTime();
+		batched.applyBatch(added, removed);
+		long batchMs = (System.nanoTime() - start) / 1000000;
+		System.out.println((added.size() + removed.size()) + " updates one at a time in " + oneMs + " ms, in one batch in " + batchMs + " ms");
+		boolean same = one.getNbArcs() == batched.getNbArcs() && one.getArcs().size() == batched.getArcs().size();
+		for (DirectedNode node : one.getNodes()) {
+			int u = node.getLabel();
+			long[] a = new long[node.getNbSuccs()];
+			long[] b = new long[batched.getNodes().get(u).getNbSuccs()];
+			int[] i = {0, 0};
+			one.forEachArc(u, (v, w) -> a[i[0]++] = Hashing.pack(v, w));
+			batched.forEachArc(u, (v, w) -> b[i[1]++] = Hashing.pack(v, w));
+			Arrays.sort(a);
+			Arrays.sort(b);
+			same &= Arrays.equals(a, b) && node.getNbPreds() == batched.getNodes().get(u).getNbPreds();
+		}
+		System.out.println("Same graph as with addArc/removeArc? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,194 @@
+package AdjacencyCSR;
+
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+
+/**
+ * This class represents a read-only directed graph in Compressed Sparse Row form.
+ * The successors of u are targets[offsets[u] .. offsets[u+1]-1] and the weight of
+ * the arc stored at index a is weights[a]. An undirected graph is stored with
+ * both directions of each edge.
+ */
+public class CSRGraph implements IGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	protected int nbNodes;		// Number of vertices
+	protected int nbArcs;		// Number of arcs
+	protected int[] offsets;	// Size nbNodes+1, start of the successors of each node
+	protected int[] targets;	// Size nbArcs, successors sorted by source
+	protected int[] weights;	// Size nbArcs, weight of each arc
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public CSRGraph(int[] offsets, int[] targets, int[] weights) {
+		if (offsets == null || offsets.length == 0 || targets == null || weights == null) {
+			throw new IllegalArgumentException("Offsets, targets and weights cannot be null");
+		}
+		if (targets.length < offsets[offsets.length - 1] || weights.length < offsets[offsets.length - 1]) {
+			throw new IllegalArgumentException("Targets and weights must hold offsets[nbNodes] arcs");
+		}
+		this.nbNodes = offsets.length - 1;
+		this.nbArcs = offsets[this.nbNodes];
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Builds the CSR form of an edge list with a counting sort on the sources, in O(n+m).
+	 * The order of the arcs of the same source is kept.
+	 */
+	public static CSRGraph fromEdgeList(EdgeList edges) {
+		int n = edges.getNbNodes();
+		int m = edges.size();
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < m; i++) {
+			offsets[edges.sources[i] + 1]++;
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		int[] next = new int[n];
+		System.arraycopy(offsets, 0, next, 0, n);
+		int[] targets = new int[m];
+		int[] weights = new int[m];
+		for (int i = 0; i < m; i++) {
+			int a = next[edges.sources[i]]++;
+			targets[a] = edges.targets[i];
+			weights[a] = edges.weights[i];
+		}
+		return new CSRGraph(offsets, targets, weights);
+	}
+
+	//--------------------------------------------------
+	// 					Accessors
+	//--------------------------------------------------
+
+	/**
+	 * @return the number of nodes in the graph
+	 */
+	@Override
+	public int getNbNodes() {
+		return this.nbNodes;
+	}
+
+	/**
+	 * @return the number of arcs in the graph
+	 */
+	public int getNbArcs() {
+		return this.nbArcs;
+	}
+
+	/**
+	 * @return the index of the first out-going arc of u
+	 */
+	public int getFirstArc(int u) {
+		return this.offsets[u];
+	}
+
+	/**
+	 * @return the index following the last out-going arc of u
+	 */
+	public int getEndArc(int u) {
+		return this.offsets[u + 1];
+	}
+
+	/**
+	 * @return the number of successors of u
+	 */
+	public int getOutDegree(int u) {
+		return this.offsets[u + 1] - this.offsets[u];
+	}
+
+	/**
+	 * @return the destination of the arc stored at index a
+	 */
+	public int getTarget(int a) {
+		return this.targets[a];
+	}
+
+	/**
+	 * @return the weight of the arc stored at index a
+	 */
+	public int getWeight(int a) {
+		return this.weights[a];
+	}
+
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	public int[] getWeights() {
+		return this.weights;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+			action.accept(targets[a]);
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+			action.accept(targets[a], weights[a]);
+		}
+	}
+
+	/**
+	 * @return true if the arc (from,to) exists in the graph, in O(outdegree(from))
+	 */
+	public boolean isArc(int from, int to) {
+		for (int a = offsets[from]; a < offsets[from + 1]; a++) {
+			if (targets[a] == to) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the list of the arcs of the graph, sorted by source
+	 */
+	public EdgeList toEdgeList() {
+		EdgeList edges = new EdgeList(nbNodes, nbArcs);
+		for (int u = 0; u < nbNodes; u++) {
+			for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+				edges.add(u, targets[a], weights[a]);
+			}
+		}
+		return edges;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("CSR Directed Graph\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(nbArcs).append("\n");
+		for (int u = 0; u < nbNodes; u++) {
+			s.append("Node ").append(u).append(" -> ");
+			for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+				s.append("(").append(targets[a]).append(", weight=").append(weights[a]).append(") ");
+			}
+			s.append("\n");
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,212 @@
+package AdjacencyCSR;
+
+import java.util.Arrays;
+
+import Collection.IdDictionary;
+
+/**
+ * This class represents a graph as a plain list of arcs (source, target, weight)
+ * stored in three parallel int arrays. It costs 12 bytes per arc and is the
+ * intermediate form used to generate, load and convert large graphs without
+ * going through an n x n matrix.
+ */
+public class EdgeList implements EdgeSink {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	protected int nbNodes;		// Number of vertices, labels are in [0, nbNodes)
+	protected int size;			// Number of arcs stored
+	protected int[] sources;
+	protected int[] targets;
+	protected int[] weights;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public EdgeList(int nbNodes) {
+		this(nbNodes, 16);
+	}
+
+	/**
+	 * @param nbNodes the number of vertices
+	 * @param capacity the number of arcs that can be added before growing the arrays
+	 */
+	public EdgeList(int nbNodes, int capacity) {
+		if (nbNodes < 0 || capacity < 0) {
+			throw new IllegalArgumentException("Number of nodes and capacity must be positive");
+		}
+		this.nbNodes = nbNodes;
+		this.size = 0;
+		this.sources = new int[capacity];
+		this.targets = new int[capacity];
+		this.weights = new int[capacity];
+	}
+
+	/**
+	 * Wraps existing arrays without copying them, the size first entries being the arcs.
+	 */
+	public EdgeList(int nbNodes, int[] sources, int[] targets, int[] weights, int size) {
+		if (sources.length < size || targets.length < size || weights.length < size) {
+			throw new IllegalArgumentException("Arrays must hold at least " + size + " arcs");
+		}
+		this.nbNodes = nbNodes;
+		this.size = size;
+		this.sources = sources;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Builds the list of arcs given by external ids, which are translated into dense labels
+	 * through ids, unknown ids getting the next free label. The number of nodes is the size
+	 * of the dictionary afterwards. A null weights column gives weight 0 to every arc.
+	 */
+	public static EdgeList fromIds(IdDictionary ids, long[] sources, long[] targets, int[] weights, int size) {
+		if (sources.length < size || targets.length < size || (weights != null && weights.length < size)) {
+			throw new IllegalArgumentException("Arrays must hold at least " + size + " arcs");
+		}
+		int[] from = new int[size];
+		int[] to = new int[size];
+		for (int i = 0; i < size; i++) {
+			from[i] = ids.getOrAdd(sources[i]);
+			to[i] = ids.getOrAdd(targets[i]);
+		}
+		int[] w = weights != null ? Arrays.copyOf(weights, size) : new int[size];
+		return new EdgeList(ids.size(), from, to, w, size);
+	}
+
+	//--------------------------------------------------
+	// 					Accessors
+	//--------------------------------------------------
+
+	/**
+	 * @return the number of nodes of the graph
+	 */
+	public int getNbNodes() {
+		return this.nbNodes;
+	}
+
+	/**
+	 * @return the number of arcs in the list
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	public int getSource(int i) {
+		return this.sources[i];
+	}
+
+	public int getTarget(int i) {
+		return this.targets[i];
+	}
+
+	public int getWeight(int i) {
+		return this.weights[i];
+	}
+
+	public void setWeight(int i, int weight) {
+		this.weights[i] = weight;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Adds the arc (from,to) with a weight equal to 0.
+	 */
+	public void add(int from, int to) {
+		add(from, to, 0);
+	}
+
+	/**
+	 * Adds the arc (from,to,weight). No duplicate check is done.
+	 */
+	public void add(int from, int to, int weight) {
+		if (from < 0 || from >= nbNodes || to < 0 || to >= nbNodes) {
+			throw new IndexOutOfBoundsException("Arc (" + from + "," + to + ") is out of bounds (0.." + (nbNodes - 1) + ")");
+		}
+		if (size == sources.length) {
+			grow(size + 1);
+		}
+		sources[size] = from;
+		targets[size] = to;
+		weights[size] = weight;
+		size++;
+	}
+
+	@Override
+	public void accept(int from, int to, int weight) {
+		add(from, to, weight);
+	}
+
+	@Override
+	public void acceptBatch(int[] from, int[] to, int[] weight, int len) {
+		for (int i = 0; i < len; i++) {
+			if (from[i] < 0 || from[i] >= nbNodes || to[i] < 0 || to[i] >= nbNodes) {
+				throw new IndexOutOfBoundsException("Arc (" + from[i] + "," + to[i] + ") is out of bounds (0.." + (nbNodes - 1) + ")");
+			}
+		}
+		ensureCapacity(size + len);
+		System.arraycopy(from, 0, sources, size, len);
+		System.arraycopy(to, 0, targets, size, len);
+		System.arraycopy(weight, 0, weights, size, len);
+		size += len;
+	}
+
+	/**
+	 * Ensures the arrays can hold at least capacity arcs.
+	 */
+	public void ensureCapacity(long capacity) {
+		if (capacity > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Edge list cannot hold more than " + (Integer.MAX_VALUE - 8) + " arcs");
+		}
+		if (capacity > sources.length) {
+			grow((int) capacity);
+		}
+	}
+
+	private void grow(int minCapacity) {
+		long newCapacity = Math.max(minCapacity, sources.length + (sources.length >> 1) + 16L);
+		int capacity = (int) Math.min(Integer.MAX_VALUE - 8, newCapacity);
+		if (capacity < minCapacity) {
+			throw new IllegalStateException("Edge list cannot hold more than " + capacity + " arcs");
+		}
+		this.sources = Arrays.copyOf(this.sources, capacity);
+		this.targets = Arrays.copyOf(this.targets, capacity);
+		this.weights = Arrays.copyOf(this.weights, capacity);
+	}
+
+	/**
+	 * @return the adjacency matrix representation int[][] of the list, each cell holding the weight
+	 * of the arc, or 1 for arcs of weight 0. Costs O(n^2) memory, only meant for small graphs.
+	 */
+	public int[][] toAdjacencyMatrix() {
+		int[][] matrix = new int[nbNodes][nbNodes];
+		for (int i = 0; i < size; i++) {
+			matrix[sources[i]][targets[i]] = weights[i] != 0 ? weights[i] : 1;
+		}
+		return matrix;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Edge List\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(size).append("\n");
+		for (int i = 0; i < size; i++) {
+			s.append("(").append(sources[i]).append(",").append(targets[i]);
+			if (weights[i] != 0) {
+				s.append(",").append(weights[i]);
+			}
+			s.append(")  ");
+		}
+		s.append("\n");
+		return s.toString();
+	}
+}
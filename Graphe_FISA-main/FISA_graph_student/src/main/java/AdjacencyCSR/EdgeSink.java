@@ -0,0 +1,23 @@
+package AdjacencyCSR;
+
+/**
+ * A destination for arcs produced one after the other (generators, parsers, converters).
+ * It lets a producer stream a graph to memory, to a file or to a counter without
+ * knowing where the arcs end up.
+ */
+public interface EdgeSink {
+
+	/**
+	 * Receives the arc (from,to,weight).
+	 */
+	void accept(int from, int to, int weight);
+
+	/**
+	 * Receives the len first arcs of the three parallel arrays, in order.
+	 */
+	default void acceptBatch(int[] from, int[] to, int[] weight, int len) {
+		for (int i = 0; i < len; i++) {
+			accept(from[i], to[i], weight[i]);
+		}
+	}
+}
@@ -0,0 +1,373 @@
+package AdjacencyCSR;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Abstraction.IGraph;
+import AdjacencyList.AdjacencyListDirectedGraph;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyList.AdjacencyListUndirectedGraph;
+import AdjacencyList.AdjacencyListUndirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedValuedGraph;
+import Nodes_Edges.Arc;
+import Nodes_Edges.DirectedNode;
+import Nodes_Edges.Edge;
+import Nodes_Edges.UndirectedNode;
+
+/**
+ * Conversions between the list, matrix and CSR representations through an EdgeList.
+ * Every conversion from a list or CSR graph costs O(n+m); only the ones from a matrix read
+ * its n^2 cells, and only the ones named toMatrix... allocate a dense matrix.
+ *
+ * An undirected graph becomes an edge list with both directions of each edge, as in CSRGraph.
+ */
+public class GraphConverter {
+
+	/**
+	 * Above this density m/n^2 a matrix is preferred to a CSR graph: the int matrix costs
+	 * 4n^2 bytes against about 8m bytes, and it answers isArc in O(1).
+	 */
+	public static final double DENSE_THRESHOLD = 0.25;
+
+	private GraphConverter() {
+
+	}
+
+	// ------------------------------------------
+	// 				To edge lists
+	// ------------------------------------------
+
+	public static EdgeList toEdgeList(AdjacencyListDirectedGraph g) {
+		EdgeList edges = new EdgeList(g.getNbNodes(), g.getNbArcs());
+		for (DirectedNode n : g.getNodes()) {
+			for (Arc a : n.getArcSucc()) {
+				edges.add(n.getLabel(), a.getSecondNode().getLabel(), a.getWeight());
+			}
+		}
+		return edges;
+	}
+
+	public static EdgeList toEdgeList(AdjacencyListUndirectedGraph g) {
+		EdgeList edges = new EdgeList(g.getNbNodes(), 2 * g.getNbEdges());
+		for (UndirectedNode n : g.getNodes()) {
+			for (Edge e : n.getIncidentEdges()) {
+				edges.add(n.getLabel(), e.getSecondNode().getLabel(), e.getWeight());
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * Every positive cell becomes an arc weighted by the cell value.
+	 */
+	public static EdgeList toEdgeList(int[][] matrix) {
+		int n = matrix.length;
+		EdgeList edges = new EdgeList(n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < matrix[i].length; j++) {
+				if (matrix[i][j] > 0) {
+					edges.add(i, j, matrix[i][j]);
+				}
+			}
+		}
+		return edges;
+	}
+
+	public static EdgeList toEdgeList(AdjacencyMatrixDirectedGraph g) {
+		return toEdgeList(g.getMatrix());
+	}
+
+	public static EdgeList toEdgeList(AdjacencyMatrixUndirectedGraph g) {
+		return toEdgeList(g.getMatrix());
+	}
+
+	// ------------------------------------------
+	// 				To list graphs
+	// ------------------------------------------
+
+	/**
+	 * Builds the unvalued list graph in O(n+m), every arc getting weight 0.
+	 */
+	public static AdjacencyListDirectedGraph toDirectedGraph(EdgeList edges) {
+		List<DirectedNode> nodes = new ArrayList<>(edges.getNbNodes());
+		List<Arc> arcs = new ArrayList<>(edges.size());
+		fillDirected(edges, false, nodes, arcs);
+		return new AdjacencyListDirectedGraph(nodes, arcs);
+	}
+
+	/**
+	 * Builds the list graph in O(n+m): the arcs are grouped by source with a counting sort and
+	 * duplicates are detected with a stamp per target, so no contains() scan is done.
+	 * A repeated arc keeps its last weight, as AdjacencyListDirectedValuedGraph.addArc does.
+	 */
+	public static AdjacencyListDirectedValuedGraph toDirectedValuedGraph(EdgeList edges) {
+		List<DirectedNode> nodes = new ArrayList<>(edges.getNbNodes());
+		List<Arc> arcs = new ArrayList<>(edges.size());
+		fillDirected(edges, true, nodes, arcs);
+		return new AdjacencyListDirectedValuedGraph(nodes, arcs);
+	}
+
+	/**
+	 * Builds the unvalued undirected list graph in O(n+m), every edge getting weight 0.
+	 */
+	public static AdjacencyListUndirectedGraph toUndirectedGraph(EdgeList edges) {
+		List<UndirectedNode> nodes = new ArrayList<>(edges.getNbNodes());
+		List<Edge> list = new ArrayList<>(edges.size());
+		fillUndirected(edges, false, nodes, list);
+		return new AdjacencyListUndirectedGraph(nodes, list);
+	}
+
+	/**
+	 * Builds the undirected list graph in O(n+m), each edge being stored once in the edge list
+	 * as (min,max) and once in the incident list of each extremity (once for a loop).
+	 * Both directions of an edge may be present in the edge list, they are merged.
+	 */
+	public static AdjacencyListUndirectedValuedGraph toUndirectedValuedGraph(EdgeList edges) {
+		List<UndirectedNode> nodes = new ArrayList<>(edges.getNbNodes());
+		List<Edge> list = new ArrayList<>(edges.size());
+		fillUndirected(edges, true, nodes, list);
+		return new AdjacencyListUndirectedValuedGraph(nodes, list);
+	}
+
+	public static AdjacencyListDirectedValuedGraph toDirectedValuedGraph(AdjacencyMatrixDirectedGraph g) {
+		return toDirectedValuedGraph(toEdgeList(g));
+	}
+
+	public static AdjacencyListUndirectedValuedGraph toUndirectedValuedGraph(AdjacencyMatrixUndirectedGraph g) {
+		return toUndirectedValuedGraph(toEdgeList(g));
+	}
+
+	public static AdjacencyListDirectedValuedGraph toDirectedValuedGraph(CSRGraph g) {
+		return toDirectedValuedGraph(g.toEdgeList());
+	}
+
+	private static void fillDirected(EdgeList edges, boolean valued, List<DirectedNode> nodes, List<Arc> arcs) {
+		int n = edges.getNbNodes();
+		CSRGraph csr = CSRGraph.fromEdgeList(edges);
+		for (int i = 0; i < n; i++) {
+			nodes.add(new DirectedNode(i));
+		}
+		int[] stamp = new int[n];
+		Arc[] arcTo = new Arc[n];
+		for (int u = 0; u < n; u++) {
+			DirectedNode from = nodes.get(u);
+			for (int a = csr.getFirstArc(u); a < csr.getEndArc(u); a++) {
+				int v = csr.getTarget(a);
+				int w = valued ? csr.getWeight(a) : 0;
+				if (stamp[v] == u + 1) {
+					arcTo[v].setWeight(w);
+					continue;
+				}
+				DirectedNode to = nodes.get(v);
+				Arc arc = new Arc(from, to, w);
+				from.getArcSucc().add(arc);
+				if (u != v) {
+					to.getArcPred().add(arc); // As DirectedNode.addArc, a loop is not its own predecessor
+				}
+				arcs.add(arc);
+				stamp[v] = u + 1;
+				arcTo[v] = arc;
+			}
+		}
+	}
+
+	private static void fillUndirected(EdgeList edges, boolean valued, List<UndirectedNode> nodes, List<Edge> list) {
+		int n = edges.getNbNodes();
+		EdgeList canonical = new EdgeList(n, edges.size());
+		for (int i = 0; i < edges.size(); i++) {
+			int u = edges.getSource(i);
+			int v = edges.getTarget(i);
+			canonical.add(Math.min(u, v), Math.max(u, v), valued ? edges.getWeight(i) : 0);
+		}
+		CSRGraph csr = CSRGraph.fromEdgeList(canonical);
+		for (int i = 0; i < n; i++) {
+			nodes.add(new UndirectedNode(i));
+		}
+		int[] stamp = new int[n];
+		Edge[] edgeTo = new Edge[n];
+		Edge[] backTo = new Edge[n];
+		for (int u = 0; u < n; u++) {
+			UndirectedNode x = nodes.get(u);
+			for (int a = csr.getFirstArc(u); a < csr.getEndArc(u); a++) {
+				int v = csr.getTarget(a);
+				int w = csr.getWeight(a);
+				if (stamp[v] == u + 1) {
+					edgeTo[v].setWeight(w);
+					backTo[v].setWeight(w);
+					continue;
+				}
+				UndirectedNode y = nodes.get(v);
+				Edge e1 = new Edge(x, y, w);
+				x.getIncidentEdges().add(e1);
+				list.add(e1);
+				Edge e2 = e1;
+				if (u != v) {
+					e2 = new Edge(y, x, w);
+					y.getIncidentEdges().add(e2);
+				}
+				stamp[v] = u + 1;
+				edgeTo[v] = e1;
+				backTo[v] = e2;
+			}
+		}
+	}
+
+	// ------------------------------------------
+	// 				To CSR graphs
+	// ------------------------------------------
+
+	/**
+	 * Fills the CSR arrays straight from the successor lists, without an intermediate edge list.
+	 */
+	public static CSRGraph toCSRGraph(AdjacencyListDirectedGraph g) {
+		int n = g.getNbNodes();
+		int[] offsets = new int[n + 1];
+		for (DirectedNode node : g.getNodes()) {
+			offsets[node.getLabel() + 1] = node.getNbSuccs();
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		for (DirectedNode node : g.getNodes()) {
+			int a = offsets[node.getLabel()];
+			for (Arc arc : node.getArcSucc()) {
+				targets[a] = arc.getSecondNode().getLabel();
+				weights[a] = arc.getWeight();
+				a++;
+			}
+		}
+		return new CSRGraph(offsets, targets, weights);
+	}
+
+	public static CSRGraph toCSRGraph(AdjacencyListUndirectedGraph g) {
+		return CSRGraph.fromEdgeList(toEdgeList(g));
+	}
+
+	public static CSRGraph toCSRGraph(AdjacencyMatrixDirectedGraph g) {
+		return CSRGraph.fromEdgeList(toEdgeList(g));
+	}
+
+	public static CSRGraph toCSRGraph(AdjacencyMatrixUndirectedGraph g) {
+		return CSRGraph.fromEdgeList(toEdgeList(g));
+	}
+
+	// ------------------------------------------
+	// 				To matrices
+	// ------------------------------------------
+
+	/**
+	 * Only on request: the matrix costs O(n^2) whatever the number of arcs.
+	 */
+	public static AdjacencyMatrixDirectedValuedGraph toMatrixDirectedValuedGraph(EdgeList edges) {
+		return new AdjacencyMatrixDirectedValuedGraph(edges.toAdjacencyMatrix());
+	}
+
+	/**
+	 * Only on request: the matrix costs O(n^2) whatever the number of edges.
+	 */
+	public static AdjacencyMatrixUndirectedValuedGraph toMatrixUndirectedValuedGraph(EdgeList edges) {
+		return new AdjacencyMatrixUndirectedValuedGraph(edges.toAdjacencyMatrix());
+	}
+
+	// ------------------------------------------
+	// 				Density-based choice
+	// ------------------------------------------
+
+	/**
+	 * @return the density m/n^2 of the edge list
+	 */
+	public static double density(EdgeList edges) {
+		long n = edges.getNbNodes();
+		return n == 0 ? 0 : edges.size() / (double) (n * n);
+	}
+
+	/**
+	 * @return a read-only form of the arcs: a CSR graph if the density is under DENSE_THRESHOLD,
+	 * a matrix otherwise. A matrix only holds positive weights, so valued arcs with a negative
+	 * or zero weight keep the CSR form whatever the density.
+	 */
+	public static IGraph toReadOnlyGraph(EdgeList edges) {
+		if (density(edges) < DENSE_THRESHOLD || !fitsMatrix(edges)) {
+			return CSRGraph.fromEdgeList(edges);
+		}
+		return toMatrixDirectedValuedGraph(edges);
+	}
+
+	/**
+	 * @return false if the arcs are valued and one of them has a weight <= 0, as GraphFactory.choose
+	 */
+	private static boolean fitsMatrix(EdgeList edges) {
+		boolean valued = false;
+		boolean positive = true;
+		for (int i = 0; i < edges.size(); i++) {
+			int w = edges.getWeight(i);
+			valued |= w != 0;
+			positive &= w > 0;
+		}
+		return !valued || positive;
+	}
+
+	public static IGraph toReadOnlyGraph(AdjacencyListDirectedGraph g) {
+		return toReadOnlyGraph(toEdgeList(g));
+	}
+
+	/**
+	 * A sparse matrix graph is turned into a CSR graph, a dense one is returned as is.
+	 */
+	public static IGraph toReadOnlyGraph(AdjacencyMatrixDirectedGraph g) {
+		long n = g.getNbNodes();
+		if (n > 0 && g.getNbArcs() / (double) (n * n) < DENSE_THRESHOLD) {
+			return toCSRGraph(g);
+		}
+		return g;
+	}
+
+	public static void main(String[] args) {
+		int[][] matrix = {
+			{0, 3, 0, 4, 0},
+			{0, 0, 2, 0, 0},
+			{0, 0, 0, 5, 1},
+			{6, 0, 0, 0, 0},
+			{0, 7, 0, 0, 0}
+		};
+		AdjacencyListDirectedValuedGraph list = new AdjacencyListDirectedValuedGraph(matrix);
+		CSRGraph csr = toCSRGraph(list);
+		AdjacencyListDirectedValuedGraph back = toDirectedValuedGraph(csr);
+		boolean same = back.getNbArcs() == list.getNbArcs() && csr.isArc(4, 1) && csr.getWeight(csr.getFirstArc(4)) == 7;
+		System.out.println("List -> CSR -> list keeps the arcs? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+
+		AdjacencyListUndirectedValuedGraph undirected = new AdjacencyListUndirectedValuedGraph(new int[][] {{0, 2, 1}, {2, 0, 0}, {1, 0, 0}});
+		EdgeList both = toEdgeList(undirected);
+		AdjacencyListUndirectedValuedGraph undirectedBack = toUndirectedValuedGraph(both);
+		boolean merged = both.size() == 4 && undirectedBack.getNbEdges() == 2;
+		System.out.println("Both directions merged back into 2 edges? " + merged + " (Should be TRUE) " + (merged ? "✅" : "❌"));
+
+		EdgeList sparse = new EdgeList(1000);
+		for (int i = 0; i < 999; i++) {
+			sparse.add(i, i + 1, 1);
+		}
+		IGraph chosen = toReadOnlyGraph(sparse);
+		System.out.println("Path of 1000 nodes stored as " + chosen.getClass().getSimpleName() + " (Should be CSRGraph) "
+				+ (chosen instanceof CSRGraph ? "✅" : "❌"));
+		IGraph dense = toReadOnlyGraph(toEdgeList(matrix));
+		System.out.println("Dense graph stored as " + dense.getClass().getSimpleName() + " (Should be AdjacencyMatrixDirectedValuedGraph) "
+				+ (dense instanceof AdjacencyMatrixDirectedValuedGraph ? "✅" : "❌"));
+		EdgeList negative = toEdgeList(matrix);
+		negative.add(0, 4, -2);
+		IGraph kept = toReadOnlyGraph(negative);
+		System.out.println("Dense graph with a negative weight stored as " + kept.getClass().getSimpleName() + " (Should be CSRGraph) "
+				+ (kept instanceof CSRGraph ? "✅" : "❌"));
+
+		EdgeList loop = new EdgeList(2);
+		loop.add(0, 0);
+		loop.add(0, 1);
+		boolean noLoopPred = toDirectedGraph(loop).getNodes().get(0).getNbPreds()
+				== new AdjacencyListDirectedGraph(new int[][] {{1, 1}, {0, 0}}).getNodes().get(0).getNbPreds();
+		System.out.println("Loop kept out of the predecessors as by the matrix constructor? " + noLoopPred + " (Should be TRUE) " + (noLoopPred ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,504 @@
+package AdjacencyCompressed;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import GraphAlgorithms.GraphToolsList;
+
+/**
+ * Read-only directed graph whose successor lists are compressed the WebGraph way.
+ * The successors of each node are sorted and stored as gaps: the first one relative to the
+ * node itself (zig-zag coded, as it can be negative), the next ones relative to the previous
+ * successor. Real graphs have locality, so most gaps are small and take a few bits with a
+ * variable-length code instead of 32 bits in a CSR targets array.
+ *
+ * <pre>
+ * node u at bit offsets[u]:  degree, gap_0, [weight_0], gap_1, [weight_1], ...
+ * </pre>
+ * Weights are optional and stored zig-zag coded after each gap. Decoding a list is sequential,
+ * random access to a node goes through its bit offset.
+ */
+public class CompressedGraph implements IGraph {
+
+	/**
+	 * VARINT uses 7 bits per byte, it is byte-aligned and the fastest to decode.
+	 * GAMMA and ZETA are bit-level Elias gamma and Boldi-Vigna zeta_3 codes, smaller on the
+	 * power-law gaps of web and social graphs.
+	 */
+	public enum Coding { VARINT, GAMMA, ZETA }
+
+	private static final int ZETA_K = 3;
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int nbNodes;
+	private final int nbArcs;
+	private final Coding coding;
+	private final boolean weighted;
+	private final long[] offsets;	// Size nbNodes+1, bit position of the list of each node
+	private final byte[] data;		// The compressed lists, one after the other
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Wraps already compressed lists, as read back from a file.
+	 */
+	public CompressedGraph(int nbArcs, Coding coding, boolean weighted, long[] offsets, byte[] data) {
+		if (coding == null || offsets == null || offsets.length == 0 || data == null) {
+			throw new IllegalArgumentException("Coding, offsets and data cannot be null");
+		}
+		if (offsets[offsets.length - 1] > 8L * data.length) {
+			throw new IllegalArgumentException("Data must hold offsets[nbNodes] bits");
+		}
+		this.nbNodes = offsets.length - 1;
+		this.nbArcs = nbArcs;
+		this.coding = coding;
+		this.weighted = weighted;
+		this.offsets = offsets;
+		this.data = data;
+	}
+
+	/**
+	 * Compresses g, sorting the successors of each node.
+	 *
+	 * @param withWeights at false to drop the weights and only keep the structure
+	 */
+	public static CompressedGraph fromCSR(CSRGraph g, Coding coding, boolean withWeights) {
+		int n = g.getNbNodes();
+		long[] offsets = new long[n + 1];
+		int maxDegree = 0;
+		for (int u = 0; u < n; u++) {
+			maxDegree = Math.max(maxDegree, g.getOutDegree(u));
+		}
+		long[] sorted = new long[maxDegree];
+		BitWriter out = new BitWriter(coding, Math.max(16, g.getNbArcs()));
+		for (int u = 0; u < n; u++) {
+			offsets[u] = out.position();
+			int first = g.getFirstArc(u);
+			int degree = g.getOutDegree(u);
+			for (int i = 0; i < degree; i++) {
+				// Target in the high half so that the sort orders by target, arc index in the low half.
+				sorted[i] = ((long) g.getTarget(first + i) << 32) | i;
+			}
+			Arrays.sort(sorted, 0, degree);
+			out.write(degree);
+			long previous = u;
+			for (int i = 0; i < degree; i++) {
+				int v = (int) (sorted[i] >>> 32);
+				out.write(i == 0 ? zigzag(v - previous) : v - previous);
+				if (withWeights) {
+					out.write(zigzag(g.getWeight(first + (int) sorted[i])));
+				}
+				previous = v;
+			}
+		}
+		offsets[n] = out.position();
+		return new CompressedGraph(g.getNbArcs(), coding, withWeights, offsets, out.toByteArray());
+	}
+
+	public static CompressedGraph fromEdgeList(EdgeList edges, Coding coding, boolean withWeights) {
+		return fromCSR(CSRGraph.fromEdgeList(edges), coding, withWeights);
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	public int getNbArcs() {
+		return nbArcs;
+	}
+
+	public Coding getCoding() {
+		return coding;
+	}
+
+	public boolean isWeighted() {
+		return weighted;
+	}
+
+	public long[] getOffsets() {
+		return offsets;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * @return the average number of bits per arc, weights included
+	 */
+	public double getBitsPerArc() {
+		return nbArcs == 0 ? 0 : (double) offsets[nbNodes] / nbArcs;
+	}
+
+	/**
+	 * @return the number of successors of u, decoded from the head of its list
+	 */
+	public int getOutDegree(int u) {
+		return (int) new BitReader(data, offsets[u], coding).read();
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		BitReader in = new BitReader(data, offsets[u], coding);
+		int degree = (int) in.read();
+		long v = u;
+		for (int i = 0; i < degree; i++) {
+			v += i == 0 ? unzigzag(in.read()) : in.read();
+			if (weighted) {
+				in.read();
+			}
+			action.accept((int) v);
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		BitReader in = new BitReader(data, offsets[u], coding);
+		int degree = (int) in.read();
+		long v = u;
+		for (int i = 0; i < degree; i++) {
+			v += i == 0 ? unzigzag(in.read()) : in.read();
+			action.accept((int) v, weighted ? (int) unzigzag(in.read()) : 0);
+		}
+	}
+
+	/**
+	 * Decodes the arcs of u into the given arrays, which must hold getOutDegree(u) values.
+	 *
+	 * @param weights null if the weights are not needed, filled with 0 if the graph has none
+	 * @return the number of successors of u
+	 */
+	public int getSuccessors(int u, int[] targets, int[] weights) {
+		BitReader in = new BitReader(data, offsets[u], coding);
+		int degree = (int) in.read();
+		long v = u;
+		for (int i = 0; i < degree; i++) {
+			v += i == 0 ? unzigzag(in.read()) : in.read();
+			targets[i] = (int) v;
+			int w = weighted ? (int) unzigzag(in.read()) : 0;
+			if (weights != null) {
+				weights[i] = w;
+			}
+		}
+		return degree;
+	}
+
+	/**
+	 * @return true if the arc (from,to) exists, the decoding stops at the first successor past to
+	 */
+	public boolean isArc(int from, int to) {
+		BitReader in = new BitReader(data, offsets[from], coding);
+		int degree = (int) in.read();
+		long v = from;
+		for (int i = 0; i < degree; i++) {
+			v += i == 0 ? unzigzag(in.read()) : in.read();
+			if (v >= to) {
+				return v == to;
+			}
+			if (weighted) {
+				in.read();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the uncompressed copy of the graph, successors sorted
+	 */
+	public CSRGraph toCSRGraph() {
+		int[] csrOffsets = new int[nbNodes + 1];
+		int[] targets = new int[nbArcs];
+		int[] weights = new int[nbArcs];
+		int[] scratchTargets = new int[16];
+		int[] scratchWeights = new int[16];
+		for (int u = 0; u < nbNodes; u++) {
+			int degree = getOutDegree(u);
+			if (degree > scratchTargets.length) {
+				scratchTargets = new int[degree];
+				scratchWeights = new int[degree];
+			}
+			getSuccessors(u, scratchTargets, scratchWeights);
+			System.arraycopy(scratchTargets, 0, targets, csrOffsets[u], degree);
+			System.arraycopy(scratchWeights, 0, weights, csrOffsets[u], degree);
+			csrOffsets[u + 1] = csrOffsets[u] + degree;
+		}
+		return new CSRGraph(csrOffsets, targets, weights);
+	}
+
+	/**
+	 * @return the compressed graph of the inverse arcs, with the same coding, as needed by the
+	 * second pass of Kosaraju
+	 */
+	public CompressedGraph transpose() {
+		EdgeList reverse = new EdgeList(nbNodes, nbArcs);
+		int[] targets = new int[16];
+		int[] weights = new int[16];
+		for (int u = 0; u < nbNodes; u++) {
+			int degree = getOutDegree(u);
+			if (degree > targets.length) {
+				targets = new int[degree];
+				weights = new int[degree];
+			}
+			getSuccessors(u, targets, weights);
+			for (int i = 0; i < degree; i++) {
+				reverse.add(targets[i], u, weights[i]);
+			}
+		}
+		return fromEdgeList(reverse, coding, weighted);
+	}
+
+	private static long zigzag(long x) {
+		return (x << 1) ^ (x >> 63);
+	}
+
+	private static long unzigzag(long x) {
+		return (x >>> 1) ^ -(x & 1);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Compressed Directed Graph (").append(coding).append(")\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(nbArcs).append("\n");
+		s.append("Bits per arc: ").append(String.format("%.2f", getBitsPerArc())).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		int[][] matrix = {
+				{0, 0, 0, 0, 0, 1, 0, 0},
+				{0, 0, 1, 0, 1, 0, 0, 0},
+				{0, 0, 0, 1, 0, 0, 0, 0},
+				{0, 0, 0, 0, 0, 0, 0, 0},
+				{0, 0, 0, 0, 0, 0, 0, 1},
+				{0, 0, 0, 0, 0, 0, 1, 0},
+				{1, 0, 1, 1, 0, 0, 0, 0},
+				{1, 1, 0, 1, 0, 0, 0, 0}
+		};
+		EdgeList edges = new EdgeList(matrix.length);
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix.length; j++) {
+				if (matrix[i][j] != 0) {
+					edges.add(i, j, matrix[i][j]);
+				}
+			}
+		}
+		for (Coding coding : Coding.values()) {
+			CompressedGraph g = fromEdgeList(edges, coding, true);
+			boolean same = Arrays.equals(g.toCSRGraph().getTargets(), CSRGraph.fromEdgeList(edges).getTargets())
+					&& g.isArc(7, 3) && !g.isArc(3, 7);
+			System.out.println(coding + ": " + g.getData().length + " bytes, same arcs? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+		}
+
+		CompressedGraph g = fromEdgeList(edges, Coding.ZETA, false);
+		System.out.println(g);
+		System.out.println("Parcours en largeur (BFS) départ 0");
+		System.out.println(GraphToolsList.parcoursBFSLargeur(g, 0));
+		List<Integer> ordre = GraphToolsList.explorerGraphe(g).getOrdreFinDecroissant();
+		System.out.println("Ordre de fin inversé : " + ordre);
+		System.out.println("Composantes fortements connexes: " + GraphToolsList.explorerGrapheBis(g.transpose(), ordre));
+	}
+
+	// ------------------------------------------------
+	// 					Codecs
+	// ------------------------------------------------
+
+	/**
+	 * Writes non-negative longs with the chosen code, most significant bit first.
+	 */
+	private static class BitWriter {
+
+		private final Coding coding;
+		private byte[] buffer;
+		private long position;
+
+		BitWriter(Coding coding, int initialBytes) {
+			this.coding = coding;
+			this.buffer = new byte[initialBytes];
+			this.position = 0;
+		}
+
+		long position() {
+			return position;
+		}
+
+		void write(long x) {
+			switch (coding) {
+				case VARINT:
+					while (x >= 0x80) {
+						writeBits((x & 0x7F) | 0x80, 8);
+						x >>>= 7;
+					}
+					writeBits(x, 8);
+					break;
+				case GAMMA: {
+					long v = x + 1;
+					int nb = 63 - Long.numberOfLeadingZeros(v);
+					writeUnary(nb);
+					writeBits(v, nb);
+					break;
+				}
+				case ZETA: {
+					long v = x + 1;
+					int h = (63 - Long.numberOfLeadingZeros(v)) / ZETA_K;
+					long left = 1L << (h * ZETA_K);
+					int s = (h + 1) * ZETA_K;
+					long z = v - left;
+					writeUnary(h);
+					// Minimal binary code of z in [0, 2^s - left): left values on s-1 bits.
+					if (z < left) {
+						writeBits(z, s - 1);
+					} else {
+						writeBits(z + left, s);
+					}
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Writes z zeros followed by a one.
+		 */
+		private void writeUnary(int z) {
+			while (z > 32) {
+				writeBits(0, 32);
+				z -= 32;
+			}
+			writeBits(1, z + 1);
+		}
+
+		/**
+		 * Writes the nbBits low bits of value.
+		 */
+		private void writeBits(long value, int nbBits) {
+			ensureCapacity(position + nbBits);
+			while (nbBits > 0) {
+				int index = (int) (position >>> 3);
+				int free = 8 - (int) (position & 7);
+				int take = Math.min(free, nbBits);
+				int bits = (int) (value >>> (nbBits - take)) & ((1 << take) - 1);
+				buffer[index] |= bits << (free - take);
+				position += take;
+				nbBits -= take;
+			}
+		}
+
+		private void ensureCapacity(long bits) {
+			long bytes = (bits + 7) >>> 3;
+			if (bytes > buffer.length) {
+				long capacity = Math.max(bytes, 2L * buffer.length);
+				if (capacity > Integer.MAX_VALUE - 8) {
+					if (bytes > Integer.MAX_VALUE - 8) {
+						throw new IllegalArgumentException("The compressed graph exceeds 2 GB");
+					}
+					capacity = Integer.MAX_VALUE - 8;
+				}
+				buffer = Arrays.copyOf(buffer, (int) capacity);
+			}
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, (int) ((position + 7) >>> 3));
+		}
+	}
+
+	/**
+	 * Reads the values written by BitWriter from a bit position.
+	 */
+	private static class BitReader {
+
+		private final byte[] data;
+		private final Coding coding;
+		private long position;
+
+		BitReader(byte[] data, long position, Coding coding) {
+			this.data = data;
+			this.position = position;
+			this.coding = coding;
+		}
+
+		long read() {
+			switch (coding) {
+				case VARINT: {
+					// Lists always start on a byte boundary with this code.
+					int index = (int) (position >>> 3);
+					long x = 0;
+					int shift = 0;
+					int b;
+					do {
+						b = data[index++];
+						x |= (long) (b & 0x7F) << shift;
+						shift += 7;
+					} while (b < 0);
+					position = (long) index << 3;
+					return x;
+				}
+				case GAMMA: {
+					int nb = readUnary();
+					return ((1L << nb) | readBits(nb)) - 1;
+				}
+				default: {
+					int h = readUnary();
+					long left = 1L << (h * ZETA_K);
+					int s = (h + 1) * ZETA_K;
+					long z = readBits(s - 1);
+					if (z >= left) {
+						z = ((z << 1) | readBits(1)) - left;
+					}
+					return z + left - 1;
+				}
+			}
+		}
+
+		private int readUnary() {
+			int zeros = 0;
+			while (true) {
+				int offset = (int) (position & 7);
+				int b = (data[(int) (position >>> 3)] << offset) & 0xFF;
+				if (b == 0) {
+					zeros += 8 - offset;
+					position += 8 - offset;
+				} else {
+					int lead = Integer.numberOfLeadingZeros(b) - 24;
+					zeros += lead;
+					position += lead + 1;
+					return zeros;
+				}
+			}
+		}
+
+		private long readBits(int nbBits) {
+			long value = 0;
+			while (nbBits > 0) {
+				int offset = (int) (position & 7);
+				int available = 8 - offset;
+				int take = Math.min(available, nbBits);
+				int bits = ((data[(int) (position >>> 3)] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+				value = (value << take) | bits;
+				position += take;
+				nbBits -= take;
+			}
+			return value;
+		}
+	}
+}
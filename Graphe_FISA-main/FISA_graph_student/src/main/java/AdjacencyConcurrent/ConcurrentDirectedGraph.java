@@ -0,0 +1,382 @@
+package AdjacencyConcurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+import AdjacencyCSR.EdgeList;
+import Collection.Hashing;
+import Collection.LongHashSet;
+import GraphAlgorithms.GraphToolsList;
+
+/**
+ * Directed graph shared by writer and reader threads. The successors and the predecessors of
+ * a node are immutable snapshots published through an AtomicReferenceArray: readers take the
+ * current snapshot and iterate it without any lock, never seeing a half-done change.
+ *
+ * Writers lock the stripes of the two ends of the arc, the lower stripe first so that two
+ * writers cannot wait for each other. An arc is appended in place after the last entry of the
+ * snapshot, which readers of the older snapshot do not see, so only a removal or a full array
+ * copies the list. The number of arcs is a LongAdder, cheap to update from many threads.
+ */
+public class ConcurrentDirectedGraph implements IDirectedGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int nbNodes;
+	private final AtomicReferenceArray<Adjacency> succ;
+	private final AtomicReferenceArray<Adjacency> pred;
+	private final ReentrantLock[] stripes;
+	private final int stripeMask;
+	private final LongAdder nbArcs;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Uses 16 stripes per processor, so that two writers seldom need the same lock.
+	 */
+	public ConcurrentDirectedGraph(int nbNodes) {
+		this(nbNodes, 16 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param nbStripes the number of locks shared by the nodes, rounded up to a power of two
+	 */
+	public ConcurrentDirectedGraph(int nbNodes, int nbStripes) {
+		if (nbNodes < 0 || nbStripes <= 0) {
+			throw new IllegalArgumentException("Number of nodes and stripes must be positive");
+		}
+		this.nbNodes = nbNodes;
+		this.succ = new AtomicReferenceArray<>(nbNodes);
+		this.pred = new AtomicReferenceArray<>(nbNodes);
+		for (int u = 0; u < nbNodes; u++) {
+			succ.set(u, Adjacency.EMPTY);
+			pred.set(u, Adjacency.EMPTY);
+		}
+		int size = Integer.highestOneBit(Math.max(1, Math.min(1 << 16, nbStripes) - 1) << 1);
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		this.stripeMask = size - 1;
+		this.nbArcs = new LongAdder();
+	}
+
+	/**
+	 * Loops are skipped and a repeated arc keeps its last weight.
+	 */
+	public static ConcurrentDirectedGraph fromEdgeList(EdgeList edges) {
+		ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(edges.getNbNodes());
+		for (int i = 0; i < edges.size(); i++) {
+			if (edges.getSource(i) != edges.getTarget(i)) {
+				g.addArc(edges.getSource(i), edges.getTarget(i), edges.getWeight(i));
+			}
+		}
+		return g;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	/**
+	 * @return the number of arcs, exact when no writer is running
+	 */
+	public long getNbArcs() {
+		return nbArcs.sum();
+	}
+
+	public int getOutDegree(int u) {
+		validateVertex(u);
+		return succ.get(u).size;
+	}
+
+	public int getInDegree(int v) {
+		validateVertex(v);
+		return pred.get(v).size;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Lock-free: reads the current successors of from.
+	 */
+	public boolean isArc(int from, int to) {
+		validateVertex(from, to);
+		return succ.get(from).indexOf(to) >= 0;
+	}
+
+	/**
+	 * Adds the arc (from,to,weight), or replaces the weight of the existing one.
+	 *
+	 * @return true if the arc is new
+	 */
+	public boolean addArc(int from, int to, int weight) {
+		validateVertex(from, to);
+		if (from == to) {
+			throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+		}
+		ReentrantLock first = stripes[Math.min(from & stripeMask, to & stripeMask)];
+		ReentrantLock second = stripes[Math.max(from & stripeMask, to & stripeMask)];
+		first.lock();
+		second.lock();
+		try {
+			Adjacency out = succ.get(from);
+			int i = out.indexOf(to);
+			if (i >= 0) {
+				Adjacency in = pred.get(to);
+				// Readers see the old or the new weight, publishing again makes the new one visible.
+				out.weights[i] = weight;
+				in.weights[in.indexOf(from)] = weight;
+				succ.set(from, out);
+				pred.set(to, in);
+				return false;
+			}
+			succ.set(from, out.append(to, weight));
+			pred.set(to, pred.get(to).append(from, weight));
+			nbArcs.increment();
+			return true;
+		} finally {
+			second.unlock();
+			first.unlock();
+		}
+	}
+
+	/**
+	 * @return true if the arc (from,to) was in the graph
+	 */
+	public boolean removeArc(int from, int to) {
+		validateVertex(from, to);
+		ReentrantLock first = stripes[Math.min(from & stripeMask, to & stripeMask)];
+		ReentrantLock second = stripes[Math.max(from & stripeMask, to & stripeMask)];
+		first.lock();
+		second.lock();
+		try {
+			Adjacency out = succ.get(from);
+			int i = out.indexOf(to);
+			if (i < 0) {
+				return false;
+			}
+			Adjacency in = pred.get(to);
+			succ.set(from, out.without(i));
+			pred.set(to, in.without(in.indexOf(from)));
+			nbArcs.decrement();
+			return true;
+		} finally {
+			second.unlock();
+			first.unlock();
+		}
+	}
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		Adjacency a = succ.get(u);
+		for (int i = 0; i < a.size; i++) {
+			action.accept(a.nodes[i]);
+		}
+	}
+
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		Adjacency a = pred.get(v);
+		for (int i = 0; i < a.size; i++) {
+			action.accept(a.nodes[i]);
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		Adjacency a = succ.get(u);
+		for (int i = 0; i < a.size; i++) {
+			action.accept(a.nodes[i], a.weights[i]);
+		}
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		Adjacency a = pred.get(v);
+		for (int i = 0; i < a.size; i++) {
+			action.accept(a.nodes[i], a.weights[i]);
+		}
+	}
+
+	/**
+	 * Copies the arcs node after node: each list is consistent, but arcs added or removed
+	 * during the copy may be seen for some nodes and not for others.
+	 */
+	public EdgeList toEdgeList() {
+		EdgeList edges = new EdgeList(nbNodes, (int) Math.min(Integer.MAX_VALUE - 8, getNbArcs()));
+		for (int u = 0; u < nbNodes; u++) {
+			final int from = u;
+			forEachArc(u, (v, w) -> edges.add(from, v, w));
+		}
+		return edges;
+	}
+
+	private void validateVertex(int... vertices) {
+		for (int v : vertices) {
+			if (v < 0 || v >= nbNodes) {
+				throw new IndexOutOfBoundsException("Vertex " + v + " is out of bounds (0.." + (nbNodes - 1) + ")");
+			}
+		}
+	}
+
+	/**
+	 * Snapshot of the neighbours of a node: the first size entries of the arrays. The arrays may
+	 * be shared with the next snapshot, which only writes after index size.
+	 */
+	private static final class Adjacency {
+
+		static final Adjacency EMPTY = new Adjacency(new int[0], new int[0], 0);
+
+		final int[] nodes;
+		final int[] weights;
+		final int size;
+
+		Adjacency(int[] nodes, int[] weights, int size) {
+			this.nodes = nodes;
+			this.weights = weights;
+			this.size = size;
+		}
+
+		int indexOf(int v) {
+			for (int i = 0; i < size; i++) {
+				if (nodes[i] == v) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		Adjacency append(int v, int w) {
+			if (size < nodes.length) {
+				nodes[size] = v;
+				weights[size] = w;
+				return new Adjacency(nodes, weights, size + 1);
+			}
+			int capacity = Math.max(4, 2 * size);
+			int[] n = new int[capacity];
+			int[] ws = new int[capacity];
+			System.arraycopy(nodes, 0, n, 0, size);
+			System.arraycopy(weights, 0, ws, 0, size);
+			n[size] = v;
+			ws[size] = w;
+			return new Adjacency(n, ws, size + 1);
+		}
+
+		/**
+		 * @return a copy without entry i, the old arrays being left to their readers
+		 */
+		Adjacency without(int i) {
+			int[] n = new int[Math.max(4, size)];
+			int[] ws = new int[n.length];
+			System.arraycopy(nodes, 0, n, 0, i);
+			System.arraycopy(nodes, i + 1, n, i, size - i - 1);
+			System.arraycopy(weights, 0, ws, 0, i);
+			System.arraycopy(weights, i + 1, ws, i, size - i - 1);
+			return new Adjacency(n, ws, size - 1);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Concurrent Directed Graph\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(getNbArcs()).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int n = 20000;
+		int nbWriters = 4;
+		int perWriter = 100000;
+		ConcurrentDirectedGraph g = new ConcurrentDirectedGraph(n);
+		ExecutorService pool = Executors.newFixedThreadPool(nbWriters + 2);
+		AtomicBoolean writing = new AtomicBoolean(true);
+		List<Future<Integer>> readers = new ArrayList<>();
+		for (int r = 0; r < 2; r++) {
+			readers.add(pool.submit(() -> {
+				int nbSearches = 0;
+				while (writing.get()) {
+					GraphToolsList.parcoursBFSLargeur(g, nbSearches % n);
+					nbSearches++;
+				}
+				return nbSearches;
+			}));
+		}
+		List<Future<?>> writers = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int t = 0; t < nbWriters; t++) {
+			final long seed = t;
+			writers.add(pool.submit(() -> {
+				Random rand = new Random(seed);
+				for (int i = 0; i < perWriter; i++) {
+					int u = rand.nextInt(n);
+					int v = rand.nextInt(n);
+					if (u == v) {
+						continue;
+					}
+					if (rand.nextInt(10) == 0) {
+						g.removeArc(u, v);
+					} else {
+						g.addArc(u, v, 1 + rand.nextInt(15));
+					}
+				}
+			}));
+		}
+		for (Future<?> f : writers) {
+			f.get();
+		}
+		long ms = (System.nanoTime() - start) / 1000000;
+		writing.set(false);
+		int nbSearches = 0;
+		for (Future<Integer> f : readers) {
+			nbSearches += f.get();
+		}
+		pool.shutdown();
+		System.out.println(nbWriters * perWriter + " updates by " + nbWriters + " writers in " + ms + " ms, while the readers ran "
+				+ nbSearches + " BFS");
+
+		EdgeList arcs = g.toEdgeList();
+		LongHashSet distinct = new LongHashSet(arcs.size());
+		long inArcs = 0;
+		boolean consistent = arcs.size() == g.getNbArcs();
+		for (int i = 0; i < arcs.size(); i++) {
+			consistent &= distinct.add(Hashing.pack(arcs.getSource(i), arcs.getTarget(i)));
+		}
+		for (int v = 0; v < n; v++) {
+			inArcs += g.getInDegree(v);
+			final int to = v;
+			g.forEachPredecessor(v, u -> {
+				if (!g.isArc(u, to)) {
+					throw new IllegalStateException("Predecessor " + u + " of " + to + " has no arc");
+				}
+			});
+		}
+		consistent &= inArcs == g.getNbArcs();
+		System.out.println("Counter, successors and predecessors agree, no duplicate? " + consistent + " (Should be TRUE) " + (consistent ? "✅" : "❌"));
+	}
+}
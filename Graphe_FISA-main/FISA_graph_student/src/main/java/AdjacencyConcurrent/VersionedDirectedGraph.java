@@ -0,0 +1,759 @@
+package AdjacencyConcurrent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+import Abstraction.TransposedGraph;
+import AdjacencyCSR.EdgeList;
+import Collection.Hashing;
+import GraphAlgorithms.Components;
+import GraphAlgorithms.GraphToolsList;
+import GraphAlgorithms.Traversal;
+
+/**
+ * Directed graph keeping several versions of its arcs, so that a long query sees the graph as
+ * it was when it started while writers go on. Each change is committed at a new epoch: an added
+ * arc is a version born at that epoch, a removed arc has its version die at that epoch, and a
+ * new weight does both. A snapshot pins the last committed epoch e and only sees the versions
+ * with born <= e < died.
+ *
+ * As in ConcurrentDirectedGraph, the versions of a node are published as immutable snapshots
+ * read without lock, and writers lock the stripes of the two ends of the arc. Commits are made
+ * visible in epoch order, so a writer may wait for an older writer but never for a reader.
+ * A live read announces its epoch in a slot while it runs, so that a version dead before the
+ * oldest pinned or announced epoch cannot be seen anymore: reclaim() frees it, by hand or from
+ * a background thread.
+ */
+public class VersionedDirectedGraph implements IDirectedGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private static final long ALIVE = Long.MAX_VALUE;
+	private static final long FREE = Long.MAX_VALUE;
+
+	private final int nbNodes;
+	private final AtomicReferenceArray<Versions> succ;
+	private final AtomicReferenceArray<Versions> pred;
+	private final ReentrantLock[] stripes;		// The stripe of u guards succ[u] and pred[u]
+	private final int stripeMask;
+	private final AtomicLong nextEpoch;
+	private volatile long committed;			// Every epoch up to this one is visible
+	private final TreeMap<Long, Integer> pins;	// Number of open snapshots per epoch
+	private final AtomicLongArray readers;		// Epoch announced by each running live read, FREE if none
+	private final LongAdder nbArcs;
+	private ScheduledExecutorService reclaimer;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public VersionedDirectedGraph(int nbNodes) {
+		this(nbNodes, 16 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param nbStripes the number of locks shared by the nodes, rounded up to a power of two
+	 */
+	public VersionedDirectedGraph(int nbNodes, int nbStripes) {
+		if (nbNodes < 0 || nbStripes <= 0) {
+			throw new IllegalArgumentException("Number of nodes and stripes must be positive");
+		}
+		this.nbNodes = nbNodes;
+		this.succ = new AtomicReferenceArray<>(nbNodes);
+		this.pred = new AtomicReferenceArray<>(nbNodes);
+		for (int u = 0; u < nbNodes; u++) {
+			succ.set(u, Versions.EMPTY);
+			pred.set(u, Versions.EMPTY);
+		}
+		int size = Integer.highestOneBit(Math.max(1, Math.min(1 << 16, nbStripes) - 1) << 1);
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		this.stripeMask = size - 1;
+		this.nextEpoch = new AtomicLong();
+		this.committed = 0;
+		this.pins = new TreeMap<>();
+		this.readers = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			readers.set(i, FREE);
+		}
+		this.nbArcs = new LongAdder();
+	}
+
+	/**
+	 * Loops are skipped and a repeated arc keeps its last weight.
+	 */
+	public static VersionedDirectedGraph fromEdgeList(EdgeList edges) {
+		VersionedDirectedGraph g = new VersionedDirectedGraph(edges.getNbNodes());
+		for (int i = 0; i < edges.size(); i++) {
+			if (edges.getSource(i) != edges.getTarget(i)) {
+				g.addArc(edges.getSource(i), edges.getTarget(i), edges.getWeight(i));
+			}
+		}
+		return g;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	/**
+	 * @return the number of live arcs, exact when no writer is running
+	 */
+	public long getNbArcs() {
+		return nbArcs.sum();
+	}
+
+	/**
+	 * @return the last committed epoch
+	 */
+	public long getEpoch() {
+		return committed;
+	}
+
+	/**
+	 * @return the number of stored versions, live or not yet reclaimed
+	 */
+	public long getNbVersions() {
+		long total = 0;
+		for (int u = 0; u < nbNodes; u++) {
+			total += succ.get(u).size;
+		}
+		return total;
+	}
+
+	/**
+	 * @return the oldest epoch still pinned by a snapshot or a live read, or the last committed one
+	 */
+	public long getOldestPinnedEpoch() {
+		// Read first: a live read announced after the scan reads its epoch later, so not below it
+		long oldest = committed;
+		synchronized (pins) {
+			if (!pins.isEmpty()) {
+				oldest = Math.min(oldest, pins.firstKey());
+			}
+		}
+		for (int i = 0; i < readers.length(); i++) {
+			oldest = Math.min(oldest, readers.get(i));
+		}
+		return oldest;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Pins the last committed epoch. The snapshot must be closed, otherwise the versions it
+	 * can see are never reclaimed.
+	 */
+	public Snapshot snapshot() {
+		synchronized (pins) {
+			long epoch = committed;
+			pins.merge(epoch, 1, Integer::sum);
+			return new Snapshot(epoch);
+		}
+	}
+
+	private void unpin(long epoch) {
+		synchronized (pins) {
+			if (pins.merge(epoch, -1, Integer::sum) == 0) {
+				pins.remove(epoch);
+			}
+		}
+	}
+
+	/**
+	 * Announces a live read in a free slot, or pins it as a snapshot when all are taken, so that
+	 * reclaim() keeps what it may see. The epoch read by the caller afterwards is at least the
+	 * announced one.
+	 *
+	 * @return the ticket to give back to leave(): the slot, or ~epoch for a pin
+	 */
+	private long announce() {
+		long epoch = committed;
+		int start = (int) Thread.currentThread().getId();
+		for (int k = 0; k < readers.length(); k++) {
+			int i = (start + k) & stripeMask;
+			if (readers.get(i) == FREE && readers.compareAndSet(i, FREE, epoch)) {
+				return i;
+			}
+		}
+		synchronized (pins) {
+			epoch = committed;
+			pins.merge(epoch, 1, Integer::sum);
+		}
+		return ~epoch;
+	}
+
+	private void leave(long ticket) {
+		if (ticket >= 0) {
+			readers.set((int) ticket, FREE);
+		} else {
+			unpin(~ticket);
+		}
+	}
+
+	public boolean isArc(int from, int to) {
+		validateVertex(from, to);
+		long ticket = announce();
+		try {
+			long epoch = committed;
+			return succ.get(from).indexOf(to, epoch) >= 0;
+		} finally {
+			leave(ticket);
+		}
+	}
+
+	/**
+	 * Adds the arc (from,to,weight), or gives a new weight to the existing one.
+	 *
+	 * @return true if the arc is new
+	 */
+	public boolean addArc(int from, int to, int weight) {
+		validateVertex(from, to);
+		if (from == to) {
+			throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+		}
+		ReentrantLock first = stripes[Math.min(from & stripeMask, to & stripeMask)];
+		ReentrantLock second = stripes[Math.max(from & stripeMask, to & stripeMask)];
+		first.lock();
+		second.lock();
+		try {
+			Versions out = succ.get(from);
+			Versions in = pred.get(to);
+			int i = out.indexOf(to, ALIVE - 1);
+			if (i >= 0 && out.weights[i] == weight) {
+				return false;
+			}
+			int j = i >= 0 ? inIndex(in, from, to) : -1;
+			// Everything that can fail is done before the epoch is taken, the new versions
+			// being born at ALIVE, so at no epoch, until then.
+			Versions newOut = out.append(to, weight, ALIVE);
+			Versions newIn = in.append(from, weight, ALIVE);
+			long epoch = nextEpoch.incrementAndGet();
+			try {
+				newOut.born[newOut.size - 1] = epoch;
+				newIn.born[newIn.size - 1] = epoch;
+				if (i >= 0) {
+					// The new lists keep the indices of the old ones, whose arrays they may have copied
+					newOut.died[i] = epoch;
+					newIn.died[j] = epoch;
+				} else {
+					nbArcs.increment();
+				}
+				succ.set(from, newOut);
+				pred.set(to, newIn);
+			} finally {
+				commit(epoch);
+			}
+			return i < 0;
+		} finally {
+			second.unlock();
+			first.unlock();
+		}
+	}
+
+	/**
+	 * @return true if the arc (from,to) was in the graph
+	 */
+	public boolean removeArc(int from, int to) {
+		validateVertex(from, to);
+		ReentrantLock first = stripes[Math.min(from & stripeMask, to & stripeMask)];
+		ReentrantLock second = stripes[Math.max(from & stripeMask, to & stripeMask)];
+		first.lock();
+		second.lock();
+		try {
+			Versions out = succ.get(from);
+			int i = out.indexOf(to, ALIVE - 1);
+			if (i < 0) {
+				return false;
+			}
+			Versions in = pred.get(to);
+			int j = inIndex(in, from, to);
+			long epoch = nextEpoch.incrementAndGet();
+			try {
+				out.died[i] = epoch;
+				in.died[j] = epoch;
+				nbArcs.decrement();
+			} finally {
+				commit(epoch);
+			}
+			return true;
+		} finally {
+			second.unlock();
+			first.unlock();
+		}
+	}
+
+	/**
+	 * @return the index of the live version of from in the predecessors in of to
+	 */
+	private static int inIndex(Versions in, int from, int to) {
+		int j = in.indexOf(from, ALIVE - 1);
+		if (j < 0) {
+			throw new IllegalStateException("Arc (" + from + "," + to + ") missing from the predecessors of " + to);
+		}
+		return j;
+	}
+
+	/**
+	 * Makes epoch visible once every older epoch is. The older writers already hold their
+	 * locks, so they never wait for this one. Each epoch taken must be committed, even when
+	 * its writer fails, otherwise the younger writers would wait for ever.
+	 */
+	private void commit(long epoch) {
+		while (committed != epoch - 1) {
+			Thread.yield();
+		}
+		committed = epoch;
+	}
+
+	/**
+	 * Frees the versions dead at or before the oldest pinned epoch. Writers of a node wait
+	 * while its lists are copied, readers keep the lists they already took.
+	 *
+	 * @return the number of freed arc versions
+	 */
+	public long reclaim() {
+		long horizon = getOldestPinnedEpoch();
+		long freed = 0;
+		for (int u = 0; u < nbNodes; u++) {
+			if (!succ.get(u).hasDeadBefore(horizon) && !pred.get(u).hasDeadBefore(horizon)) {
+				continue;
+			}
+			ReentrantLock lock = stripes[u & stripeMask];
+			lock.lock();
+			try {
+				Versions out = succ.get(u);
+				Versions kept = out.withoutDeadBefore(horizon);
+				freed += out.size - kept.size;
+				succ.set(u, kept);
+				pred.set(u, pred.get(u).withoutDeadBefore(horizon));
+			} finally {
+				lock.unlock();
+			}
+		}
+		return freed;
+	}
+
+	/**
+	 * Runs reclaim() every periodMillis from a daemon thread, until stopReclaimer().
+	 */
+	public synchronized void startReclaimer(long periodMillis) {
+		if (periodMillis <= 0) {
+			throw new IllegalArgumentException("Period must be positive");
+		}
+		if (reclaimer != null) {
+			throw new IllegalStateException("Reclaimer already running");
+		}
+		reclaimer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "graph-reclaimer");
+			t.setDaemon(true);
+			return t;
+		});
+		reclaimer.scheduleWithFixedDelay(this::reclaim, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stopReclaimer() throws InterruptedException {
+		if (reclaimer != null) {
+			reclaimer.shutdown();
+			reclaimer.awaitTermination(1, TimeUnit.MINUTES);
+			reclaimer = null;
+		}
+	}
+
+	// The live graph, as seen at the last committed epoch of each call. The epoch is read after
+	// the read is announced, so reclaim() keeps its versions, and before the list: a list read
+	// first could be an older copy, missing the changes of that epoch.
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		long ticket = announce();
+		try {
+			long epoch = committed;
+			succ.get(u).forEach(epoch, (v, w) -> action.accept(v));
+		} finally {
+			leave(ticket);
+		}
+	}
+
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		long ticket = announce();
+		try {
+			long epoch = committed;
+			pred.get(v).forEach(epoch, (u, w) -> action.accept(u));
+		} finally {
+			leave(ticket);
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		long ticket = announce();
+		try {
+			long epoch = committed;
+			succ.get(u).forEach(epoch, action);
+		} finally {
+			leave(ticket);
+		}
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		long ticket = announce();
+		try {
+			long epoch = committed;
+			pred.get(v).forEach(epoch, action);
+		} finally {
+			leave(ticket);
+		}
+	}
+
+	private void validateVertex(int... vertices) {
+		for (int v : vertices) {
+			if (v < 0 || v >= nbNodes) {
+				throw new IndexOutOfBoundsException("Vertex " + v + " is out of bounds (0.." + (nbNodes - 1) + ")");
+			}
+		}
+	}
+
+	/**
+	 * The graph at a pinned epoch, unchanged until it is closed whatever the writers do.
+	 */
+	public final class Snapshot implements IDirectedGraph, AutoCloseable {
+
+		private final long epoch;
+		private volatile boolean closed;
+
+		private Snapshot(long epoch) {
+			this.epoch = epoch;
+		}
+
+		public long getEpoch() {
+			return epoch;
+		}
+
+		@Override
+		public int getNbNodes() {
+			return nbNodes;
+		}
+
+		public long getNbArcs() {
+			checkOpen();
+			long total = 0;
+			for (int u = 0; u < nbNodes; u++) {
+				total += succ.get(u).count(epoch);
+			}
+			return total;
+		}
+
+		public boolean isArc(int from, int to) {
+			checkOpen();
+			validateVertex(from, to);
+			return succ.get(from).indexOf(to, epoch) >= 0;
+		}
+
+		@Override
+		public void forEachSuccessor(int u, IntConsumer action) {
+			checkOpen();
+			succ.get(u).forEach(epoch, (v, w) -> action.accept(v));
+		}
+
+		@Override
+		public void forEachPredecessor(int v, IntConsumer action) {
+			checkOpen();
+			pred.get(v).forEach(epoch, (u, w) -> action.accept(u));
+		}
+
+		@Override
+		public void forEachArc(int u, ArcConsumer action) {
+			checkOpen();
+			succ.get(u).forEach(epoch, action);
+		}
+
+		@Override
+		public void forEachInArc(int v, ArcConsumer action) {
+			checkOpen();
+			pred.get(v).forEach(epoch, action);
+		}
+
+		public EdgeList toEdgeList() {
+			EdgeList edges = new EdgeList(nbNodes, (int) Math.min(Integer.MAX_VALUE - 8, getNbArcs()));
+			for (int u = 0; u < nbNodes; u++) {
+				final int from = u;
+				forEachArc(u, (v, w) -> edges.add(from, v, w));
+			}
+			return edges;
+		}
+
+		private void checkOpen() {
+			if (closed) {
+				throw new IllegalStateException("Snapshot of epoch " + epoch + " is closed");
+			}
+		}
+
+		/**
+		 * Unpins the epoch, closing twice has no effect.
+		 */
+		@Override
+		public void close() {
+			synchronized (this) {
+				if (closed) {
+					return;
+				}
+				closed = true;
+			}
+			unpin(epoch);
+		}
+
+		@Override
+		public String toString() {
+			return "Snapshot of epoch " + epoch + (closed ? " (closed)" : "");
+		}
+	}
+
+	/**
+	 * Arc versions of a node: the first size entries of the arrays, shared with the next list
+	 * which only appends after index size. Only died is written in place, once, under the lock.
+	 */
+	private static final class Versions {
+
+		static final Versions EMPTY = new Versions(new int[0], new int[0], new long[0], new long[0], 0);
+
+		final int[] nodes;
+		final int[] weights;
+		final long[] born;
+		final long[] died;
+		final int size;
+
+		Versions(int[] nodes, int[] weights, long[] born, long[] died, int size) {
+			this.nodes = nodes;
+			this.weights = weights;
+			this.born = born;
+			this.died = died;
+			this.size = size;
+		}
+
+		private boolean visible(int i, long epoch) {
+			return born[i] <= epoch && epoch < died[i];
+		}
+
+		/**
+		 * @return the index of the version of the arc to v seen at epoch, -1 if there is none
+		 */
+		int indexOf(int v, long epoch) {
+			for (int i = 0; i < size; i++) {
+				if (nodes[i] == v && visible(i, epoch)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		int count(long epoch) {
+			int c = 0;
+			for (int i = 0; i < size; i++) {
+				if (visible(i, epoch)) {
+					c++;
+				}
+			}
+			return c;
+		}
+
+		void forEach(long epoch, ArcConsumer action) {
+			for (int i = 0; i < size; i++) {
+				if (visible(i, epoch)) {
+					action.accept(nodes[i], weights[i]);
+				}
+			}
+		}
+
+		Versions append(int v, int w, long epoch) {
+			if (size < nodes.length) {
+				nodes[size] = v;
+				weights[size] = w;
+				born[size] = epoch;
+				died[size] = ALIVE;
+				return new Versions(nodes, weights, born, died, size + 1);
+			}
+			int capacity = Math.max(4, 2 * size);
+			Versions grown = new Versions(Arrays.copyOf(nodes, capacity), Arrays.copyOf(weights, capacity),
+					Arrays.copyOf(born, capacity), Arrays.copyOf(died, capacity), size);
+			return grown.append(v, w, epoch);
+		}
+
+		boolean hasDeadBefore(long horizon) {
+			for (int i = 0; i < size; i++) {
+				if (died[i] <= horizon) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * @return a copy without the versions dead at or before horizon
+		 */
+		Versions withoutDeadBefore(long horizon) {
+			int capacity = Math.max(4, size);
+			Versions kept = new Versions(new int[capacity], new int[capacity], new long[capacity], new long[capacity], 0);
+			int k = 0;
+			for (int i = 0; i < size; i++) {
+				if (died[i] > horizon) {
+					kept.nodes[k] = nodes[i];
+					kept.weights[k] = weights[i];
+					kept.born[k] = born[i];
+					kept.died[k] = died[i];
+					k++;
+				}
+			}
+			return new Versions(kept.nodes, kept.weights, kept.born, kept.died, k);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Versioned Directed Graph\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(getNbArcs()).append(", versions: ").append(getNbVersions()).append("\n");
+		s.append("Epoch: ").append(committed).append(", oldest pinned: ").append(getOldestPinnedEpoch()).append("\n");
+		return s.toString();
+	}
+
+	/**
+	 * Arcs of the demo as sorted keys, the weights being below 16.
+	 */
+	private static long[] sortedArcs(EdgeList arcs) {
+		long[] keys = new long[arcs.size()];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = Hashing.pack(arcs.getSource(i), arcs.getTarget(i)) << 4 | arcs.getWeight(i);
+		}
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	private static int nbStrongComponents(IDirectedGraph g) {
+		Traversal dfs = GraphToolsList.explorerGraphe(g);
+		Components scc = GraphToolsList.explorerGrapheBis(TransposedGraph.of(g), dfs.getOrdreFinDecroissant());
+		return scc.getNbComponents();
+	}
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		VersionedDirectedGraph small = new VersionedDirectedGraph(4);
+		small.addArc(0, 1, 5);
+		small.addArc(1, 2, 5);
+		Snapshot before = small.snapshot();
+		small.removeArc(0, 1);
+		small.addArc(1, 2, 8);
+		small.addArc(2, 3, 1);
+		int[] weight = new int[1];
+		before.forEachArc(1, (v, w) -> weight[0] = w);
+		boolean isolated = before.isArc(0, 1) && !before.isArc(2, 3) && weight[0] == 5 && !small.isArc(0, 1) && small.getNbArcs() == 2;
+		System.out.println("Snapshot keeps the old arcs and weights? " + isolated + " (Should be TRUE) " + (isolated ? "✅" : "❌"));
+		long kept = small.reclaim();
+		before.close();
+		long freed = small.reclaim();
+		boolean reclaimed = kept == 0 && freed == 2 && small.getNbVersions() == small.getNbArcs();
+		System.out.println("Old versions freed once unpinned only? " + reclaimed + " (Should be TRUE) " + (reclaimed ? "✅" : "❌"));
+		boolean[] seen = new boolean[1];
+		small.forEachSuccessor(1, v -> {
+			// A new weight and a reclaim while this live read runs: its version must stay
+			small.addArc(1, 2, 3);
+			small.reclaim();
+			seen[0] = small.getNbVersions() == small.getNbArcs() + 1;
+		});
+		small.reclaim();
+		boolean announced = seen[0] && small.getNbVersions() == small.getNbArcs();
+		System.out.println("Versions of a running live read kept? " + announced + " (Should be TRUE) " + (announced ? "✅" : "❌"));
+
+		int n = 20000;
+		int nbWriters = 3;
+		int perWriter = 100000;
+		VersionedDirectedGraph g = new VersionedDirectedGraph(n);
+		Random init = new Random(49);
+		for (int i = 0; i < 4 * n; i++) {
+			int u = init.nextInt(n);
+			int v = init.nextInt(n);
+			if (u != v) {
+				g.addArc(u, v, 1 + init.nextInt(15));
+			}
+		}
+		g.startReclaimer(5);
+		Snapshot pinned = g.snapshot();
+		long[] expected = sortedArcs(pinned.toEdgeList());
+		int expectedComponents = nbStrongComponents(pinned);
+		ExecutorService pool = Executors.newFixedThreadPool(nbWriters + 1);
+		List<Future<?>> writers = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int t = 0; t < nbWriters; t++) {
+			final long seed = t;
+			writers.add(pool.submit(() -> {
+				Random rand = new Random(seed);
+				for (int i = 0; i < perWriter; i++) {
+					int u = rand.nextInt(n);
+					int v = rand.nextInt(n);
+					if (u == v) {
+						continue;
+					}
+					if (rand.nextInt(3) == 0) {
+						g.removeArc(u, v);
+					} else {
+						g.addArc(u, v, 1 + rand.nextInt(15));
+					}
+				}
+			}));
+		}
+		Future<Boolean> query = pool.submit(() -> {
+			boolean same = true;
+			for (int r = 0; r < 5; r++) {
+				same &= nbStrongComponents(pinned) == expectedComponents;
+				same &= Arrays.equals(sortedArcs(pinned.toEdgeList()), expected);
+			}
+			return same;
+		});
+		for (Future<?> f : writers) {
+			f.get();
+		}
+		long ms = (System.nanoTime() - start) / 1000000;
+		boolean stable = query.get();
+		pool.shutdown();
+		System.out.println(nbWriters * perWriter + " updates in " + ms + " ms while a query ran SCC on epoch " + pinned.getEpoch());
+		System.out.println("The query saw the same graph all along? " + stable + " (Should be TRUE) " + (stable ? "✅" : "❌"));
+		System.out.println(g);
+		pinned.close();
+		g.stopReclaimer();
+		g.reclaim();
+		try (Snapshot last = g.snapshot()) {
+			boolean consistent = g.getNbVersions() == g.getNbArcs() && last.getNbArcs() == g.getNbArcs();
+			System.out.println("Only live versions left after reclaim? " + consistent + " (Should be TRUE) " + (consistent ? "✅" : "❌"));
+		}
+	}
+}
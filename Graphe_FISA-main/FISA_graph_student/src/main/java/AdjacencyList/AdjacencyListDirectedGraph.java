@@ -2,11 +2,19 @@ package AdjacencyList;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
+import Collection.Hashing;
+import Collection.IntHashSet;
+import Collection.LongHashSet;
 import Nodes_Edges.Arc;
 import Nodes_Edges.DirectedNode;
 
-public class AdjacencyListDirectedGraph {
+public class AdjacencyListDirectedGraph implements IDirectedGraph {
 
 	//--------------------------------------------------
     // 				Class variables
@@ -52,9 +60,12 @@ public class AdjacencyListDirectedGraph {
             	DirectedNode n2 = this.getNodes().get(j);
                 if (matrix[n1.getLabel()][j] != 0) {
                 	Arc a = new Arc(n1,n2);
-                    n1.addArc(a);
-                    this.arcs.add(a);                    
-                    n2.addArc(a);
+                    // Each cell is read once, so the arc is new: no contains() check needed.
+                    n1.getArcSucc().add(a);
+                    this.arcs.add(a);
+                    if (n1 != n2) {
+                        n2.getArcPred().add(a);
+                    }
                     this.nbArcs++;
                 }
             }
@@ -103,6 +114,7 @@ public class AdjacencyListDirectedGraph {
     /**
      * Returns the number of nodes in the graph
      */
+    @Override
     public int getNbNodes() {
         return this.nbNodes;
     }
@@ -179,10 +191,101 @@ public class AdjacencyListDirectedGraph {
         }
     }
 
+    /**
+     * Applies a batch of insertions and deletions (either may be null), the deletions first.
+     * The successor list of each source of the batch is read once, the predecessor list of a
+     * node only when it loses arcs, and the global list of arcs once if an arc is removed,
+     * instead of one scan of all the arcs per call of addArc or removeArc.
+     * In this unvalued graph an inserted arc has weight 0.
+     */
+    public void applyBatch(EdgeList inserts, EdgeList deletes) {
+        applyBatch(ArcBatch.of(inserts, deletes, false), false);
+    }
+
+    protected void applyBatch(ArcBatch batch, boolean valued) {
+        batch.validate(this.nbNodes, false);
+        boolean[] found = new boolean[batch.size()];
+        LongHashSet removed = new LongHashSet();
+        IntHashSet losers = new IntHashSet();	// Nodes losing predecessors
+        int added = 0;
+        for (int i = 0, end; i < batch.size(); i = end) {
+            end = batch.groupEnd(i);
+            final int u = batch.getSource(i);
+            DirectedNode from = this.nodes.get(u);
+            boolean lost = false;
+            for (Arc a : from.getArcSucc()) {
+                int v = a.getSecondNode().getLabel();
+                int k = batch.indexOf(u, v);
+                if (k < 0) {
+                    continue;
+                }
+                found[k] = true;
+                if (!batch.isInsert(k)) {
+                    removed.add(Hashing.pack(u, v));
+                    losers.add(v);
+                    lost = true;
+                } else if (valued) {
+                    a.setWeight(batch.getWeight(k));
+                }
+            }
+            if (lost) {
+                from.getArcSucc().removeIf(a -> removed.contains(Hashing.pack(u, a.getSecondNode().getLabel())));
+            }
+            for (int k = i; k < end; k++) {
+                if (batch.isInsert(k) && !found[k]) {
+                    DirectedNode to = this.nodes.get(batch.getTarget(k));
+                    Arc a = new Arc(from, to, valued ? batch.getWeight(k) : 0);
+                    from.getArcSucc().add(a);
+                    to.getArcPred().add(a);
+                    this.arcs.add(a);
+                    added++;
+                }
+            }
+        }
+        for (int v : losers.toArray()) {
+            this.nodes.get(v).getArcPred().removeIf(a -> removed.contains(Hashing.pack(a.getFirstNode().getLabel(), v)));
+        }
+        if (!removed.isEmpty()) {
+            this.arcs.removeIf(a -> removed.contains(Hashing.pack(a.getFirstNode().getLabel(), a.getSecondNode().getLabel())));
+        }
+        this.nbArcs += added - removed.size();
+    }
+
     //--------------------------------------------------
     // 				Methods
     //--------------------------------------------------
 
+    @Override
+    public void forEachSuccessor(int u, IntConsumer action) {
+        for (Arc a : this.nodes.get(u).getArcSucc()) {
+            action.accept(a.getSecondNode().getLabel());
+        }
+    }
+
+    /**
+     * Reads the arcPred list of v, so backward searches need no inverse graph.
+     */
+    @Override
+    public void forEachPredecessor(int v, IntConsumer action) {
+        for (Arc a : this.nodes.get(v).getArcPred()) {
+            action.accept(a.getFirstNode().getLabel());
+        }
+    }
+
+    @Override
+    public void forEachArc(int u, ArcConsumer action) {
+        for (Arc a : this.nodes.get(u).getArcSucc()) {
+            action.accept(a.getSecondNode().getLabel(), a.getWeight());
+        }
+    }
+
+    @Override
+    public void forEachInArc(int v, ArcConsumer action) {
+        for (Arc a : this.nodes.get(v).getArcPred()) {
+            action.accept(a.getFirstNode().getLabel(), a.getWeight());
+        }
+    }
+
      /**
      * @return the corresponding nodes in the list this.nodes
      */
@@ -204,7 +307,8 @@ public class AdjacencyListDirectedGraph {
     }
 
     /**
-	 * @return a new graph implementing IDirectedGraph interface which is the inverse graph of this
+	 * @return a new graph implementing IDirectedGraph interface which is the inverse graph of this.
+	 * Read-only traversals should rather use the zero-copy view new TransposedGraph(this).
  	 */
     public AdjacencyListDirectedGraph computeInverse() {
         AdjacencyListDirectedGraph inverse = new AdjacencyListDirectedGraph();
@@ -220,9 +324,12 @@ public class AdjacencyListDirectedGraph {
             DirectedNode newTo = inverse.nodes.get(arc.getFirstNode().getLabel());
             
             // Create new arc with switched direction and same weight.
+            // The arcs of this are unique, so are their inverses: no contains() check needed.
             Arc newArc = new Arc(newFrom, newTo, arc.getWeight());
-            newFrom.addArc(newArc);
-            newTo.addArc(newArc);
+            newFrom.getArcSucc().add(newArc);
+            if (newFrom != newTo) {
+                newTo.getArcPred().add(newArc);
+            }
             inverse.arcs.add(newArc);
             inverse.nbArcs++;
         }
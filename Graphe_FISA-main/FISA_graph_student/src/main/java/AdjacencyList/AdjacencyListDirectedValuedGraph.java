@@ -1,5 +1,9 @@
 package AdjacencyList;
 
+import java.util.List;
+
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
 import Nodes_Edges.Arc;
 import Nodes_Edges.DirectedNode;
 
@@ -9,6 +13,10 @@ public class AdjacencyListDirectedValuedGraph extends AdjacencyListDirectedGraph
     // 				Constructors
     //--------------------------------------------------
 
+	public AdjacencyListDirectedValuedGraph(List<DirectedNode> nodes, List<Arc> arcs) {
+		super(nodes, arcs);
+	}
+
 	public AdjacencyListDirectedValuedGraph(int[][] matrixVal) {
     	super();
     	this.nbNodes = matrixVal.length;
@@ -20,9 +28,12 @@ public class AdjacencyListDirectedValuedGraph extends AdjacencyListDirectedGraph
             	DirectedNode n2 = this.getNodes().get(j);
                 if (matrixVal[n1.getLabel()][j] != 0) {
                 	Arc a1 = new Arc(n1,n2,matrixVal[n1.getLabel()][j]);
-                    n1.addArc(a1);
+                    // Each cell is read once, so the arc is new: no contains() check needed.
+                    n1.getArcSucc().add(a1);
                     this.arcs.add(a1);
-                	n2.addArc(a1);
+                    if (n1 != n2) {
+                        n2.getArcPred().add(a1);
+                    }
                     this.nbArcs ++;
                 }
             }
@@ -34,6 +45,15 @@ public class AdjacencyListDirectedValuedGraph extends AdjacencyListDirectedGraph
     // ------------------------------------------
     
 
+    /**
+     * Same as the unvalued applyBatch, an inserted arc taking its cost from the batch and
+     * an existing arc having its cost replaced.
+     */
+    @Override
+    public void applyBatch(EdgeList inserts, EdgeList deletes) {
+        applyBatch(ArcBatch.of(inserts, deletes, false), true);
+    }
+
     /**
      * Adds the arc (from,to) with cost if it is not already present in the graph. 
      * And adds this arc to the incident list of both extremities (nodes) and into the global list "arcs" of the graph.
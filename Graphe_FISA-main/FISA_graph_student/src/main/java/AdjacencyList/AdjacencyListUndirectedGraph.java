@@ -1,13 +1,21 @@
 package AdjacencyList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntConsumer;
 
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
+import Collection.Hashing;
+import Collection.LongHashSet;
 import Nodes_Edges.Edge;
 import Nodes_Edges.UndirectedNode;
 
 
-public class AdjacencyListUndirectedGraph {
+public class AdjacencyListUndirectedGraph implements IGraph {
 
 	//--------------------------------------------------
     // 				Class variables
@@ -52,9 +60,12 @@ public class AdjacencyListUndirectedGraph {
             	UndirectedNode n2 = this.getNodes().get(j);
                 if (matrix[n1.getLabel()][j] != 0) {
                     Edge e1 = new Edge(n1,n2);
-                    n1.addEdge(e1);
+                    // Each pair is read once, so the edge is new: no contains() check needed.
+                    n1.getIncidentEdges().add(e1);
                     this.edges.add(e1);
-                	n2.addEdge(new Edge(n2,n1));
+                    if (n1 != n2) {
+                        n2.getIncidentEdges().add(new Edge(n2,n1));
+                    }
                     this.nbEdges++;
                 }
             }
@@ -156,10 +167,96 @@ public class AdjacencyListUndirectedGraph {
         }
     }
 
+    /**
+     * Applies a batch of insertions and deletions (either may be null), the deletions first,
+     * (x,y) and (y,x) being the same edge. The incident list of each node of the batch is read
+     * once, and the global list of edges once if an edge is removed, instead of one scan of
+     * all the edges per call of addEdge or removeEdge.
+     * In this unvalued graph an inserted edge has weight 0.
+     */
+    public void applyBatch(EdgeList inserts, EdgeList deletes) {
+        applyBatch(ArcBatch.of(inserts, deletes, true), false);
+    }
+
+    protected void applyBatch(ArcBatch batch, boolean valued) {
+        batch.validate(this.nbNodes, false);
+        int[] ends = new int[2 * batch.size()];
+        for (int k = 0; k < batch.size(); k++) {
+            ends[2 * k] = batch.getSource(k);
+            ends[2 * k + 1] = batch.getTarget(k);
+        }
+        Arrays.sort(ends);
+        boolean[] found = new boolean[batch.size()];
+        LongHashSet removed = new LongHashSet();
+        for (int i = 0; i < ends.length; i++) {
+            if (i > 0 && ends[i] == ends[i - 1]) {
+                continue;
+            }
+            final int x = ends[i];
+            UndirectedNode node = this.nodes.get(x);
+            boolean lost = false;
+            for (Edge e : node.getIncidentEdges()) {
+                int y = e.getSecondNode().getLabel();
+                int k = batch.indexOf(Math.min(x, y), Math.max(x, y));
+                if (k < 0) {
+                    continue;
+                }
+                found[k] = true;
+                if (!batch.isInsert(k)) {
+                    removed.add(Hashing.pack(Math.min(x, y), Math.max(x, y)));
+                    lost = true;
+                } else if (valued) {
+                    e.setWeight(batch.getWeight(k));
+                }
+            }
+            if (lost) {
+                node.getIncidentEdges().removeIf(e -> removed.contains(edgeKey(x, e.getSecondNode().getLabel())));
+            }
+        }
+        int added = 0;
+        for (int k = 0; k < batch.size(); k++) {
+            if (batch.isInsert(k) && !found[k]) {
+                UndirectedNode x = this.nodes.get(batch.getSource(k));
+                UndirectedNode y = this.nodes.get(batch.getTarget(k));
+                int w = valued ? batch.getWeight(k) : 0;
+                Edge e1 = new Edge(x, y, w);
+                x.getIncidentEdges().add(e1);
+                y.getIncidentEdges().add(new Edge(y, x, w));
+                this.edges.add(e1);
+                added++;
+            }
+        }
+        if (!removed.isEmpty()) {
+            this.edges.removeIf(e -> removed.contains(edgeKey(e.getFirstNode().getLabel(), e.getSecondNode().getLabel())));
+        }
+        this.nbEdges += added - removed.size();
+    }
+
+    private static long edgeKey(int x, int y) {
+        return Hashing.pack(Math.min(x, y), Math.max(x, y));
+    }
+
     //--------------------------------------------------
     // 					Methods
     //--------------------------------------------------
 
+    /**
+     * Calls action on each neighbour of u, read from its incident edges.
+     */
+    @Override
+    public void forEachSuccessor(int u, IntConsumer action) {
+        for (Edge e : this.nodes.get(u).getIncidentEdges()) {
+            action.accept(e.getSecondNode().getLabel());
+        }
+    }
+
+    @Override
+    public void forEachArc(int u, ArcConsumer action) {
+        for (Edge e : this.nodes.get(u).getIncidentEdges()) {
+            action.accept(e.getSecondNode().getLabel(), e.getWeight());
+        }
+    }
+
     /**
      * @return the corresponding nodes in the list this.nodes
      */
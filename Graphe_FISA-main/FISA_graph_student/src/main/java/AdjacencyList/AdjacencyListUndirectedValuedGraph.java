@@ -1,11 +1,13 @@
 package AdjacencyList;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
+import GraphAlgorithms.AlgorithmListener;
 import GraphAlgorithms.BinaryHeapEdge;
+import GraphAlgorithms.ConsoleListener;
 import Nodes_Edges.Arc;
 import Nodes_Edges.Edge;
 import Nodes_Edges.UndirectedNode;
@@ -16,6 +18,10 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
     // 				Constructors
     //--------------------------------------------------
 
+    public AdjacencyListUndirectedValuedGraph(List<UndirectedNode> nodes, List<Edge> edges) {
+        super(nodes, edges);
+    }
+
     public AdjacencyListUndirectedValuedGraph(int[][] matrixVal) {
     	super();
     	this.nbNodes = matrixVal.length;
@@ -28,9 +34,12 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
             	UndirectedNode n2 = this.getNodes().get(j);
                 if (matrixVal[n1.getLabel()][j] != 0) {
                 	Edge e1 = new Edge(n1,n2,matrixVal[n1.getLabel()][j]);
-                    n1.addEdge(e1);
+                    // Each pair is read once, so the edge is new: no contains() check needed.
+                    n1.getIncidentEdges().add(e1);
                     this.edges.add(e1);
-                	n2.addEdge(new Edge(n2,n1,matrixVal[n1.getLabel()][j]));
+                    if (n1 != n2) {
+                        n2.getIncidentEdges().add(new Edge(n2,n1,matrixVal[n1.getLabel()][j]));
+                    }
                     this.nbEdges++;
                 }
             }
@@ -42,6 +51,15 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
     //--------------------------------------------------
     
 
+    /**
+     * Same as the unvalued applyBatch, an inserted edge taking its cost from the batch and
+     * an existing edge having its cost replaced on both sides.
+     */
+    @Override
+    public void applyBatch(EdgeList inserts, EdgeList deletes) {
+        applyBatch(ArcBatch.of(inserts, deletes, true), true);
+    }
+
     /**
      * Adds the edge (from,to) with cost if it is not already present in the graph.
      * And adds this edge to the incident list of both extremities (nodes) and into the global list "edges" of the graph.
@@ -71,34 +89,31 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
     }
 
     /**
-     * 
-     * 
+     * Prim's algorithm with a binary heap of candidate edges, in O(m log m).
+     *
+     * @return the edges of a minimum spanning tree of the component of startVertex,
+     * nbNodes-1 edges iff the graph is connected
      */
     public List<Edge> prim(int startVertex) {
+        return prim(startVertex, AlgorithmListener.NONE);
+    }
+
+    public List<Edge> prim(int startVertex, AlgorithmListener listener) {
         if (startVertex < 0 || startVertex >= this.nbNodes) {
             throw new IllegalArgumentException("Sommet de départ invalide: " + startVertex);
         }
         
-        System.out.println("=== Algorithme de Prim depuis le sommet " + startVertex + " ===");
-        
         List<Edge> mst = new ArrayList<>();
-        Set<UndirectedNode> visited = new HashSet<>();
+        boolean[] visited = new boolean[this.nbNodes];
         BinaryHeapEdge candidateEdges = new BinaryHeapEdge();
         
         UndirectedNode startNode = this.nodes.get(startVertex);
-        visited.add(startNode);
-        System.out.println("Sommet initial: " + startVertex);
-        
-        System.out.println("Ajout des arêtes adjacentes au sommet " + startVertex + ":");
-        for (Edge edge : startNode.getIncidentEdges()) {
-            UndirectedNode neighbor = edge.getSecondNode();
-            if (!visited.contains(neighbor)) {
-                candidateEdges.insert(edge.getFirstNode(), edge.getSecondNode(), edge.getWeight());
-                System.out.println("  Arête ajoutée: " + edge);
-            }
-        }
+        visited[startVertex] = true;
+        listener.searchStarted(startVertex);
+        listener.vertexSettled(startVertex, 0);
+        addCandidates(startNode, visited, candidateEdges, listener);
         
-        while (!candidateEdges.isEmpty() && visited.size() < this.nbNodes) {
+        while (!candidateEdges.isEmpty() && mst.size() < this.nbNodes - 1) {
             Edge minEdge = candidateEdges.remove();
             
             if (minEdge == null) break;
@@ -106,40 +121,34 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
             UndirectedNode from = (UndirectedNode) minEdge.getFirstNode();
             UndirectedNode to = (UndirectedNode) minEdge.getSecondNode();
             
-            if (visited.contains(from) && visited.contains(to)) {
-                System.out.println("Arête " + minEdge + " ignorée (créerait un cycle)");
-                continue;
+            if (visited[from.getLabel()] && visited[to.getLabel()]) {
+                continue; // Would create a cycle
             }
             
             mst.add(minEdge);
-            System.out.println("Arête ajoutée à l'arbre: " + minEdge + " (poids: " + minEdge.getWeight() + ")");
-            
-            UndirectedNode newVertex = visited.contains(from) ? to : from;
-            visited.add(newVertex);
-            System.out.println("Nouveau sommet visité: " + newVertex.getLabel());
-            
-            System.out.println("Ajout des nouvelles arêtes adjacentes:");
-            for (Edge edge : newVertex.getIncidentEdges()) {
-                UndirectedNode neighbor = edge.getSecondNode();
-                if (!visited.contains(neighbor)) {
-                    candidateEdges.insert(edge.getFirstNode(), edge.getSecondNode(), edge.getWeight());
-                    System.out.println("  Arête ajoutée: " + edge);
-                }
-            }
-            
-            System.out.println("Arêtes dans l'arbre: " + mst.size() + "/" + (this.nbNodes - 1));
-            System.out.println();
-        }
-        
-        if (mst.size() != this.nbNodes - 1) {
-            System.out.println("ATTENTION: Le graphe n'est pas connexe!");
-            System.out.println("Arêtes trouvées: " + mst.size() + ", attendues: " + (this.nbNodes - 1));
-        } else {
-            System.out.println("Arbre couvrant minimum trouvé avec succès!");
+            UndirectedNode newVertex = visited[from.getLabel()] ? to : from;
+            visited[newVertex.getLabel()] = true;
+            listener.edgeAddedToTree(from.getLabel(), to.getLabel(), minEdge.getWeight());
+            listener.vertexSettled(newVertex.getLabel(), minEdge.getWeight());
+            addCandidates(newVertex, visited, candidateEdges, listener);
         }
         
         return mst;
     }
+
+    /**
+     * Pushes the edges from v to the nodes not visited yet.
+     */
+    private void addCandidates(UndirectedNode v, boolean[] visited, BinaryHeapEdge candidateEdges, AlgorithmListener listener) {
+        for (Edge edge : v.getIncidentEdges()) {
+            UndirectedNode neighbor = edge.getSecondNode();
+            if (!visited[neighbor.getLabel()]) {
+                candidateEdges.insert(edge.getFirstNode(), edge.getSecondNode(), edge.getWeight());
+                listener.edgeRelaxed(v.getLabel(), neighbor.getLabel(), edge.getWeight());
+            }
+        }
+        listener.vertexFinished(v.getLabel());
+    }
     
     /**
      */
@@ -206,7 +215,7 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
         System.out.println("Graphe:");
         System.out.println(graph1);
         
-        List<Edge> mst1 = graph1.prim(0);
+        List<Edge> mst1 = graph1.prim(0, new ConsoleListener());
         graph1.afficherMST(mst1);
         
         System.out.println("\n--- Test 2: Graphe plus complexe ---");
@@ -228,6 +237,8 @@ public class AdjacencyListUndirectedValuedGraph extends AdjacencyListUndirectedG
         
         List<Edge> mst2 = graph2.prim(0);
         graph2.afficherMST(mst2);
+        boolean ok = graph2.calculerPoidsTotal(mst2) == 37 && mst2.size() == 8;
+        System.out.println("Poids total = " + graph2.calculerPoidsTotal(mst2) + " (Should be 37) " + (ok ? "✅" : "❌"));
         
         System.out.println("\n--- Test 3: Différents points de départ ---");
         System.out.println("MST depuis le sommet 2:");
@@ -2,14 +2,19 @@ package AdjacencyMatrix;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
 import AdjacencyList.AdjacencyListDirectedGraph;
 
 /**
  * This class represents the directed graphs structured by an adjacency matrix.
  * We consider only simple graph.
  */
-public class AdjacencyMatrixDirectedGraph {
+public class AdjacencyMatrixDirectedGraph implements IDirectedGraph {
 
 	//--------------------------------------------------
     // 				Class variables
@@ -65,6 +70,7 @@ public class AdjacencyMatrixDirectedGraph {
     /**
      * Returns the number of nodes in the graph (referred to as the order of the graph)
      */
+    @Override
     public int getNbNodes() {
         return this.nbNodes;
     }
@@ -91,6 +97,51 @@ public class AdjacencyMatrixDirectedGraph {
 		return succ;
 	}
 
+	/**
+	 * Calls action on each successor of u, in O(n) as the whole row is read.
+	 */
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v);
+			}
+		}
+	}
+
+	/**
+	 * Reads the column of v, so backward searches need no inverse matrix.
+	 */
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		for (int u = 0; u < nbNodes; u++) {
+			if (matrix[u][v] > 0) {
+				action.accept(u);
+			}
+		}
+	}
+
+	/**
+	 * The graph is not valued, every arc is given with weight 0.
+	 */
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v, 0);
+			}
+		}
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		for (int u = 0; u < nbNodes; u++) {
+			if (matrix[u][v] > 0) {
+				action.accept(u, 0);
+			}
+		}
+	}
+
 	/**
 	 * @param v the vertex selected
 	 * @return a list of vertices which are the predecessors of v
@@ -140,6 +191,54 @@ public class AdjacencyMatrixDirectedGraph {
 		}
 	}
 
+	/**
+	 * Applies a batch of insertions and deletions (either may be null), the deletions first.
+	 * The batch is sorted, so the cells are written row after row, and nbArcs is updated once.
+	 * Loops are ignored as in addArc, an inserted arc gets the value 1.
+	 */
+	public void applyBatch(EdgeList inserts, EdgeList deletes) {
+		applyBatch(ArcBatch.of(inserts, deletes, false), false);
+	}
+
+	protected void applyBatch(ArcBatch batch, boolean valued) {
+		batch.validate(nbNodes, true);
+		if (valued) {
+			checkPositiveCosts(batch);
+		}
+		int delta = 0;
+		for (int k = 0; k < batch.size(); k++) {
+			int u = batch.getSource(k);
+			int v = batch.getTarget(k);
+			if (u == v) {
+				continue;
+			}
+			if (!batch.isInsert(k)) {
+				if (matrix[u][v] > 0) {
+					matrix[u][v] = 0;
+					delta--;
+				}
+			} else if (matrix[u][v] <= 0) {
+				matrix[u][v] = valued ? batch.getWeight(k) : 1;
+				delta++;
+			} else if (valued) {
+				matrix[u][v] = batch.getWeight(k);
+			}
+		}
+		nbArcs += delta;
+	}
+
+	/**
+	 * A cell of 0 means no arc, so a valued matrix only holds positive costs.
+	 */
+	static void checkPositiveCosts(ArcBatch batch) {
+		for (int k = 0; k < batch.size(); k++) {
+			if (batch.isInsert(k) && batch.getWeight(k) <= 0 && batch.getSource(k) != batch.getTarget(k)) {
+				throw new IllegalArgumentException("Arc (" + batch.getSource(k) + "," + batch.getTarget(k)
+						+ ") has cost " + batch.getWeight(k) + ", a matrix only holds positive costs");
+			}
+		}
+	}
+
 	/**
 	 * Vérifie que les indices de sommets sont valides.
 	 */
@@ -152,7 +251,8 @@ public class AdjacencyMatrixDirectedGraph {
     }
 
 	/**
-	 * @return a new graph which is the inverse graph of this.matrix
+	 * @return a new graph which is the inverse graph of this.matrix. Read-only traversals
+	 * should rather use the zero-copy view new TransposedGraph(this).
 	 */
 	public AdjacencyMatrixDirectedGraph computeInverse() {
 		int[][] inverseMatrix = new int[nbNodes][nbNodes];
@@ -1,7 +1,15 @@
 package AdjacencyMatrix;
 
+import java.util.Arrays;
 import java.util.List;
 
+import Abstraction.ArcConsumer;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
+import GraphAlgorithms.AlgorithmListener;
+import GraphAlgorithms.ConsoleListener;
+import GraphAlgorithms.ShortestPaths;
+
 public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedGraph {
 
 	//--------------------------------------------------
@@ -37,33 +45,66 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 	}
 
 	/**
-	 * 
+	 * Same as the unvalued applyBatch, each inserted arc taking its cost from the batch,
+	 * which must be positive.
+	 */
+	@Override
+	public void applyBatch(EdgeList inserts, EdgeList deletes) {
+		applyBatch(ArcBatch.of(inserts, deletes, false), true);
+	}
+
+	/**
+	 * Gives each arc with its cost, read from the row of u.
+	 */
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v, matrix[u][v]);
+			}
+		}
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		for (int u = 0; u < nbNodes; u++) {
+			if (matrix[u][v] > 0) {
+				action.accept(u, matrix[u][v]);
+			}
+		}
+	}
+
+	/**
+	 * Dijkstra in its naive O(n^2) version, which suits the matrix: the next node is the
+	 * closest one not marked yet, found by a scan.
+	 *
 	 * @param s source vertex (starting point)
 	 */
-	public void dijkstra(int s) {
+	public ShortestPaths dijkstra(int s) {
+		return dijkstra(s, AlgorithmListener.NONE);
+	}
+
+	public ShortestPaths dijkstra(int s, AlgorithmListener listener) {
 		int n = this.nbNodes;
 		
 		boolean[] mark = new boolean[n];
 		int[] val = new int[n];
-		Integer[] pred = new Integer[n];
+		int[] pred = new int[n];
 		
 		for (int v = 0; v < n; v++) {
 			mark[v] = false;
-			val[v] = Integer.MAX_VALUE / 2;
-			pred[v] = null;
+			val[v] = ShortestPaths.INFINITY;
+			pred[v] = -1;
 		}
 		
 		val[s] = 0;
 		pred[s] = s;
-		
-		System.out.println("=== Algorithme de Dijkstra depuis le sommet " + s + " ===");
-		System.out.println("Initialisation:");
-		afficherEtat(mark, val, pred);
+		listener.searchStarted(s);
 		
 		while (true) {
 			int x = -1;
 			
-			int min = Integer.MAX_VALUE / 2;
+			int min = ShortestPaths.INFINITY;
 			for (int y = 0; y < n; y++) {
 				if (!mark[y] && val[y] < min) {
 					x = y;
@@ -71,12 +112,15 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 				}
 			}
 			
-			if (min >= Integer.MAX_VALUE / 2 || x == -1) {
+			if (x == -1) {
 				break;
 			}
 			
 			mark[x] = true;
-			System.out.println("\nTraitement du sommet " + x + " (distance: " + val[x] + ")");
+			listener.vertexSettled(x, val[x]);
+			if (x != s) {
+				listener.edgeAddedToTree(pred[x], x, 0);
+			}
 			
 			for (int y = 0; y < n; y++) {
 				if (!mark[y] && matrix[x][y] > 0) {
@@ -84,79 +128,13 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 					if (nouveauCost < val[y]) {
 						val[y] = nouveauCost;
 						pred[y] = x;
-						System.out.println("  Mise à jour: sommet " + y + 
-								" nouvelle distance = " + val[y] + 
-								", prédécesseur = " + pred[y]);
+						listener.edgeRelaxed(x, y, val[y]);
 					}
 				}
 			}
-			
-			afficherEtat(mark, val, pred);
-		}
-		
-		System.out.println("\n=== Résultats finaux ===");
-		System.out.println("Distances depuis le sommet " + s + ":");
-		for (int v = 0; v < n; v++) {
-			if (val[v] == Integer.MAX_VALUE / 2) {
-				System.out.println("Sommet " + v + ": INACCESSIBLE");
-			} else {
-				System.out.println("Sommet " + v + ": distance = " + val[v] + 
-						", prédécesseur = " + pred[v]);
-			}
-		}
-		
-		System.out.println("\nChemins optimaux:");
-		for (int v = 0; v < n; v++) {
-			if (v != s && val[v] != Integer.MAX_VALUE / 2) {
-				System.out.print("Chemin vers " + v + ": ");
-				afficherChemin(s, v, pred);
-				System.out.println(" (coût total: " + val[v] + ")");
-			}
-		}
-	}
-	
-	/**
-	 * Méthode utilitaire pour afficher l'état actuel des tableaux
-	 */
-	private void afficherEtat(boolean[] mark, int[] val, Integer[] pred) {
-		System.out.print("Marqués: [");
-		for (int i = 0; i < mark.length; i++) {
-			System.out.print(mark[i] ? "T" : "F");
-			if (i < mark.length - 1) System.out.print(", ");
-		}
-		System.out.println("]");
-		
-		System.out.print("Distances: [");
-		for (int i = 0; i < val.length; i++) {
-			if (val[i] == Integer.MAX_VALUE / 2) {
-				System.out.print("∞");
-			} else {
-				System.out.print(val[i]);
-			}
-			if (i < val.length - 1) System.out.print(", ");
-		}
-		System.out.println("]");
-		
-		System.out.print("Prédécesseurs: [");
-		for (int i = 0; i < pred.length; i++) {
-			System.out.print(pred[i] == null ? "null" : pred[i]);
-			if (i < pred.length - 1) System.out.print(", ");
-		}
-		System.out.println("]");
-	}
-	
-	/**
-	 * Méthode utilitaire pour afficher le chemin de s à v
-	 */
-	private void afficherChemin(int s, int v, Integer[] pred) {
-		if (v == s) {
-			System.out.print(s);
-		} else if (pred[v] == null) {
-			System.out.print("Pas de chemin");
-		} else {
-			afficherChemin(s, pred[v], pred);
-			System.out.print(" → " + v);
+			listener.vertexFinished(x);
 		}
+		return new ShortestPaths(s, val, pred);
 	}
 
 	@Override
@@ -202,7 +180,7 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 		System.out.println("Graphe:");
 		System.out.println(graph1);
 		
-		graph1.dijkstra(0);
+		System.out.println(graph1.dijkstra(0, new ConsoleListener()));
 		
 		System.out.println("\n--- Test 2: Graphe avec cycles ---");
 		int[][] matrix2 = {
@@ -217,7 +195,10 @@ public class AdjacencyMatrixDirectedValuedGraph extends AdjacencyMatrixDirectedG
 		System.out.println("Graphe:");
 		System.out.println(graph2);
 		
-		graph2.dijkstra(0);
+		ShortestPaths paths = graph2.dijkstra(0);
+		System.out.println(paths);
+		boolean ok = paths.getDistance(4) == 5 && paths.getPath(4).equals(Arrays.asList(0, 1, 2, 4));
+		System.out.println("Distance de 0 à 4 = " + paths.getDistance(4) + " (Should be 5) " + (ok ? "✅" : "❌"));
 		
 		System.out.println("\n=== Complexité ===");
 		System.out.println("Complexité de Dijkstra (version naïve): O(n²)");
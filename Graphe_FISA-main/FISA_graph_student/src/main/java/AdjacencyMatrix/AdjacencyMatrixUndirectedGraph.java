@@ -4,14 +4,19 @@ import GraphAlgorithms.GraphTools;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
 import AdjacencyList.AdjacencyListUndirectedGraph;
 
 /**
  * This class represents the undirected graphs structured by an adjacency matrix.
  * We consider only simple graph
  */
-public class AdjacencyMatrixUndirectedGraph {
+public class AdjacencyMatrixUndirectedGraph implements IGraph {
 	
 	//--------------------------------------------------
     // 				Class variables
@@ -95,6 +100,7 @@ public class AdjacencyMatrixUndirectedGraph {
     /**
      * @return the number of nodes in the graph (referred to as the order of the graph)
      */
+    @Override
     public int getNbNodes() {
         return this.nbNodes;
     }
@@ -123,6 +129,30 @@ public class AdjacencyMatrixUndirectedGraph {
 		return neighbors;
 	}
 
+	/**
+	 * Calls action on each neighbour of u, in O(n) as the whole row is read.
+	 */
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v);
+			}
+		}
+	}
+
+	/**
+	 * The graph is not valued, every edge is given with weight 0.
+	 */
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v, 0);
+			}
+		}
+	}
+
 	// ------------------------------------------------
 	// 					Methods
 	// ------------------------------------------------
@@ -182,6 +212,46 @@ public class AdjacencyMatrixUndirectedGraph {
 		}
 	}
 
+	/**
+	 * Applies a batch of insertions and deletions (either may be null), the deletions first,
+	 * (x,y) and (y,x) being the same edge, and updates nbEdges once.
+	 * Loops are ignored as in addEdge, an inserted edge gets the value 1.
+	 */
+	public void applyBatch(EdgeList inserts, EdgeList deletes) {
+		applyBatch(ArcBatch.of(inserts, deletes, true), false);
+	}
+
+	protected void applyBatch(ArcBatch batch, boolean valued) {
+		batch.validate(nbNodes, true);
+		if (valued) {
+			AdjacencyMatrixDirectedGraph.checkPositiveCosts(batch);
+		}
+		int delta = 0;
+		for (int k = 0; k < batch.size(); k++) {
+			int x = batch.getSource(k);
+			int y = batch.getTarget(k);
+			if (x == y) {
+				continue;
+			}
+			if (!batch.isInsert(k)) {
+				if (matrix[x][y] > 0) {
+					delta--;
+				}
+				matrix[x][y] = 0;
+				matrix[y][x] = 0;
+			} else {
+				if (matrix[x][y] <= 0) {
+					delta++;
+				}
+				if (matrix[x][y] <= 0 || valued) {
+					matrix[x][y] = valued ? batch.getWeight(k) : 1;
+					matrix[y][x] = matrix[x][y];
+				}
+			}
+		}
+		nbEdges += delta;
+	}
+
 	/**
 	 * @return the adjacency matrix representation int[][] of the graph
 	 */
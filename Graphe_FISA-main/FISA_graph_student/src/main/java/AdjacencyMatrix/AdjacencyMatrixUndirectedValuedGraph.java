@@ -1,5 +1,8 @@
 package AdjacencyMatrix;
 
+import Abstraction.ArcConsumer;
+import AdjacencyCSR.ArcBatch;
+import AdjacencyCSR.EdgeList;
 import GraphAlgorithms.GraphTools;
 
 
@@ -39,6 +42,27 @@ public class AdjacencyMatrixUndirectedValuedGraph extends AdjacencyMatrixUndirec
 		}
 	}
 
+	/**
+	 * Same as the unvalued applyBatch, each inserted edge taking its cost from the batch,
+	 * which must be positive.
+	 */
+	@Override
+	public void applyBatch(EdgeList inserts, EdgeList deletes) {
+		applyBatch(ArcBatch.of(inserts, deletes, true), true);
+	}
+
+	/**
+	 * Gives each edge with its cost, read from the row of u.
+	 */
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (int v = 0; v < nbNodes; v++) {
+			if (matrix[u][v] > 0) {
+				action.accept(v, matrix[u][v]);
+			}
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder s = new StringBuilder("\nAdjacency Matrix Undirected Valued Graph:\n    ");
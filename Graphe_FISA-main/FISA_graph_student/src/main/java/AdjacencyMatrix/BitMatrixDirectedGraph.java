@@ -0,0 +1,216 @@
+package AdjacencyMatrix;
+
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+
+/**
+ * Simple unvalued directed graph stored as a matrix of bits: each row is an array of longs,
+ * so the graph costs n^2/8 bytes, 32 times less than AdjacencyMatrixDirectedGraph, with the
+ * same O(1) isArc. The successors of a node are found a word at a time.
+ */
+public class BitMatrixDirectedGraph implements IDirectedGraph {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int nbNodes;
+	private final int words;		// Number of longs per row
+	private final long[] bits;		// Bit v of row u is bit (v & 63) of bits[u * words + (v >>> 6)]
+	private int nbArcs;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public BitMatrixDirectedGraph(int nbNodes) {
+		if (nbNodes < 0) {
+			throw new IllegalArgumentException("Number of nodes cannot be negative");
+		}
+		long size = (long) nbNodes * ((nbNodes + 63) >>> 6);
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException(nbNodes + " nodes do not fit in a bit matrix");
+		}
+		this.nbNodes = nbNodes;
+		this.words = (nbNodes + 63) >>> 6;
+		this.bits = new long[(int) size];
+		this.nbArcs = 0;
+	}
+
+	/**
+	 * Every non-zero cell off the diagonal gives an arc.
+	 */
+	public BitMatrixDirectedGraph(int[][] matrix) {
+		this(matrix.length);
+		for (int u = 0; u < nbNodes; u++) {
+			for (int v = 0; v < nbNodes; v++) {
+				if (u != v && matrix[u][v] != 0) {
+					bits[u * words + (v >>> 6)] |= 1L << v;
+					nbArcs++;
+				}
+			}
+		}
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	public int getNbArcs() {
+		return nbArcs;
+	}
+
+	/**
+	 * @return the size of the matrix in bytes
+	 */
+	public long getMemoryBytes() {
+		return 8L * bits.length;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public boolean isArc(int from, int to) {
+		validateVertex(from, to);
+		return (bits[from * words + (to >>> 6)] & 1L << to) != 0;
+	}
+
+	/**
+	 * Adds the arc (from,to), if it is not already present.
+	 */
+	public void addArc(int from, int to) {
+		validateVertex(from, to);
+		if (from == to) {
+			throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+		}
+		int i = from * words + (to >>> 6);
+		if ((bits[i] & 1L << to) == 0) {
+			bits[i] |= 1L << to;
+			nbArcs++;
+		}
+	}
+
+	/**
+	 * Removes the arc (from,to), if it exists.
+	 */
+	public void removeArc(int from, int to) {
+		validateVertex(from, to);
+		int i = from * words + (to >>> 6);
+		if ((bits[i] & 1L << to) != 0) {
+			bits[i] &= ~(1L << to);
+			nbArcs--;
+		}
+	}
+
+	/**
+	 * Reads the row of u a word at a time, in O(n/64 + outdegree(u)).
+	 */
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		int base = u * words;
+		for (int w = 0; w < words; w++) {
+			for (long word = bits[base + w]; word != 0; word &= word - 1) {
+				action.accept(w << 6 | Long.numberOfTrailingZeros(word));
+			}
+		}
+	}
+
+	/**
+	 * Reads the column of v, in O(n).
+	 */
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		int w = v >>> 6;
+		long mask = 1L << v;
+		for (int u = 0; u < nbNodes; u++) {
+			if ((bits[u * words + w] & mask) != 0) {
+				action.accept(u);
+			}
+		}
+	}
+
+	/**
+	 * The graph is not valued, every arc is given with weight 0.
+	 */
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		int base = u * words;
+		for (int w = 0; w < words; w++) {
+			for (long word = bits[base + w]; word != 0; word &= word - 1) {
+				action.accept(w << 6 | Long.numberOfTrailingZeros(word), 0);
+			}
+		}
+	}
+
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		int w = v >>> 6;
+		long mask = 1L << v;
+		for (int u = 0; u < nbNodes; u++) {
+			if ((bits[u * words + w] & mask) != 0) {
+				action.accept(u, 0);
+			}
+		}
+	}
+
+	public int getOutDegree(int u) {
+		int degree = 0;
+		for (int w = u * words; w < (u + 1) * words; w++) {
+			degree += Long.bitCount(bits[w]);
+		}
+		return degree;
+	}
+
+	private void validateVertex(int... vertices) {
+		for (int v : vertices) {
+			if (v < 0 || v >= nbNodes) {
+				throw new IndexOutOfBoundsException("Vertex " + v + " is out of bounds (0.." + (nbNodes - 1) + ")");
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Bit Matrix Directed Graph\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(nbArcs).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		int[][] matrix = {
+			{0, 1, 0, 1, 0},
+			{0, 0, 1, 0, 0},
+			{0, 0, 0, 1, 1},
+			{1, 0, 0, 0, 0},
+			{0, 1, 0, 0, 0}
+		};
+		BitMatrixDirectedGraph g = new BitMatrixDirectedGraph(matrix);
+		AdjacencyMatrixDirectedGraph expected = new AdjacencyMatrixDirectedGraph(matrix);
+		boolean same = g.getNbArcs() == expected.getNbArcs();
+		for (int u = 0; u < 5; u++) {
+			for (int v = 0; v < 5; v++) {
+				same &= g.isArc(u, v) == expected.isArc(u, v);
+			}
+		}
+		System.out.println("Same arcs as the int matrix? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+		g.addArc(2, 0);
+		g.removeArc(0, 1);
+		StringBuilder pred = new StringBuilder();
+		g.forEachPredecessor(0, u -> pred.append(u).append(' '));
+		System.out.println("Predecessors of 0 = " + pred + "(Should be 2 3) " + (pred.toString().equals("2 3 ") ? "✅" : "❌"));
+
+		BitMatrixDirectedGraph big = new BitMatrixDirectedGraph(10000);
+		System.out.println("10000 nodes in " + big.getMemoryBytes() / 1000000 + " MB instead of "
+				+ 4L * 10000 * 10000 / 1000000 + " MB for int[][]");
+	}
+}
@@ -0,0 +1,445 @@
+package AdjacencyPersistent;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyList.AdjacencyListDirectedGraph;
+import GraphAlgorithms.GraphToolsParallel;
+
+/**
+ * Directed valued graph whose versions share their structure, so that fork() costs O(1)
+ * instead of the deep copy of AdjacencyListDirectedGraph(AdjacencyListDirectedGraph g).
+ *
+ * The successor lists hang from a trie of branching 32: inner chunks hold 32 children and
+ * leaf chunks the lists of 32 nodes. Every chunk and every list remembers the version that
+ * created it, and a version only modifies in place what it created. A mutation copies the
+ * chunks on the path to its node that belong to another version, then the list of the node,
+ * that is O(log32(n) * 32 + degree). A fork gives new identities to both versions, so all the
+ * existing chunks become read-only for both of them.
+ *
+ * A version is not thread-safe, but a fork can be handed to another thread (through any safe
+ * publication) and read there while the original goes on changing: nothing it reaches is
+ * modified anymore.
+ */
+public class PersistentDirectedGraph implements IGraph {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	private static final AtomicLong VERSIONS = new AtomicLong();
+
+	/**
+	 * Chunk of 32 children, inner chunks or leaves.
+	 */
+	private static final class Inner {
+		final long owner;
+		final Object[] children;
+
+		Inner(long owner, Object[] children) {
+			this.owner = owner;
+			this.children = children;
+		}
+	}
+
+	/**
+	 * Chunk of the successor lists of 32 consecutive nodes.
+	 */
+	private static final class Leaf {
+		final long owner;
+		final int[][] targets;
+		final int[][] weights;
+		final int[] sizes;
+		final long[] listOwners;	// Version which created each pair of arrays
+
+		Leaf(long owner, int[][] targets, int[][] weights, int[] sizes, long[] listOwners) {
+			this.owner = owner;
+			this.targets = targets;
+			this.weights = weights;
+			this.sizes = sizes;
+			this.listOwners = listOwners;
+		}
+	}
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int nbNodes;
+	private final int depth;	// Number of inner levels above the leaves
+	private int nbArcs;
+	private Object root;		// Inner, Leaf, or null when there is no arc
+	private long version;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Creates a graph with nbNodes nodes and no arc.
+	 */
+	public PersistentDirectedGraph(int nbNodes) {
+		if (nbNodes < 0) {
+			throw new IllegalArgumentException("Number of nodes cannot be negative");
+		}
+		this.nbNodes = nbNodes;
+		int d = 0;
+		for (long covered = WIDTH; covered < nbNodes; covered *= WIDTH) {
+			d++;
+		}
+		this.depth = d;
+		this.nbArcs = 0;
+		this.root = null;
+		this.version = VERSIONS.incrementAndGet();
+	}
+
+	private PersistentDirectedGraph(PersistentDirectedGraph g) {
+		this.nbNodes = g.nbNodes;
+		this.depth = g.depth;
+		this.nbArcs = g.nbArcs;
+		this.root = g.root;
+		this.version = VERSIONS.incrementAndGet();
+	}
+
+	/**
+	 * Builds the graph in O(n+m); a repeated arc keeps its last weight.
+	 */
+	public static PersistentDirectedGraph fromEdgeList(EdgeList edges) {
+		PersistentDirectedGraph g = new PersistentDirectedGraph(edges.getNbNodes());
+		CSRGraph csr = CSRGraph.fromEdgeList(edges);
+		int[] stamp = new int[edges.getNbNodes()];
+		int[] position = new int[edges.getNbNodes()];	// Index of v in the list of u when stamp[v] == u+1
+		for (int u = 0; u < csr.getNbNodes(); u++) {
+			int degree = 0;
+			for (int a = csr.getFirstArc(u); a < csr.getEndArc(u); a++) {
+				if (stamp[csr.getTarget(a)] != u + 1) {
+					stamp[csr.getTarget(a)] = u + 1;
+					degree++;
+				}
+			}
+			if (degree == 0) {
+				continue;
+			}
+			Leaf leaf = g.leafForWrite(u);
+			int k = u & MASK;
+			int[] targets = new int[degree];
+			int[] weights = new int[degree];
+			int size = 0;
+			for (int a = csr.getFirstArc(u); a < csr.getEndArc(u); a++) {
+				int v = csr.getTarget(a);
+				// The first pass left the stamps at u+1: the first time v is met it gets -(u+1)
+				if (stamp[v] == u + 1) {
+					stamp[v] = -(u + 1);
+					position[v] = size;
+					targets[size++] = v;
+				}
+				weights[position[v]] = csr.getWeight(a);
+			}
+			leaf.targets[k] = targets;
+			leaf.weights[k] = weights;
+			leaf.sizes[k] = degree;
+			leaf.listOwners[k] = g.version;
+			g.nbArcs += degree;
+		}
+		return g;
+	}
+
+	public static PersistentDirectedGraph fromGraph(AdjacencyListDirectedGraph g) {
+		return fromEdgeList(GraphConverter.toEdgeList(g));
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	public int getNbArcs() {
+		return nbArcs;
+	}
+
+	public int getOutDegree(int u) {
+		Leaf leaf = leafForRead(u);
+		return leaf == null ? 0 : leaf.sizes[u & MASK];
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * @return a new version equal to this one, in O(1). Both versions can then change
+	 * independently, each change copying only the chunks it touches.
+	 */
+	public PersistentDirectedGraph fork() {
+		PersistentDirectedGraph f = new PersistentDirectedGraph(this);
+		// This version loses the ownership of its chunks, which are now shared with f.
+		this.version = VERSIONS.incrementAndGet();
+		return f;
+	}
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		checkNode(u);
+		Leaf leaf = leafForRead(u);
+		if (leaf != null) {
+			int k = u & MASK;
+			int[] targets = leaf.targets[k];
+			for (int i = 0; i < leaf.sizes[k]; i++) {
+				action.accept(targets[i]);
+			}
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		checkNode(u);
+		Leaf leaf = leafForRead(u);
+		if (leaf != null) {
+			int k = u & MASK;
+			int[] targets = leaf.targets[k];
+			int[] weights = leaf.weights[k];
+			for (int i = 0; i < leaf.sizes[k]; i++) {
+				action.accept(targets[i], weights[i]);
+			}
+		}
+	}
+
+	public boolean isArc(int from, int to) {
+		return indexOf(from, to) >= 0;
+	}
+
+	/**
+	 * @return the weight of the arc (from,to), which must exist
+	 */
+	public int getWeight(int from, int to) {
+		int i = indexOf(from, to);
+		if (i < 0) {
+			throw new IllegalArgumentException("No arc (" + from + "," + to + ")");
+		}
+		return leafForRead(from).weights[from & MASK][i];
+	}
+
+	/**
+	 * Adds the arc (from,to) with cost, or updates its weight if it is already present.
+	 */
+	public void addArc(int from, int to, int cost) {
+		checkNode(from);
+		checkNode(to);
+		if (from == to) {
+			throw new IllegalArgumentException("Cannot add an arc from a node to itself.");
+		}
+		Leaf leaf = leafForWrite(from);
+		putArc(leaf, from & MASK, to, cost);
+	}
+
+	/**
+	 * Removes the arc (from,to), if it exists.
+	 */
+	public void removeArc(int from, int to) {
+		checkNode(from);
+		checkNode(to);
+		if (indexOf(from, to) < 0) {
+			return;
+		}
+		Leaf leaf = leafForWrite(from);
+		int k = from & MASK;
+		ensureOwnedList(leaf, k, 0);
+		int[] targets = leaf.targets[k];
+		int[] weights = leaf.weights[k];
+		int size = leaf.sizes[k];
+		for (int i = 0; i < size; i++) {
+			if (targets[i] == to) {
+				System.arraycopy(targets, i + 1, targets, i, size - i - 1);
+				System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+				leaf.sizes[k]--;
+				nbArcs--;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the list of the arcs of this version, sorted by source
+	 */
+	public EdgeList toEdgeList() {
+		EdgeList edges = new EdgeList(nbNodes, nbArcs);
+		for (int u = 0; u < nbNodes; u++) {
+			Leaf leaf = leafForRead(u);
+			if (leaf != null) {
+				int k = u & MASK;
+				for (int i = 0; i < leaf.sizes[k]; i++) {
+					edges.add(u, leaf.targets[k][i], leaf.weights[k][i]);
+				}
+			}
+		}
+		return edges;
+	}
+
+	private void checkNode(int u) {
+		if (u < 0 || u >= nbNodes) {
+			throw new IndexOutOfBoundsException("Vertex " + u + " is out of bounds (0.." + (nbNodes - 1) + ")");
+		}
+	}
+
+	private int indexOf(int from, int to) {
+		checkNode(from);
+		Leaf leaf = leafForRead(from);
+		if (leaf == null) {
+			return -1;
+		}
+		int k = from & MASK;
+		int[] targets = leaf.targets[k];
+		for (int i = 0; i < leaf.sizes[k]; i++) {
+			if (targets[i] == to) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds or updates the arc in the list k of a leaf owned by this version.
+	 */
+	private void putArc(Leaf leaf, int k, int to, int cost) {
+		int size = leaf.sizes[k];
+		int[] targets = leaf.targets[k];
+		for (int i = 0; i < size; i++) {
+			if (targets[i] == to) {
+				if (leaf.weights[k][i] != cost) {
+					ensureOwnedList(leaf, k, 0);
+					leaf.weights[k][i] = cost;
+				}
+				return;
+			}
+		}
+		ensureOwnedList(leaf, k, 1);
+		leaf.targets[k][size] = to;
+		leaf.weights[k][size] = cost;
+		leaf.sizes[k]++;
+		nbArcs++;
+	}
+
+	/**
+	 * Makes the list k of the leaf writable by this version with room for extra more arcs,
+	 * copying it if another version created it or if it is full.
+	 */
+	private void ensureOwnedList(Leaf leaf, int k, int extra) {
+		int size = leaf.sizes[k];
+		int[] targets = leaf.targets[k];
+		boolean owned = leaf.listOwners[k] == version;
+		if (owned && targets != null && size + extra <= targets.length) {
+			return;
+		}
+		int capacity = Math.max(4, size + extra);
+		if (owned) {
+			capacity = Math.max(capacity, 2 * size);
+		}
+		leaf.targets[k] = targets == null ? new int[capacity] : Arrays.copyOf(targets, capacity);
+		leaf.weights[k] = targets == null ? new int[capacity] : Arrays.copyOf(leaf.weights[k], capacity);
+		leaf.listOwners[k] = version;
+	}
+
+	private Leaf leafForRead(int u) {
+		Object node = root;
+		for (int level = depth; level > 0 && node != null; level--) {
+			node = ((Inner) node).children[(u >>> (BITS * level)) & MASK];
+		}
+		return (Leaf) node;
+	}
+
+	/**
+	 * Copies the chunks of the path to u which belong to another version.
+	 *
+	 * @return the leaf of u, owned by this version
+	 */
+	private Leaf leafForWrite(int u) {
+		if (depth == 0) {
+			Leaf leaf = editable((Leaf) root);
+			root = leaf;
+			return leaf;
+		}
+		Inner node = editable((Inner) root);
+		root = node;
+		for (int level = depth; level > 1; level--) {
+			int i = (u >>> (BITS * level)) & MASK;
+			Inner child = editable((Inner) node.children[i]);
+			node.children[i] = child;
+			node = child;
+		}
+		int i = (u >>> BITS) & MASK;
+		Leaf leaf = editable((Leaf) node.children[i]);
+		node.children[i] = leaf;
+		return leaf;
+	}
+
+	private Inner editable(Inner node) {
+		if (node == null) {
+			return new Inner(version, new Object[WIDTH]);
+		}
+		if (node.owner == version) {
+			return node;
+		}
+		return new Inner(version, node.children.clone());
+	}
+
+	private Leaf editable(Leaf leaf) {
+		if (leaf == null) {
+			return new Leaf(version, new int[WIDTH][], new int[WIDTH][], new int[WIDTH], new long[WIDTH]);
+		}
+		if (leaf.owner == version) {
+			return leaf;
+		}
+		// The lists are shared with the copy, their owners tell that they must be copied on write.
+		return new Leaf(version, leaf.targets.clone(), leaf.weights.clone(), leaf.sizes.clone(), leaf.listOwners.clone());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Persistent Directed Graph\n");
+		s.append("Number of nodes: ").append(nbNodes).append("\n");
+		s.append("Number of arcs: ").append(nbArcs).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		EdgeList edges = GraphToolsParallel.generateValuedEdgeList(100000, 1000000L, false, false, true, false, 7L, 1);
+		PersistentDirectedGraph g = fromEdgeList(edges);
+		System.out.println(g);
+
+		long start = System.nanoTime();
+		PersistentDirectedGraph whatIf = g.fork();
+		long forkTime = System.nanoTime() - start;
+		System.out.println("Fork in " + forkTime / 1000 + " µs");
+
+		start = System.nanoTime();
+		for (int i = 0; i < 1000; i++) {
+			whatIf.addArc(i, (i * 7919 + 1) % 100000 == i ? i + 1 : (i * 7919 + 1) % 100000, -1);
+			whatIf.removeArc(50000 + i, edges.getTarget(0));
+		}
+		System.out.println("2000 mutations of the fork in " + (System.nanoTime() - start) / 1000 + " µs");
+
+		boolean intact = g.getNbArcs() == 1000000 && g.toEdgeList().size() == 1000000;
+		for (int i = 0; i < 1000 && intact; i++) {
+			int v = (i * 7919 + 1) % 100000 == i ? i + 1 : (i * 7919 + 1) % 100000;
+			intact = !g.isArc(i, v) || g.getWeight(i, v) != -1;
+		}
+		System.out.println("Original version unchanged? " + intact + " (Should be TRUE) " + (intact ? "✅" : "❌"));
+		boolean changed = whatIf.getWeight(0, 1) == -1 && whatIf.getNbArcs() >= 1000000 - 1000;
+		System.out.println("Fork sees its own changes? " + changed + " (Should be TRUE) " + (changed ? "✅" : "❌"));
+
+		AdjacencyListDirectedGraph list = GraphConverter.toDirectedGraph(edges);
+		start = System.nanoTime();
+		new AdjacencyListDirectedGraph(list);
+		System.out.println("Deep copy of the list graph in " + (System.nanoTime() - start) / 1000 + " µs");
+	}
+}
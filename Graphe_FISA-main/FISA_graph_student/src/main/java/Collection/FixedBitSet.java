@@ -0,0 +1,104 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * Set of the ints 0..size-1 as an array of longs, one bit per value: n/8 bytes for the
+ * visited marks of n nodes, 8 times less than a boolean[]. Unlike java.util.BitSet the
+ * size is fixed and the checks are left to the array bounds, so get and set stay tiny.
+ */
+public class FixedBitSet {
+
+	private final long[] words;
+	private final int size;
+
+	public FixedBitSet(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size cannot be negative");
+		}
+		this.words = new long[(size + 63) >>> 6];
+		this.size = size;
+	}
+
+	/**
+	 * @return the number of values the set can hold
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean get(int i) {
+		return (words[i >>> 6] & 1L << i) != 0;
+	}
+
+	public void set(int i) {
+		words[i >>> 6] |= 1L << i;
+	}
+
+	public void clear(int i) {
+		words[i >>> 6] &= ~(1L << i);
+	}
+
+	/**
+	 * Sets bit i in one access, for the "if not visited then visit" of a search.
+	 *
+	 * @return the previous value of the bit
+	 */
+	public boolean getAndSet(int i) {
+		long word = words[i >>> 6];
+		long bit = 1L << i;
+		words[i >>> 6] = word | bit;
+		return (word & bit) != 0;
+	}
+
+	public void clear() {
+		Arrays.fill(words, 0L);
+	}
+
+	/**
+	 * @return the number of bits set
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @return the first bit set from i included, or -1 if there is none
+	 */
+	public int nextSetBit(int i) {
+		if (i >= size) {
+			return -1;
+		}
+		int w = i >>> 6;
+		long word = words[w] & (-1L << i);
+		while (word == 0) {
+			if (++w == words.length) {
+				return -1;
+			}
+			word = words[w];
+		}
+		return w << 6 | Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * @return the first bit not set from i included, or size if there is none
+	 */
+	public int nextClearBit(int i) {
+		if (i >= size) {
+			return size;
+		}
+		int w = i >>> 6;
+		long word = ~words[w] & (-1L << i);
+		while (word == 0) {
+			if (++w == words.length) {
+				return size;
+			}
+			word = ~words[w];
+		}
+		return Math.min(size, w << 6 | Long.numberOfTrailingZeros(word));
+	}
+}
@@ -0,0 +1,53 @@
+package Collection;
+
+/**
+ * Hash functions and packed pair keys shared by the primitive collections.
+ * A pair of int labels (u,v) packed in one long is a key without any object, and mixing
+ * spreads every bit of the key over the low bits used as index by open addressing, so
+ * (u,v) and (v,u), or labels differing only in their high bits, do not collide.
+ */
+public final class Hashing {
+
+	private Hashing() {
+
+	}
+
+	/**
+	 * Finalisation step of SplitMix64, spreads every input bit over the low bits used as index.
+	 */
+	public static int mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return (int) (z ^ (z >>> 33));
+	}
+
+	/**
+	 * Finalisation step of MurmurHash3 on 32 bits.
+	 */
+	public static int mix(int h) {
+		h = (h ^ (h >>> 16)) * 0x85ebca6b;
+		h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return the two vertices packed in a single long, first one in the high bits
+	 */
+	public static long pack(int u, int v) {
+		return ((long) u << 32) | (v & 0xffffffffL);
+	}
+
+	/**
+	 * @return the first vertex of a packed pair
+	 */
+	public static int first(long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	/**
+	 * @return the second vertex of a packed pair
+	 */
+	public static int second(long pair) {
+		return (int) pair;
+	}
+}
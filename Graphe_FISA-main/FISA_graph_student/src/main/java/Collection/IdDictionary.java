@@ -0,0 +1,210 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * Dictionary from sparse external long identifiers to dense node indices 0..size-1, given in
+ * order of first appearance. The forward map uses open addressing with linear probing over a
+ * long[] of keys and an int[] of indices, the reverse map is a plain long[], so no boxing is
+ * involved and an id costs about 28 bytes whatever its value.
+ * The value Long.MIN_VALUE is reserved to mark empty slots.
+ */
+public class IdDictionary {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private long[] keys;		// External ids, EMPTY for a free slot
+	private int[] indices;		// Index of the id in the same slot of keys
+	private int mask;
+	private long[] ids;			// Reverse map, ids[i] is the external id of node i
+	private int size;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public IdDictionary() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of ids the dictionary should hold without resizing
+	 */
+	public IdDictionary(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expected size cannot be negative");
+		}
+		int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, expectedSize * 2L)) - 1) << 1;
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.indices = new int[capacity];
+		this.mask = capacity - 1;
+		this.ids = new long[Math.max(4, expectedSize)];
+		this.size = 0;
+	}
+
+	/**
+	 * Builds the dictionary of an id column in one pass, repeated ids keeping the index of
+	 * their first occurrence.
+	 */
+	public static IdDictionary fromIds(long[] column, int len) {
+		if (len < 0 || len > column.length) {
+			throw new IllegalArgumentException("Length " + len + " is out of the column (0.." + column.length + ")");
+		}
+		IdDictionary dict = new IdDictionary(len);
+		for (int i = 0; i < len; i++) {
+			dict.getOrAdd(column[i]);
+		}
+		return dict;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	/**
+	 * @return the number of distinct ids, which is the number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the external id of the node index
+	 */
+	public long idOf(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds (0.." + (size - 1) + ")");
+		}
+		return ids[index];
+	}
+
+	/**
+	 * @return a copy of the reverse map, the external id of every node in index order
+	 */
+	public long[] toIdArray() {
+		return Arrays.copyOf(ids, size);
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * @return the index of id, or -1 if it is not in the dictionary
+	 */
+	public int indexOf(long id) {
+		int i = Hashing.mix(id) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == id) {
+				return indices[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	public boolean contains(long id) {
+		return indexOf(id) >= 0;
+	}
+
+	/**
+	 * @return the index of id, the next free index being given to an unknown id
+	 */
+	public int getOrAdd(long id) {
+		if (id == EMPTY) {
+			throw new IllegalArgumentException("Long.MIN_VALUE cannot be used as an id");
+		}
+		int i = Hashing.mix(id) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == id) {
+				return indices[i];
+			}
+			i = (i + 1) & mask;
+		}
+		if (size == Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many ids for int indices");
+		}
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, (int) Math.min(Integer.MAX_VALUE - 8, 2L * size));
+		}
+		keys[i] = id;
+		indices[i] = size;
+		ids[size] = id;
+		size++;
+		if (size * 2L > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Translates len ids of a column into node indices, adding the unknown ones.
+	 */
+	public int[] encode(long[] column, int len) {
+		int[] out = new int[len];
+		for (int i = 0; i < len; i++) {
+			out[i] = getOrAdd(column[i]);
+		}
+		return out;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = this.keys;
+		int[] oldIndices = this.indices;
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.indices = new int[capacity];
+		this.mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != EMPTY) {
+				int i = Hashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				indices[i] = oldIndices[j];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Id Dictionary\n");
+		s.append("Number of ids: ").append(size).append("\n");
+		for (int i = 0; i < Math.min(size, 20); i++) {
+			s.append(i).append(" -> ").append(ids[i]).append("  ");
+		}
+		s.append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		long[] column = {9000000000123L, 42, -7, 42, 9000000000123L, 1L << 62};
+		IdDictionary dict = IdDictionary.fromIds(column, column.length);
+		System.out.println(dict);
+		boolean dense = dict.size() == 4 && dict.indexOf(42) == 1 && dict.indexOf(-7) == 2 && dict.indexOf(5) == -1;
+		System.out.println("Dense indices in order of appearance? " + dense + " (Should be TRUE) " + (dense ? "✅" : "❌"));
+		boolean reverse = dict.idOf(3) == 1L << 62 && dict.idOf(0) == 9000000000123L;
+		System.out.println("Reverse lookup gives the ids back? " + reverse + " (Should be TRUE) " + (reverse ? "✅" : "❌"));
+
+		int n = 2000000;
+		long[] sparse = new long[n];
+		for (int i = 0; i < n; i++) {
+			sparse[i] = (long) i * 1000003L * 7919L;
+		}
+		long start = System.nanoTime();
+		IdDictionary big = IdDictionary.fromIds(sparse, n);
+		double ms = (System.nanoTime() - start) / 1e6;
+		boolean ok = big.size() == n;
+		for (int i = 0; i < n; i += 9973) {
+			ok &= big.indexOf(sparse[i]) == i && big.idOf(i) == sparse[i];
+		}
+		System.out.println(n + " sparse ids built in " + (int) ms + " ms, all found? " + ok + " (Should be TRUE) " + (ok ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,112 @@
+package Collection;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Double-ended queue of primitive ints in a circular array whose length is a power of two,
+ * so both ends are reached with a mask instead of a modulo. Used as the FIFO queue of a BFS,
+ * or as the 0-1 deque of a shortest path search with 0 and 1 weights.
+ */
+public class IntDeque {
+
+	private int[] values;
+	private int head;		// Index of the first value
+	private int size;
+
+	public IntDeque() {
+		this(16);
+	}
+
+	/**
+	 * @param capacity the number of values the deque should hold without growing
+	 */
+	public IntDeque(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative");
+		}
+		this.values = new int[Integer.highestOneBit(Math.max(4, capacity) - 1) << 1];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void addFirst(int value) {
+		if (size == values.length) {
+			grow();
+		}
+		head = (head - 1) & (values.length - 1);
+		values[head] = value;
+		size++;
+	}
+
+	public void addLast(int value) {
+		if (size == values.length) {
+			grow();
+		}
+		values[(head + size) & (values.length - 1)] = value;
+		size++;
+	}
+
+	public int peekFirst() {
+		checkNotEmpty();
+		return values[head];
+	}
+
+	public int peekLast() {
+		checkNotEmpty();
+		return values[(head + size - 1) & (values.length - 1)];
+	}
+
+	public int pollFirst() {
+		checkNotEmpty();
+		int value = values[head];
+		head = (head + 1) & (values.length - 1);
+		size--;
+		return value;
+	}
+
+	public int pollLast() {
+		checkNotEmpty();
+		size--;
+		return values[(head + size) & (values.length - 1)];
+	}
+
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Doubles the array, the values being moved back to the start in order.
+	 */
+	private void grow() {
+		int[] bigger = new int[values.length << 1];
+		int first = Math.min(size, values.length - head);
+		System.arraycopy(values, head, bigger, 0, first);
+		System.arraycopy(values, 0, bigger, first, size - first);
+		values = bigger;
+		head = 0;
+	}
+
+	private void checkNotEmpty() {
+		if (size == 0) {
+			throw new NoSuchElementException("The deque is empty");
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			s.append(i == 0 ? "" : ", ").append(values[(head + i) & (values.length - 1)]);
+		}
+		return s.append(']').toString();
+	}
+}
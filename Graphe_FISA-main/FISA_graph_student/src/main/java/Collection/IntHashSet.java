@@ -0,0 +1,145 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive int values using open addressing with linear probing, the
+ * values being mixed first so that consecutive labels do not fill one run of slots.
+ * Removal shifts the following entries back instead of leaving tombstones.
+ * The value Integer.MIN_VALUE is reserved to mark empty slots.
+ */
+public class IntHashSet {
+
+	private static final int EMPTY = Integer.MIN_VALUE;
+
+	private int[] keys;
+	private int size;
+	private int mask;
+
+	public IntHashSet() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of values the set should hold without resizing
+	 */
+	public IntHashSet(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, expectedSize * 2L)) - 1) << 1;
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return true if the value was not already in the set
+	 */
+	public boolean add(int key) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Integer.MIN_VALUE cannot be stored in the set");
+		}
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		size++;
+		if (size * 2 > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return true;
+	}
+
+	public boolean contains(int key) {
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the value was in the set
+	 */
+	public boolean remove(int key) {
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				shiftBack(i);
+				size--;
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * @return the values of the set, in no particular order
+	 */
+	public int[] toArray() {
+		int[] out = new int[size];
+		int k = 0;
+		for (int key : keys) {
+			if (key != EMPTY) {
+				out[k++] = key;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Empties slot hole and moves back the entries of its run that could sit there.
+	 */
+	private void shiftBack(int hole) {
+		int i = hole;
+		while (true) {
+			i = (i + 1) & mask;
+			if (keys[i] == EMPTY) {
+				break;
+			}
+			int home = Hashing.mix(keys[i]) & mask;
+			// The entry may move to the hole if its home is not in the cyclic range (hole, i].
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				hole = i;
+			}
+		}
+		keys[hole] = EMPTY;
+	}
+
+	private void rehash(int capacity) {
+		int[] old = this.keys;
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		for (int k : old) {
+			if (k != EMPTY) {
+				int i = Hashing.mix(k) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+			}
+		}
+	}
+}
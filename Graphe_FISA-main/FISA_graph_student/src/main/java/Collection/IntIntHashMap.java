@@ -0,0 +1,190 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive int keys to primitive int values using open addressing with
+ * linear probing over two parallel arrays, without boxing. A lookup of a missing key
+ * returns the value given at construction, -1 by default, like an int[] filled with it.
+ * The key Integer.MIN_VALUE is reserved to mark empty slots.
+ */
+public class IntIntHashMap {
+
+	private static final int EMPTY = Integer.MIN_VALUE;
+
+	private int[] keys;
+	private int[] values;
+	private final int missingValue;
+	private int size;
+	private int mask;
+
+	public IntIntHashMap() {
+		this(16, -1);
+	}
+
+	/**
+	 * @param expectedSize the number of keys the map should hold without resizing
+	 * @param missingValue the value returned for a key not in the map
+	 */
+	public IntIntHashMap(int expectedSize, int missingValue) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, expectedSize * 2L)) - 1) << 1;
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.values = new int[capacity];
+		this.missingValue = missingValue;
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getMissingValue() {
+		return missingValue;
+	}
+
+	/**
+	 * @return the value of key, or the missing value
+	 */
+	public int get(int key) {
+		int i = slot(key);
+		return keys[i] == EMPTY ? missingValue : values[i];
+	}
+
+	public boolean containsKey(int key) {
+		return keys[slot(key)] != EMPTY;
+	}
+
+	/**
+	 * @return the previous value of key, or the missing value
+	 */
+	public int put(int key, int value) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Integer.MIN_VALUE cannot be used as a key");
+		}
+		int i = slot(key);
+		if (keys[i] != EMPTY) {
+			int old = values[i];
+			values[i] = value;
+			return old;
+		}
+		keys[i] = key;
+		values[i] = value;
+		size++;
+		if (size * 2 > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return missingValue;
+	}
+
+	/**
+	 * Adds delta to the value of key, a missing key starting from 0. Counts degrees or
+	 * multiplicities in a single probe.
+	 *
+	 * @return the new value
+	 */
+	public int addTo(int key, int delta) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Integer.MIN_VALUE cannot be used as a key");
+		}
+		int i = slot(key);
+		if (keys[i] != EMPTY) {
+			return values[i] += delta;
+		}
+		keys[i] = key;
+		values[i] = delta;
+		size++;
+		if (size * 2 > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return delta;
+	}
+
+	/**
+	 * @return the value of the removed key, or the missing value
+	 */
+	public int remove(int key) {
+		int i = slot(key);
+		if (keys[i] == EMPTY) {
+			return missingValue;
+		}
+		int old = values[i];
+		shiftBack(i);
+		size--;
+		return old;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * @return the keys of the map, in no particular order
+	 */
+	public int[] keys() {
+		int[] out = new int[size];
+		int k = 0;
+		for (int key : keys) {
+			if (key != EMPTY) {
+				out[k++] = key;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * @return the slot holding key, or the empty slot where it would be inserted
+	 */
+	private int slot(int key) {
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/**
+	 * Empties slot hole and moves back the entries of its run that could sit there.
+	 */
+	private void shiftBack(int hole) {
+		int i = hole;
+		while (true) {
+			i = (i + 1) & mask;
+			if (keys[i] == EMPTY) {
+				break;
+			}
+			int home = Hashing.mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				hole = i;
+			}
+		}
+		keys[hole] = EMPTY;
+	}
+
+	private void rehash(int capacity) {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] != EMPTY) {
+				int i = Hashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package Collection;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Growable array of primitive longs, 8 bytes per value instead of about 24 for a
+ * List<Long>. Also used as a stack through add, last and removeLast.
+ */
+public class LongArrayList {
+
+	private long[] values;
+	private int size;
+
+	public LongArrayList() {
+		this(16);
+	}
+
+	/**
+	 * @param capacity the number of values that can be added before growing the array
+	 */
+	public LongArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative");
+		}
+		this.values = new long[capacity];
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public long get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	public void set(int i, long value) {
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, Math.max(4, 2 * size));
+		}
+		values[size++] = value;
+	}
+
+	public long last() {
+		checkIndex(size - 1);
+		return values[size - 1];
+	}
+
+	/**
+	 * @return the last value, removed from the list
+	 */
+	public long removeLast() {
+		checkIndex(size - 1);
+		return values[--size];
+	}
+
+	/**
+	 * Keeps the capacity, so the list can be refilled without allocation.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(values[i]);
+		}
+	}
+
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " is out of bounds (0.." + (size - 1) + ")");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
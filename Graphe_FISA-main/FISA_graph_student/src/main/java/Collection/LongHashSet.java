@@ -0,0 +1,95 @@
+package Collection;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive long values using open addressing with linear probing.
+ * No boxing is involved, which makes it suitable to deduplicate packed
+ * (source, target) pairs while generating or loading large graphs.
+ * The value Long.MIN_VALUE is reserved to mark empty slots.
+ */
+public class LongHashSet {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private long[] keys;
+	private int size;
+	private int mask;
+
+	public LongHashSet() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of values the set should hold without resizing
+	 */
+	public LongHashSet(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) Math.min(1 << 30, expectedSize * 2L)) - 1) << 1;
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		this.size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return true if the value was not already in the set
+	 */
+	public boolean add(long key) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Long.MIN_VALUE cannot be stored in the set");
+		}
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		size++;
+		if (size * 2 > keys.length) {
+			rehash(keys.length << 1);
+		}
+		return true;
+	}
+
+	public boolean contains(long key) {
+		int i = Hashing.mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	private void rehash(int capacity) {
+		long[] old = this.keys;
+		this.keys = new long[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.mask = capacity - 1;
+		for (long k : old) {
+			if (k != EMPTY) {
+				int i = Hashing.mix(k) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = k;
+			}
+		}
+	}
+}
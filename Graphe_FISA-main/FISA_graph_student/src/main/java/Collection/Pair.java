@@ -1,5 +1,7 @@
 package Collection;
 
+import java.util.Objects;
+
 public class Pair<A, B> {
 
 	private final A left;
@@ -18,9 +20,13 @@ public class Pair<A, B> {
 		return right;
 	}
 
+	/**
+	 * The left hash is multiplied before adding the right one, so that (a,b) and (b,a), or (a,a)
+	 * and (b,b), no longer collide as with a XOR.
+	 */
 	@Override
 	public int hashCode() {
-		return left.hashCode() ^ right.hashCode();
+		return Hashing.mix(31 * Objects.hashCode(left) + Objects.hashCode(right));
 	}
 
 	@Override
@@ -29,7 +35,7 @@ public class Pair<A, B> {
 			return false;
 		}
 		Pair<?, ?> pairo = (Pair<?, ?>) o;
-		return this.left.equals(pairo.getLeft()) && this.right.equals(pairo.getRight());
+		return Objects.equals(this.left, pairo.getLeft()) && Objects.equals(this.right, pairo.getRight());
 	}
 
 }
\ No newline at end of file
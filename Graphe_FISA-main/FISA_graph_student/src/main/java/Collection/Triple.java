@@ -1,5 +1,7 @@
 package Collection;
 
+import java.util.Objects;
+
 public class Triple<A, B, C> {
 	private  A first;
 	private  B second;
@@ -41,9 +43,12 @@ public class Triple<A, B, C> {
 		this.third = t.getThird();
 	}
 
+	/**
+	 * Combined as a polynomial like Pair, so permuted components give different hashes.
+	 */
 	@Override
 	public int hashCode() {
-		return first.hashCode() ^ second.hashCode() ^ third.hashCode();
+		return Hashing.mix((31 * Objects.hashCode(first) + Objects.hashCode(second)) * 31 + Objects.hashCode(third));
 	}
 
 	@Override
@@ -52,9 +57,9 @@ public class Triple<A, B, C> {
 			return false;
 		}
 		Triple<?, ?, ?> triplo = (Triple<?, ?, ?>) o;
-		return this.first.equals(triplo.getFirst())
-			&& this.second.equals(triplo.getSecond())
-			&& this.third.equals(triplo.getThird());
+		return Objects.equals(this.first, triplo.getFirst())
+			&& Objects.equals(this.second, triplo.getSecond())
+			&& Objects.equals(this.third, triplo.getThird());
 	}
 
 	@Override
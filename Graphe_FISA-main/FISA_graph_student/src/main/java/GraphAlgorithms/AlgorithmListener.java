@@ -0,0 +1,53 @@
+package GraphAlgorithms;
+
+/**
+ * Receives the steps of the traversals, Dijkstra and Prim. Every method does nothing by
+ * default, so a listener only overrides the events it needs. The algorithms run with NONE
+ * unless told otherwise: the calls then go to empty methods that the JIT inlines away.
+ */
+public interface AlgorithmListener {
+
+	/**
+	 * Listener which ignores every event.
+	 */
+	AlgorithmListener NONE = new AlgorithmListener() {
+	};
+
+	/**
+	 * A search starts from root: a new tree of a traversal, a new strongly connected
+	 * component, or the source of Dijkstra and Prim.
+	 */
+	default void searchStarted(int root) {
+	}
+
+	/**
+	 * v is reached for good: discovered by a traversal, or removed from the heap by Dijkstra
+	 * and Prim.
+	 *
+	 * @param value the depth for BFS, the discovery time for DFS, the distance for Dijkstra,
+	 *              the weight of the tree edge reaching v for Prim (0 for the root)
+	 */
+	default void vertexSettled(int v, int value) {
+	}
+
+	/**
+	 * All the successors of v have been handled.
+	 */
+	default void vertexFinished(int v) {
+	}
+
+	/**
+	 * The arc (from,to) improves the value of to: its distance for Dijkstra, the candidate
+	 * edge reaching it for Prim.
+	 */
+	default void edgeRelaxed(int from, int to, int value) {
+	}
+
+	/**
+	 * The edge (from,to) joins the search tree.
+	 *
+	 * @param weight the weight of the edge for Prim, 0 for the traversals and Dijkstra
+	 */
+	default void edgeAddedToTree(int from, int to, int weight) {
+	}
+}
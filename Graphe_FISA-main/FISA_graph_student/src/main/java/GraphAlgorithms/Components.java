@@ -0,0 +1,72 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+/**
+ * Partition of the nodes of a graph into components, as found by the second pass of Kosaraju.
+ */
+public class Components {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int[] component;	// Index of the component of each node, -1 if not reached
+	private final int[] members;	// Nodes grouped by component, each in the order of exploration
+	private final int[] start;		// members[start[c]..start[c+1]) is the component c
+	private final int nbComponents;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	Components(int[] component, int[] members, int[] start, int nbComponents) {
+		this.component = component;
+		this.members = members;
+		this.start = start;
+		this.nbComponents = nbComponents;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int getNbComponents() {
+		return nbComponents;
+	}
+
+	/**
+	 * @return the index of the component of v, -1 if it was not reached
+	 */
+	public int getComponent(int v) {
+		return component[v];
+	}
+
+	public int[] getMembers(int c) {
+		return Arrays.copyOfRange(members, start[c], start[c + 1]);
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public boolean sameComponent(int u, int v) {
+		return component[u] >= 0 && component[u] == component[v];
+	}
+
+	/**
+	 * @return the components as "{ 4 7 1 } { 5 6 0 } "
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int c = 0; c < nbComponents; c++) {
+			s.append("{ ");
+			for (int i = start[c]; i < start[c + 1]; i++) {
+				s.append(members[i]).append(' ');
+			}
+			s.append("} ");
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,56 @@
+package GraphAlgorithms;
+
+import java.io.PrintStream;
+
+/**
+ * Prints every step of an algorithm, one line per event.
+ */
+public class ConsoleListener implements AlgorithmListener {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final PrintStream out;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public ConsoleListener() {
+		this(System.out);
+	}
+
+	public ConsoleListener(PrintStream out) {
+		this.out = out;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void searchStarted(int root) {
+		out.println("Nouveau départ depuis le sommet " + root + " :");
+	}
+
+	@Override
+	public void vertexSettled(int v, int value) {
+		out.println("Traitement du sommet " + v + " (valeur: " + value + ")");
+	}
+
+	@Override
+	public void vertexFinished(int v) {
+		out.println("Sommet " + v + " complètement exploré");
+	}
+
+	@Override
+	public void edgeRelaxed(int from, int to, int value) {
+		out.println("  Mise à jour: sommet " + to + " nouvelle valeur = " + value + ", prédécesseur = " + from);
+	}
+
+	@Override
+	public void edgeAddedToTree(int from, int to, int weight) {
+		out.println("  Arête ajoutée à l'arbre: " + from + " -> " + to + " (poids: " + weight + ")");
+	}
+}
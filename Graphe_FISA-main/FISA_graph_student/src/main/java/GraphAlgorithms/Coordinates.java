@@ -0,0 +1,82 @@
+package GraphAlgorithms;
+
+import java.util.Arrays;
+
+import Properties.DoubleProperty;
+
+/**
+ * Planar coordinates of the vertices of a geometric graph, stored in two double arrays.
+ * When the weight of every arc (u,v) is at least scale times the euclidean distance
+ * between u and v, heuristic(u, t) never overestimates the distance from u to t and can
+ * be used as an admissible A* heuristic.
+ */
+public class Coordinates {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final double[] x;
+	private final double[] y;
+	private final double scale; // Lower bound of weight / distance over all the arcs
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public Coordinates(double[] x, double[] y, double scale) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("Both coordinate arrays must have the same length");
+		}
+		this.x = x;
+		this.y = y;
+		this.scale = scale;
+	}
+
+	/**
+	 * Reads the x and y columns of a property table over the nodes.
+	 */
+	public Coordinates(DoubleProperty x, DoubleProperty y, double scale) {
+		this(Arrays.copyOf(x.getArray(), x.size()), Arrays.copyOf(y.getArray(), y.size()), scale);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int getNbNodes() {
+		return x.length;
+	}
+
+	public double getX(int u) {
+		return x[u];
+	}
+
+	public double getY(int u) {
+		return y[u];
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+	// ------------------------------------------
+	// 				Methods
+	// ------------------------------------------
+
+	/**
+	 * @return the euclidean distance between u and v
+	 */
+	public double distance(int u, int v) {
+		double dx = x[u] - x[v];
+		double dy = y[u] - y[v];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * @return a lower bound of the weight of any path from u to target
+	 */
+	public int heuristic(int u, int target) {
+		return (int) Math.floor(scale * distance(u, target));
+	}
+}
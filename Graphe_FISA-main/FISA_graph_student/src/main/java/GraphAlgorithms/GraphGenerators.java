@@ -0,0 +1,288 @@
+package GraphAlgorithms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.EdgeSink;
+import GraphIO.BinaryEdgeSink;
+
+/**
+ * Random generators closer to real data than the uniform ones of GraphTools: R-MAT and
+ * Kronecker graphs and preferential attachment for power-law degrees, grids and random
+ * geometric graphs for road-like regions. Every generator streams its arcs to an
+ * EdgeSink and keeps at most O(n) values in memory, so with a file sink the generated
+ * graph may be larger than the heap.
+ */
+public class GraphGenerators {
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public GraphGenerators() {
+
+	}
+
+	// ------------------------------------------
+	// 				Power-law generators
+	// ------------------------------------------
+
+	/**
+	 * R-MAT generator: each arc falls recursively in one of the four quadrants of the
+	 * adjacency matrix with probabilities a, b, c and 1-a-b-c. Loops and multiple arcs
+	 * are kept, as in the reference generator.
+	 *
+	 * @param scale the graph has 2^scale vertices
+	 * @param m the number of arcs
+	 * @param maxWeight the weights are drawn in [1,maxWeight], or are all 0 if maxWeight is 0
+	 * @param seed the unique seed giving a unique random graph
+	 * @param sink the destination of the arcs
+	 */
+	public static void generateRMat(int scale, long m, double a, double b, double c, int maxWeight, long seed, EdgeSink sink) {
+		if (scale < 0 || scale > 30) {
+			throw new IllegalArgumentException("Scale must be in [0,30]");
+		}
+		if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+			throw new IllegalArgumentException("Quadrant probabilities must be positive and sum at most to 1");
+		}
+		SplittableRandom rand = new SplittableRandom(seed);
+		for (long e = 0; e < m; e++) {
+			int u = 0;
+			int v = 0;
+			for (int bit = scale - 1; bit >= 0; bit--) {
+				double p = rand.nextDouble();
+				if (p >= a) {
+					if (p < a + b) {
+						v |= 1 << bit;
+					} else if (p < a + b + c) {
+						u |= 1 << bit;
+					} else {
+						u |= 1 << bit;
+						v |= 1 << bit;
+					}
+				}
+			}
+			sink.accept(u, v, maxWeight > 0 ? 1 + rand.nextInt(maxWeight) : 0);
+		}
+	}
+
+	/**
+	 * Kronecker generator with the Graph500 parameters (0.57, 0.19, 0.19): an R-MAT graph
+	 * of edgeFactor * 2^scale arcs whose labels are shuffled, so that high degree vertices
+	 * are not all packed at the beginning of the label range.
+	 */
+	public static void generateKronecker(int scale, int edgeFactor, int maxWeight, long seed, EdgeSink sink) {
+		int n = 1 << scale;
+		SplittableRandom rand = new SplittableRandom(seed ^ 0x5deece66dL);
+		int[] perm = new int[n];
+		for (int i = 0; i < n; i++) {
+			perm[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int tmp = perm[i];
+			perm[i] = perm[j];
+			perm[j] = tmp;
+		}
+		generateRMat(scale, (long) edgeFactor * n, 0.57, 0.19, 0.19, maxWeight, seed,
+				(from, to, weight) -> sink.accept(perm[from], perm[to], weight));
+	}
+
+	/**
+	 * Barabási–Albert preferential attachment: vertex u adds k arcs towards vertices
+	 * chosen with a probability proportional to their degree. Following Sanders and Schulz,
+	 * the endpoint of the i-th arc is the value of a random earlier slot of the virtual
+	 * array of all endpoints, and that value is recomputed from the seed instead of being
+	 * stored: the generator needs no memory and arc i only depends on (seed, i).
+	 * Loops and multiple arcs may occur. The first vertex links to itself.
+	 *
+	 * @param n the number of vertices
+	 * @param k the number of arcs added by each vertex
+	 * @param seed the unique seed giving a unique random graph
+	 * @param sink the destination of the n*k arcs (u, older vertex)
+	 */
+	public static void generateBarabasiAlbert(int n, int k, long seed, EdgeSink sink) {
+		if (n <= 0 || k <= 0) {
+			throw new IllegalArgumentException("Number of vertices and arcs per vertex must be positive");
+		}
+		long m = (long) n * k;
+		for (long e = 0; e < m; e++) {
+			sink.accept((int) (e / k), (int) targetOfArc(e, k, seed), 0);
+		}
+	}
+
+	/**
+	 * @return the target of arc e: slot 2e+1 of the endpoint array copies a uniform slot
+	 * in [0,2e], even slots hold sources (slot 2f is the source of arc f).
+	 */
+	private static long targetOfArc(long e, int k, long seed) {
+		long slot = 2 * e + 1;
+		while ((slot & 1) == 1) {
+			long f = slot >>> 1;
+			slot = Long.remainderUnsigned(mix64(seed + f * 0x9e3779b97f4a7c15L), 2 * f + 1);
+		}
+		return (slot >>> 1) / k;
+	}
+
+	// ------------------------------------------
+	// 				Geometric generators
+	// ------------------------------------------
+
+	/**
+	 * Grid of rows x cols vertices, vertex (r,c) having label r*cols+c and coordinates (c,r).
+	 * Each vertex is linked in both directions to its right and bottom neighbours (and to its
+	 * diagonal neighbours if diagonals is true). Weights are drawn at least equal to the
+	 * euclidean length of the arc, so the returned coordinates give an admissible heuristic.
+	 *
+	 * @param maxWeight the weights of the unit arcs are drawn in [1,maxWeight]
+	 * @return the coordinates of the vertices
+	 */
+	public static Coordinates generateGrid(int rows, int cols, boolean diagonals, int maxWeight, long seed, EdgeSink sink) {
+		if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid grid size " + rows + " x " + cols);
+		}
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("Maximal weight must be at least 1");
+		}
+		SplittableRandom rand = new SplittableRandom(seed);
+		int n = rows * cols;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < cols; c++) {
+				int u = r * cols + c;
+				x[u] = c;
+				y[u] = r;
+				if (c + 1 < cols) {
+					emitEdge(sink, u, u + 1, 1 + rand.nextInt(maxWeight));
+				}
+				if (r + 1 < rows) {
+					emitEdge(sink, u, u + cols, 1 + rand.nextInt(maxWeight));
+				}
+				if (diagonals && r + 1 < rows) {
+					// Diagonal length is sqrt(2) < 2.
+					if (c + 1 < cols) {
+						emitEdge(sink, u, u + cols + 1, 2 + rand.nextInt(maxWeight));
+					}
+					if (c > 0) {
+						emitEdge(sink, u, u + cols - 1, 2 + rand.nextInt(maxWeight));
+					}
+				}
+			}
+		}
+		return new Coordinates(x, y, 1.0);
+	}
+
+	/**
+	 * Random geometric graph: n points uniform in the unit square, linked in both directions
+	 * when their distance is at most radius. Points are bucketed in a grid of cells of side
+	 * at least radius, so only neighbouring cells are compared and the cost is O(n+m).
+	 * The weight of an arc is ceil(scale * length), at least 1.
+	 *
+	 * @param scale the factor converting lengths into integer weights
+	 * @return the coordinates of the vertices, whose heuristic is admissible for these weights
+	 */
+	public static Coordinates generateRandomGeometric(int n, double radius, double scale, long seed, EdgeSink sink) {
+		if (n <= 0 || radius <= 0 || scale <= 0) {
+			throw new IllegalArgumentException("Number of vertices, radius and scale must be positive");
+		}
+		SplittableRandom rand = new SplittableRandom(seed);
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int u = 0; u < n; u++) {
+			x[u] = rand.nextDouble();
+			y[u] = rand.nextDouble();
+		}
+		int side = (int) Math.max(1, Math.min(Math.floor(1 / radius), Math.sqrt(n) + 1));
+		int[] cellStart = new int[side * side + 1];
+		int[] cellOf = new int[n];
+		for (int u = 0; u < n; u++) {
+			int cx = Math.min(side - 1, (int) (x[u] * side));
+			int cy = Math.min(side - 1, (int) (y[u] * side));
+			cellOf[u] = cy * side + cx;
+			cellStart[cellOf[u] + 1]++;
+		}
+		for (int i = 0; i < side * side; i++) {
+			cellStart[i + 1] += cellStart[i];
+		}
+		int[] next = new int[side * side];
+		System.arraycopy(cellStart, 0, next, 0, side * side);
+		int[] byCell = new int[n];
+		for (int u = 0; u < n; u++) {
+			byCell[next[cellOf[u]]++] = u;
+		}
+		Coordinates coords = new Coordinates(x, y, scale);
+		double radius2 = radius * radius;
+		for (int u = 0; u < n; u++) {
+			int cx = cellOf[u] % side;
+			int cy = cellOf[u] / side;
+			for (int dy = -1; dy <= 1; dy++) {
+				for (int dx = -1; dx <= 1; dx++) {
+					int nx = cx + dx;
+					int ny = cy + dy;
+					if (nx < 0 || ny < 0 || nx >= side || ny >= side) {
+						continue;
+					}
+					int cell = ny * side + nx;
+					for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+						int v = byCell[i];
+						if (v > u) {
+							double ddx = x[u] - x[v];
+							double ddy = y[u] - y[v];
+							if (ddx * ddx + ddy * ddy <= radius2) {
+								emitEdge(sink, u, v, (int) Math.max(1, Math.ceil(scale * coords.distance(u, v))));
+							}
+						}
+					}
+				}
+			}
+		}
+		return coords;
+	}
+
+	private static void emitEdge(EdgeSink sink, int u, int v, int weight) {
+		sink.accept(u, v, weight);
+		sink.accept(v, u, weight);
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public static void main(String[] args) throws IOException {
+		EdgeList rmat = new EdgeList(1 << 10);
+		generateKronecker(10, 16, 0, 100001L, rmat);
+		int maxDegree = 0;
+		int[] degree = new int[rmat.getNbNodes()];
+		for (int i = 0; i < rmat.size(); i++) {
+			maxDegree = Math.max(maxDegree, ++degree[rmat.getSource(i)]);
+		}
+		System.out.println("Kronecker graph: " + rmat.size() + " arcs, max out-degree " + maxDegree + " (average 16)");
+
+		EdgeList ba = new EdgeList(1000);
+		generateBarabasiAlbert(1000, 3, 100002L, ba);
+		int[] inDegree = new int[ba.getNbNodes()];
+		int maxIn = 0;
+		for (int i = 0; i < ba.size(); i++) {
+			maxIn = Math.max(maxIn, ++inDegree[ba.getTarget(i)]);
+		}
+		System.out.println("Barabási–Albert graph: " + ba.size() + " arcs, max in-degree " + maxIn + " (average 3)");
+
+		EdgeList grid = new EdgeList(12);
+		Coordinates gc = generateGrid(3, 4, false, 9, 100003L, grid);
+		System.out.println("Grid 3x4: " + grid.size() + " arcs (Should be 34) " + (grid.size() == 34 ? "✅" : "❌"));
+		System.out.println("Heuristic from 0 to 11 = " + gc.heuristic(0, 11));
+
+		Path file = Files.createTempFile("geometric", ".bin");
+		try (BinaryEdgeSink sink = new BinaryEdgeSink(file)) {
+			generateRandomGeometric(100000, 0.005, 1000, 100004L, sink);
+			System.out.println("Geometric graph streamed to " + file + ": " + sink.getNbArcs() + " arcs");
+		}
+		Files.delete(file);
+	}
+}
@@ -2,6 +2,13 @@ package GraphAlgorithms;
 
 import java.util.*;
 
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import Collection.FixedBitSet;
+import Collection.Hashing;
+import Collection.IntArrayList;
+import Collection.LongHashSet;
+
 public class GraphTools {
 
 	private static int _DEBBUG =0;
@@ -30,12 +37,15 @@ public class GraphTools {
 		if(_DEBBUG>0){System.out.println("m = "+m);}
 		int[][] matrix = new int[n][n];
 		if(c){
-			List<Integer> vis = new ArrayList<>();
+			// Visited nodes in order of visit, and one bit per node instead of List.contains in O(n).
+			IntArrayList vis = new IntArrayList(n);
+			FixedBitSet inVis = new FixedBitSet(n);
 			int from = rand.nextInt(n);
 			vis.add(from);
+			inVis.set(from);
 			from = rand.nextInt(n);
 			while(vis.size()<n ){
-				if(!vis.contains(from)){
+				if(!inVis.getAndSet(from)){
 					int indDest = rand.nextInt(vis.size());
 					int dest = vis.get(indDest);				
 					if(s) {
@@ -100,12 +110,15 @@ public class GraphTools {
 		int[][] matrix = new int[n][n];
 		Random rand = new Random(seed);
 		if(c){
-			List<Integer> vis = new ArrayList<>();
+			// Visited nodes in order of visit, and one bit per node instead of List.contains in O(n).
+			IntArrayList vis = new IntArrayList(n);
+			FixedBitSet inVis = new FixedBitSet(n);
 			int from = rand.nextInt(n);
 			vis.add(from);
+			inVis.set(from);
 			from = rand.nextInt(n);
-			while(vis.size() < n){
-				if(!vis.contains(from)){
+			while(vis.size()<n ){
+				if(!inVis.getAndSet(from)){
 					int indDest = rand.nextInt(vis.size());
 					int dest = vis.get(indDest);				
 					if(s) {
@@ -190,6 +203,163 @@ public class GraphTools {
 		return matValued;
 	}
 
+	/**
+	 * Same parameters as generateGraphData(n, multi, s, c, seed), but the arcs are emitted
+	 * straight into an edge list in O(n+m) time and memory, no n x n matrix is allocated.
+	 * For a symmetric graph both directions of each edge are listed. For a multi-graph the
+	 * weight of an arc is its multiplicity, otherwise it is 0.
+	 *
+	 * @param n the number of vertices
+	 * @param multi at true if we want a multi-graph
+	 * @param s at true if the graph is symmetric
+	 * @param c at true if the graph is connected
+	 * @param seed the unique seed giving a unique random graph
+	 * @return the generated list of arcs
+	 */
+	public static EdgeList generateEdgeList(int n, boolean multi, boolean s, boolean c, int seed){
+		Random rand = new Random(seed);
+		long m = (long) (rand.nextInt(n)+1)*(n-1)/2;
+		EdgeList pairs = generatePairs(rand, n, m, multi, s, c);
+		return s ? symmetrize(pairs) : pairs;
+	}
+
+	/**
+	 * Same parameters as generateGraphData(n, m, multi, s, c, seed), but the arcs are emitted
+	 * straight into an edge list in O(n+m) time and memory, no n x n matrix is allocated.
+	 * For a symmetric graph both directions of each edge are listed. For a multi-graph the
+	 * weight of an arc is its multiplicity, otherwise it is 0.
+	 *
+	 * @param n the number of vertices
+	 * @param m the number of edges
+	 * @param multi at true if we want a multi-graph
+	 * @param s at true if the graph is symmetric
+	 * @param c at true if the graph is connected
+	 * @param seed the unique seed giving a unique random graph
+	 * @return the generated list of arcs
+	 */
+	public static EdgeList generateEdgeList(int n, int m, boolean multi, boolean s, boolean c, int seed){
+		EdgeList pairs = generatePairs(new Random(seed), n, m, multi, s, c);
+		return s ? symmetrize(pairs) : pairs;
+	}
+
+	/**
+	 * Same parameters as generateValuedGraphData, but the arcs are emitted straight into an
+	 * edge list in O(n+m) time and memory. Both directions of a symmetric edge share the same weight.
+	 *
+	 * @param n the number of vertices
+	 * @param multi at true if we want a multi-graph
+	 * @param s at true if the graph is symmetric
+	 * @param c at true if the graph is connected
+	 * @param neg at true if the graph has negative weights
+	 * @param seed the unique seed giving a unique random graph
+	 * @return the generated list of valued arcs
+	 */
+	public static EdgeList generateValuedEdgeList(int n, boolean multi, boolean s, boolean c, boolean neg, int seed){
+		Random rand = new Random(seed);
+		long m = (long) (rand.nextInt(n)+1)*(n-1)/2;
+		EdgeList pairs = generatePairs(rand, n, m, multi, s, c);
+		Random randVal = new Random(seed);
+		int valNeg = neg ? -6 : 0;
+		for(int k = 0; k<pairs.size(); k++){
+			pairs.setWeight(k, randVal.nextInt(15) + 1 + valNeg);
+		}
+		return s ? symmetrize(pairs) : pairs;
+	}
+
+	/**
+	 * @return the CSR form of generateEdgeList(n, m, multi, s, c, seed), built in O(n+m)
+	 */
+	public static CSRGraph generateCSRGraph(int n, int m, boolean multi, boolean s, boolean c, int seed){
+		return CSRGraph.fromEdgeList(generateEdgeList(n, m, multi, s, c, seed));
+	}
+
+	/**
+	 * Draws the pairs (i,j) of the graph, one entry per edge when s is true.
+	 * Connectivity comes from a spanning tree over a random permutation of the vertices:
+	 * the k-th vertex of the permutation is linked to one of the k first ones, so the tree
+	 * costs exactly n-1 draws. The remaining pairs are drawn uniformly and deduplicated
+	 * with a hash set of packed pairs instead of a matrix.
+	 */
+	private static EdgeList generatePairs(Random rand, int n, long m, boolean multi, boolean s, boolean c){
+		if(n <= 0){
+			throw new IllegalArgumentException("The number of vertices must be positive");
+		}
+		long nbPairs = s ? (long) n*(n-1)/2 : (long) n*(n-1);
+		// Loops count once, other pairs up to 3 times, but a pair of the spanning tree only once
+		long max = multi ? 3*nbPairs + n - (c ? 2L*(n-1) : 0) : nbPairs;
+		if(m > max){
+			throw new IllegalArgumentException("Cannot draw " + m + " edges on " + n + " vertices (at most " + max + ")");
+		}
+		if(m > Integer.MAX_VALUE - 8){
+			throw new IllegalArgumentException("Cannot hold " + m + " edges in an edge list");
+		}
+		EdgeList pairs = new EdgeList(n, (int) Math.max(m, c ? n-1 : 0));
+		LongHashSet seen = new LongHashSet((int) Math.max(m, c ? n-1 : 0));
+		long fresh = multi ? 3*nbPairs + n : nbPairs; // Units of the pairs not drawn yet
+		if(c){
+			int[] perm = new int[n];
+			for(int i = 0; i<n; i++){
+				perm[i] = i;
+			}
+			for(int i = n-1; i>0; i--){
+				int j = rand.nextInt(i+1);
+				int tmp = perm[i];
+				perm[i] = perm[j];
+				perm[j] = tmp;
+			}
+			for(int k = 1; k<n; k++){
+				int from = perm[k];
+				int dest = perm[rand.nextInt(k)];
+				seen.add(pairKey(from, dest, s));
+				pairs.add(from, dest, multi ? 1 : 0);
+			}
+			m -= n-1;
+			fresh -= (multi ? 3L : 1L)*(n-1);
+		}
+
+		while(m>0){
+			int i = rand.nextInt(n);
+			int j = rand.nextInt(n);
+			if(!multi){
+				if(i!=j && seen.add(pairKey(i, j, s))){
+					pairs.add(i, j, 0);
+					m--;
+				}
+			}
+			else{
+				if(seen.add(pairKey(i, j, s))){
+					int val = ( i!=j ? ( m<3 ? (int) m : rand.nextInt(3) +1) : 1);
+					// Takes more than drawn when the pairs left could not hold the rest
+					fresh -= i!=j ? 3 : 1;
+					val = (int) Math.min(m, Math.max(val, m - fresh));
+					pairs.add(i, j, val);
+					m -= val;
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static long pairKey(int i, int j, boolean s){
+		return s ? Hashing.pack(Math.min(i, j), Math.max(i, j)) : Hashing.pack(i, j);
+	}
+
+	/**
+	 * @return a new edge list holding each arc (i,j) of pairs and its inverse (j,i), loops only once
+	 */
+	private static EdgeList symmetrize(EdgeList pairs){
+		EdgeList edges = new EdgeList(pairs.getNbNodes(), 2*pairs.size());
+		for(int k = 0; k<pairs.size(); k++){
+			int i = pairs.getSource(k);
+			int j = pairs.getTarget(k);
+			edges.add(i, j, pairs.getWeight(k));
+			if(i != j){
+				edges.add(j, i, pairs.getWeight(k));
+			}
+		}
+		return edges;
+	}
+
 	/**
 	 * @param m a matrix
 	 */
@@ -232,6 +402,21 @@ public class GraphTools {
 		int[][] matVal = generateValuedGraphData(10, false, false, true, true, 100007);
 		afficherMatrix(matVal);
 
+		EdgeList edges = generateEdgeList(100000, 500000, false, true, true, 100008);
+		System.out.println("Generated " + edges.size() + " arcs on " + edges.getNbNodes() + " vertices without matrix");
+		afficherMatrix(generateEdgeList(10, 20, false, true, true, 100003).toAdjacencyMatrix());
+
+		boolean full = true;
+		for (boolean c : new boolean[] {false, true}) {
+			int max = 3 * 4 * 3 + 4 - (c ? 2 * 3 : 0);
+			EdgeList multi = generateEdgeList(4, max, true, false, c, 1);
+			int units = 0;
+			for (int i = 0; i < multi.size(); i++) {
+				units += multi.getWeight(i);
+			}
+			full &= units == max;
+		}
+		System.out.println("Multi-graph drawn up to its capacity? " + full + " (Should be TRUE) " + (full ? "✅" : "❌"));
 	}
 
 }
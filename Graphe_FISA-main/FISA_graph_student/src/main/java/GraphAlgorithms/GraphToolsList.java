@@ -1,20 +1,27 @@
 package GraphAlgorithms;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 
+import Abstraction.IGraph;
+import Abstraction.TransposedGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyCompressed.CompressedGraph;
 import AdjacencyList.AdjacencyListDirectedGraph;
-import Nodes_Edges.Arc;
-import Nodes_Edges.DirectedNode;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyList.AdjacencyListUndirectedValuedGraph;
+import AdjacencyPersistent.PersistentDirectedGraph;
+import Collection.FixedBitSet;
+import Collection.LongArrayList;
 
 public class GraphToolsList extends GraphTools {
 
 	private static int _DEBBUG = 0;
 
-	private static int[] visite;
-	private static int[] debut;
-	private static int[] fin;
+	private static Traversal dernierDFS;	// Result of the last explorerGraphe
 	private static List<Integer> order_CC;
-	private static int cpt = 0;
 
 	//--------------------------------------------------
 	// 				Constructors
@@ -34,115 +41,354 @@ public class GraphToolsList extends GraphTools {
 	// ------------------------------------------
 
 
-	public static void parcoursBFSLargeur(AdjacencyListDirectedGraph graph, int s) {
-		boolean[] mark = new boolean[graph.getNbNodes()];
-		for (int v = 0; v < graph.getNbNodes(); v++) {
-			mark[v] = false;
-		}
-		mark[s] = true;
-		Queue<DirectedNode> toVisit = new LinkedList<>();
-		toVisit.add(graph.getNodes().get(s));
-		while (!toVisit.isEmpty()) {
-			DirectedNode v = toVisit.poll();
-			System.out.print(v.getLabel() + " ");
-			for (Arc outGoingArc : v.getArcSucc()) {
-				int w = outGoingArc.getSecondNode().getLabel();
-				if (!mark[w]) {
-					mark[w] = true;
-					toVisit.add(outGoingArc.getSecondNode());
-				}
+	/**
+	 * BFS from s on any IGraph (lists, matrix, CSR, compressed...), with int arrays instead of nodes.
+	 * Each node gets its depth as value and the arcs of discovery form the tree.
+	 */
+	public static Traversal parcoursBFSLargeur(IGraph graph, int s) {
+		return parcoursBFSLargeur(graph, s, AlgorithmListener.NONE);
+	}
+
+	public static Traversal parcoursBFSLargeur(IGraph graph, int s, AlgorithmListener listener) {
+		int n = graph.getNbNodes();
+		int[] toVisit = new int[n];
+		int[] parent = new int[n];
+		int[] depth = new int[n];
+		int[] debut = new int[n];
+		int[] fin = new int[n];
+		int[] counters = {0, 0};	// Next free slot of toVisit, last date given
+		Arrays.fill(parent, -1);
+		int[] current = {s};
+		IntConsumer discover = w -> {
+			if (debut[w] == 0) {
+				int v = current[0];
+				debut[w] = ++counters[1];
+				parent[w] = v;
+				depth[w] = depth[v] + 1;
+				toVisit[counters[0]++] = w;
+				listener.edgeAddedToTree(v, w, 0);
 			}
+		};
+		listener.searchStarted(s);
+		debut[s] = ++counters[1];
+		toVisit[counters[0]++] = s;
+		for (int head = 0; head < counters[0]; head++) {
+			int v = toVisit[head];
+			listener.vertexSettled(v, depth[v]);
+			current[0] = v;
+			graph.forEachSuccessor(v, discover);
+			fin[v] = ++counters[1];
+			listener.vertexFinished(v);
 		}
+		return new Traversal(toVisit, counters[0], parent, debut, fin);
 	}
 
-	//static List<DirectedNode> fin = new ArrayList<>();
+	/**
+	 * Dijkstra on any IGraph, through forEachArc and a binary heap of primitive longs:
+	 * each entry packs a distance and a node, outdated entries are skipped when removed.
+	 * Runs in O((n+m) log m). The weights of an unvalued graph are 0, so every reachable
+	 * node is then at distance 0.
+	 */
+	public static ShortestPaths dijkstra(IGraph graph, int s) {
+		return dijkstra(graph, s, AlgorithmListener.NONE);
+	}
 
-	//Question 7: complexité en O(n + m) avec n sommets et m arcs, car chaque sommet et arc est visité une seule fois.
-//Question 9: Si debut[x] < debut[y], alors :
-// 				Soit y est un descendant de x car compris entre son temps de début et de fin, soitd ebut[x] < debut[y] < fin[y] < fin[x]
-//				Soit y n’est pas un descendant de x car fini après lui (fin[x] < fin[y])
-	public static void explorerSommet(DirectedNode s, Set<DirectedNode> a) {
-		a.add(s);
-		debut[s.getLabel()] = ++cpt;
-		visite[s.getLabel()] = 1;  // 1 = en cours
-		System.out.print(s.getLabel() + " ");
-		for (Arc t : s.getArcSucc()) {
-			DirectedNode voisin = t.getSecondNode();
-			if (!a.contains(voisin)) {
-				explorerSommet(voisin, a);
+	public static ShortestPaths dijkstra(IGraph graph, int s, AlgorithmListener listener) {
+		int n = graph.getNbNodes();
+		int[] dist = new int[n];
+		int[] pred = new int[n];
+		Arrays.fill(dist, ShortestPaths.INFINITY);
+		Arrays.fill(pred, -1);
+		FixedBitSet done = new FixedBitSet(n);
+		LongArrayList heap = new LongArrayList(16);
+		dist[s] = 0;
+		pred[s] = s;
+		listener.searchStarted(s);
+		heapPush(heap, 0, s);
+		while (!heap.isEmpty()) {
+			long top = heapPop(heap);
+			int x = (int) top;
+			if (done.getAndSet(x)) {
+				continue;
 			}
+			listener.vertexSettled(x, dist[x]);
+			if (x != s) {
+				listener.edgeAddedToTree(pred[x], x, 0);
+			}
+			long dx = top >>> 32;
+			graph.forEachArc(x, (y, w) -> {
+				if (w < 0) {
+					throw new IllegalArgumentException("Negative weight on arc (" + x + "," + y + ")");
+				}
+				long d = dx + w;
+				if (!done.get(y) && d < dist[y]) {
+					dist[y] = (int) Math.min(d, ShortestPaths.INFINITY - 1);
+					pred[y] = x;
+					listener.edgeRelaxed(x, y, dist[y]);
+					heapPush(heap, dist[y], y);
+				}
+			});
+			listener.vertexFinished(x);
 		}
-		visite[s.getLabel()] = 2; // 2 = terminé
-		fin[s.getLabel()] = ++cpt;
+		return new ShortestPaths(s, dist, pred);
 	}
 
+	/**
+	 * Prim on any IGraph whose arcs go both ways, with the heap of Dijkstra: each entry packs
+	 * the weight of the edge reaching a node and the node. Runs in O((n+m) log m). Negative
+	 * weights are allowed.
+	 *
+	 * @return the weight of a minimum spanning tree of the component of s
+	 */
+	public static long primWeight(IGraph graph, int s) {
+		int n = graph.getNbNodes();
+		long[] best = new long[n];
+		Arrays.fill(best, Long.MAX_VALUE);
+		FixedBitSet inTree = new FixedBitSet(n);
+		LongArrayList heap = new LongArrayList(16);
+		long total = 0;
+		best[s] = 0;
+		heapPush(heap, 0, s);
+		while (!heap.isEmpty()) {
+			long top = heapPop(heap);
+			int x = (int) top;
+			if (inTree.getAndSet(x)) {
+				continue;
+			}
+			total += top >> 32;
+			graph.forEachArc(x, (y, w) -> {
+				if (!inTree.get(y) && w < best[y]) {
+					best[y] = w;
+					heapPush(heap, w, y);
+				}
+			});
+		}
+		return total;
+	}
 
-	public static void explorerGraphe(AdjacencyListDirectedGraph al) {
-		Set<DirectedNode> atteint = new HashSet<>();
-		int nbNodes = al.getNbNodes();
-		visite = new int[nbNodes];
-		cpt = 0;
-		debut = new int[nbNodes];
-		fin = new int[nbNodes];
-		for (int i = 0; i < nbNodes; i++) {
-			visite[i] = 0; //0 = non visité
-			debut[i] = 0;
-			fin[i] = 0;
+	/**
+	 * Adds the entry (dist, node) to the binary heap held in a growing LongArrayList. A negative
+	 * dist keeps its order, dist * 2^32 + node, and is read back with top >> 32.
+	 */
+	private static void heapPush(LongArrayList heap, long dist, int node) {
+		long entry = dist << 32 | node;
+		heap.add(entry);
+		int i = heap.size() - 1;
+		while (i > 0 && heap.get((i - 1) / 2) > entry) {
+			heap.set(i, heap.get((i - 1) / 2));
+			i = (i - 1) / 2;
 		}
-		for (DirectedNode node : al.getNodes()) {
-			if (!atteint.contains(node)) {
-				System.out.println("Nouveau départ depuis le sommet " + node.getLabel() + " :");
-				explorerSommet(node, atteint);
-				System.out.println();
+		heap.set(i, entry);
+	}
+
+	/**
+	 * Removes the smallest entry.
+	 *
+	 * @return the removed entry
+	 */
+	private static long heapPop(LongArrayList heap) {
+		long top = heap.get(0);
+		long last = heap.removeLast();
+		int size = heap.size();
+		if (size == 0) {
+			return top;
+		}
+		int i = 0;
+		while (2 * i + 1 < size) {
+			int c = 2 * i + 1;
+			if (c + 1 < size && heap.get(c + 1) < heap.get(c)) {
+				c++;
+			}
+			if (heap.get(c) >= last) {
+				break;
 			}
+			heap.set(i, heap.get(c));
+			i = c;
 		}
+		heap.set(i, last);
+		return top;
+	}
 
-		// Affichage des temps de fin
-		System.out.println("\nTemps de fin des sommets :");
-		for (int i = 0; i < al.getNbNodes(); i++) {
-			System.out.println("Sommet " + i + " : " + fin[i]);
-		}
+	//static List<DirectedNode> fin = new ArrayList<>();
 
+	//Question 7: complexité en O(n + m) avec n sommets et m arcs, car chaque sommet et arc est visité une seule fois.
+	//Question 9: Si debut[x] < debut[y], alors :
+	// 				Soit y est un descendant de x car compris entre son temps de début et de fin, soit debut[x] < debut[y] < fin[y] < fin[x]
+	//				Soit y n’est pas un descendant de x car fini après lui (fin[x] < fin[y])
+
+	/**
+	 * DFS of the whole graph, from each node not reached yet in increasing order. The exploration
+	 * uses an explicit stack instead of the recursion, so that large graphs do not overflow the
+	 * call stack. Each node gets its discovery time as value.
+	 */
+	public static Traversal explorerGraphe(IGraph g) {
+		return explorerGraphe(g, AlgorithmListener.NONE);
 	}
 
+	public static Traversal explorerGraphe(IGraph g, AlgorithmListener listener) {
+		int nbNodes = g.getNbNodes();
+		DfsStack stack = new DfsStack(g);
+		int[] order = new int[nbNodes];
+		int[] parent = new int[nbNodes];
+		int[] debut = new int[nbNodes];
+		int[] fin = new int[nbNodes];
+		Arrays.fill(parent, -1);
+		int nbReached = 0;
+		int cpt = 0;
+		for (int s = 0; s < nbNodes; s++) {
+			if (debut[s] != 0) {
+				continue;
+			}
+			listener.searchStarted(s);
+			debut[s] = ++cpt;
+			order[nbReached++] = s;
+			listener.vertexSettled(s, debut[s]);
+			stack.push(s);
+			while (!stack.isEmpty()) {
+				int w = stack.nextSuccessor();
+				if (w >= 0) {
+					if (debut[w] == 0) {
+						int v = stack.top();
+						debut[w] = ++cpt;
+						parent[w] = v;
+						order[nbReached++] = w;
+						listener.edgeAddedToTree(v, w, 0);
+						listener.vertexSettled(w, debut[w]);
+						stack.push(w);
+					}
+				} else {
+					int u = stack.pop();
+					fin[u] = ++cpt;
+					listener.vertexFinished(u);
+				}
+			}
+		}
+		dernierDFS = new Traversal(order, nbReached, parent, debut, fin);
+		return dernierDFS;
+	}
+
+	/**
+	 * @return isDescendant(x, y) of the last explorerGraphe
+	 */
 	public static boolean isDescendant(int x, int y) {
-		return debut[x] < debut[y] && fin[y] < fin[x];
+		return dernierDFS.isDescendant(x, y);
 	}
 
+	/**
+	 * @return getOrdreFinDecroissant() of the last explorerGraphe
+	 */
 	public static List<Integer> getOrdreFinDecroissant() {
-		List<Integer> ordre = new ArrayList<>();
-		for (int i = 0; i < fin.length; i++) {
-			ordre.add(i);
-		}
-		ordre.sort((a, b) -> Integer.compare(fin[b], fin[a]));
-		return ordre;
+		return dernierDFS.getOrdreFinDecroissant();
 	}
 
-	public static void explorerSommetBis(DirectedNode s, Set<DirectedNode> a) {
-		a.add(s);
+	/**
+	 * Second pass of Kosaraju: DFS of the inverse graph (computeInverse(), or a TransposedGraph
+	 * view) from the nodes by decreasing end time of the first pass. Each tree is a strongly
+	 * connected component, whose nodes are listed when completely explored.
+	 */
+	public static Components explorerGrapheBis(IGraph inverse, List<Integer> ordreFin) {
+		return explorerGrapheBis(inverse, ordreFin, AlgorithmListener.NONE);
+	}
 
-		for (Arc t : s.getArcSucc()) {
-			if (a.stream().noneMatch(directedNode -> directedNode.getLabel()==t.getSecondNode().getLabel())) {
-				explorerSommetBis(t.getSecondNode(), a);
+	public static Components explorerGrapheBis(IGraph inverse, List<Integer> ordreFin, AlgorithmListener listener) {
+		int n = inverse.getNbNodes();
+		DfsStack stack = new DfsStack(inverse);
+		int[] component = new int[n];
+		int[] members = new int[n];
+		int[] start = new int[n + 1];
+		Arrays.fill(component, -1);
+		int nbComponents = 0;
+		int nbMembers = 0;
+		for (int s : ordreFin) {
+			if (component[s] >= 0) {
+				continue;
 			}
+			listener.searchStarted(s);
+			component[s] = nbComponents;
+			listener.vertexSettled(s, nbComponents);
+			stack.push(s);
+			while (!stack.isEmpty()) {
+				int w = stack.nextSuccessor();
+				if (w >= 0) {
+					if (component[w] < 0) {
+						component[w] = nbComponents;
+						listener.edgeAddedToTree(stack.top(), w, 0);
+						listener.vertexSettled(w, nbComponents);
+						stack.push(w);
+					}
+				} else {
+					int u = stack.pop();
+					members[nbMembers++] = u;
+					listener.vertexFinished(u);
+				}
+			}
+			start[++nbComponents] = nbMembers;
 		}
-		System.out.print(s.getLabel() + " ");
+		return new Components(component, members, start, nbComponents);
 	}
 
-	public static void explorerGrapheBis(AdjacencyListDirectedGraph al, List<Integer> ordreFin) {
-		Set<DirectedNode> atteint = new HashSet<>();
-		List<DirectedNode> ordreFinDirectedNodes = new ArrayList<>();
-		List<DirectedNode> nodes = al.getNodes(); // Tous les noeuds, indexés par label
-		for (Integer label : ordreFin) {
-			ordreFinDirectedNodes.add(nodes.get(label)); // On suppose que label == index
+	/**
+	 * DFS stack whose frames hold the successors of their node, decoded once when the node
+	 * is pushed, so any IGraph can be explored without resumable iterators.
+	 */
+	private static class DfsStack {
+
+		private final IGraph graph;
+		private final IntConsumer append;
+		private int[] nodes = new int[16];
+		private int[] next = new int[16];	// Index in successors of the next successor to try
+		private int[] end = new int[16];	// Index in successors after the last successor
+		private int[] successors = new int[64];
+		private int size = 0;
+		private int nbSuccessors = 0;
+
+		DfsStack(IGraph graph) {
+			this.graph = graph;
+			this.append = w -> {
+				if (nbSuccessors == successors.length) {
+					successors = Arrays.copyOf(successors, 2 * successors.length);
+				}
+				successors[nbSuccessors++] = w;
+			};
+		}
+
+		boolean isEmpty() {
+			return size == 0;
 		}
-		System.out.println("Composantes fortements connexes: ");
-		for (DirectedNode node : ordreFinDirectedNodes) {
-			if (!atteint.contains(node)) {
-				System.out.print("{ ");
-				explorerSommetBis(node, atteint);
-				System.out.print("} ");
+
+		void push(int u) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, 2 * size);
+				next = Arrays.copyOf(next, 2 * size);
+				end = Arrays.copyOf(end, 2 * size);
 			}
+			nodes[size] = u;
+			next[size] = nbSuccessors;
+			graph.forEachSuccessor(u, append);
+			end[size] = nbSuccessors;
+			size++;
+		}
+
+		int top() {
+			return nodes[size - 1];
+		}
+
+		/**
+		 * @return the next successor of the top node, -1 if it has none left
+		 */
+		int nextSuccessor() {
+			int top = size - 1;
+			return next[top] < end[top] ? successors[next[top]++] : -1;
+		}
+
+		/**
+		 * @return the top node, removed with its successors
+		 */
+		int pop() {
+			size--;
+			// Frames are contiguous, the successors of this one started where the one below ended.
+			nbSuccessors = size == 0 ? 0 : end[size - 1];
+			return nodes[size];
 		}
 	}
 
@@ -153,19 +399,18 @@ public class GraphToolsList extends GraphTools {
         System.out.println(al);
         System.out.println("========");
         System.out.println("Parcours en largeur (BFS) départ 0");
-        parcoursBFSLargeur(al, 0);
-        System.out.println("\n========");
+        System.out.println(parcoursBFSLargeur(al, 0));
+        System.out.println("========");
         System.out.println("Parcours en profondeur (DFS) départ 0 (par défaut)");
 		// Question 13 (Kosaraju):
 		// 1. Premier en profondeur en notant l’ordre de fin d’exploration des sommets visités
-        explorerGraphe(al);
+        System.out.println(explorerGraphe(al, new ConsoleListener()));
         // 2. Refaire un DFS
         order_CC = getOrdreFinDecroissant(); //en suivant cet ordre de manière inversé
 		System.out.println("Ordre inverse des sommets complètement explorés");
 		System.out.println(order_CC);
-		AdjacencyListDirectedGraph alInverse = al.computeInverse(); // sur le graphe inversé
-		System.out.println();
-		explorerGrapheBis(alInverse, order_CC);
+		// sur le graphe inversé, vu à travers les listes de prédécesseurs sans le recopier
+		System.out.println("Composantes fortements connexes: " + explorerGrapheBis(new TransposedGraph(al), order_CC));
 
 
 		//Vérification avec l'exemple du cours https://moodle.imt-atlantique.fr/mod/resource/view.php?id=50133
@@ -186,13 +431,55 @@ public class GraphToolsList extends GraphTools {
 		AdjacencyListDirectedGraph al2 = new AdjacencyListDirectedGraph(matrix);
 		System.out.println(al2.getArcs());
 
-		explorerGraphe(al2);
+		Traversal dfs = explorerGraphe(al2);
 		// 2. Refaire un DFS
-		order_CC = getOrdreFinDecroissant(); //en suivant cet ordre de manière inversé
+		order_CC = dfs.getOrdreFinDecroissant(); //en suivant cet ordre de manière inversé
 		System.out.println("Ordre de fin inversé : " + order_CC);
-		AdjacencyListDirectedGraph alInverse2 = al2.computeInverse(); // sur le graphe inversé
-		System.out.println();
-		explorerGrapheBis(alInverse2, order_CC);
+		AdjacencyListDirectedGraph alInverse2 = al2.computeInverse(); // sur une copie du graphe inversé
+		Components scc = explorerGrapheBis(alInverse2, order_CC);
+		System.out.println("Composantes fortements connexes: " + scc);
+		Components sccVue = explorerGrapheBis(new TransposedGraph(al2), order_CC); // même résultat sur la vue inversée
+		boolean same = scc.toString().equals(sccVue.toString()) && scc.toString().equals("{ 4 7 1 } { 5 6 0 } { 2 } { 3 } ");
+		System.out.println("Mêmes composantes sur la vue inversée? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
 
+		System.out.println("\n======Même Dijkstra sur chaque représentation====== ");
+		EdgeList edges = GraphToolsParallel.generateValuedEdgeList(2000, 20000L, false, false, true, false, 3L, 1);
+		AdjacencyListDirectedValuedGraph list = GraphConverter.toDirectedValuedGraph(edges);
+		IGraph[] graphs = {
+				list,
+				GraphConverter.toMatrixDirectedValuedGraph(edges),
+				CSRGraph.fromEdgeList(edges),
+				CompressedGraph.fromEdgeList(edges, CompressedGraph.Coding.VARINT, true),
+				PersistentDirectedGraph.fromEdgeList(edges),
+				new TransposedGraph(new TransposedGraph(list))
+		};
+		ShortestPaths expected = dijkstra(graphs[0], 0);
+		for (IGraph g : graphs) {
+			ShortestPaths paths = dijkstra(g, 0);
+			same = true;
+			for (int v = 0; v < g.getNbNodes(); v++) {
+				same &= paths.getDistance(v) == expected.getDistance(v);
+			}
+			System.out.println(g.getClass().getSimpleName() + ": mêmes distances? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+		}
+
+		// Sans listener les algorithmes n'affichent rien, le coût du traçage disparaît.
+		long start = System.nanoTime();
+		for (int i = 0; i < 20; i++) {
+			dijkstra(graphs[2], i);
+		}
+		System.out.println("20 Dijkstra sur 2000 sommets et 20000 arcs en " + (System.nanoTime() - start) / 1000000 + " ms");
+
+		int[][] negative = {
+				{0, -4, 0, 0, 3},
+				{-4, 0, 8, 0, -2},
+				{0, 8, 0, -7, 5},
+				{0, 0, -7, 0, 1},
+				{3, -2, 5, 1, 0}
+		};
+		AdjacencyListUndirectedValuedGraph undirected = new AdjacencyListUndirectedValuedGraph(negative);
+		long weight = primWeight(undirected, 0);
+		boolean prim = weight == undirected.calculerPoidsTotal(undirected.prim(0)) && weight == -12;
+		System.out.println("Prim avec des poids négatifs = " + weight + " (Should be -12) " + (prim ? "✅" : "❌"));
 	}
 }
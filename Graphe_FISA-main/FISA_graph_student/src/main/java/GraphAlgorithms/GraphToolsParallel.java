@@ -0,0 +1,360 @@
+package GraphAlgorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.EdgeSink;
+import Collection.Hashing;
+import Collection.LongHashSet;
+
+/**
+ * Parallel versions of the random generators of GraphTools.
+ *
+ * The vertices are cut into chunks of consecutive labels. A pair (i,j) belongs to the
+ * chunk of i (of min(i,j) for a symmetric graph), so two chunks never draw the same pair
+ * and each chunk deduplicates alone with its own hash set. The number of chunks, the
+ * number of edges of each chunk and the seed of each chunk only depend on n, m and the
+ * master seed, and the chunks are emitted in order: the generated graph is bit-identical
+ * whatever the number of threads.
+ */
+public class GraphToolsParallel extends GraphTools {
+
+	private static final long TARGET_CHUNK_UNITS = 1 << 20; // Edges drawn by one task
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public GraphToolsParallel() {
+		super();
+	}
+
+	// ------------------------------------------
+	// 				Methods
+	// ------------------------------------------
+
+	/**
+	 * Parallel counterpart of GraphTools.generateEdgeList(n, m, multi, s, c, seed).
+	 *
+	 * @param n the number of vertices
+	 * @param m the number of edges
+	 * @param multi at true if we want a multi-graph
+	 * @param s at true if the graph is symmetric
+	 * @param c at true if the graph is connected
+	 * @param seed the master seed, every chunk seed is derived from it
+	 * @param nbThreads the number of worker threads, it does not change the result
+	 * @return the generated list of arcs
+	 */
+	public static EdgeList generateEdgeList(int n, long m, boolean multi, boolean s, boolean c, long seed, int nbThreads) {
+		EdgeList edges = new EdgeList(n, (int) Math.min(Integer.MAX_VALUE - 8, s ? 2 * m : m));
+		generate(n, m, multi, s, c, false, false, seed, nbThreads, edges);
+		return edges;
+	}
+
+	/**
+	 * Parallel counterpart of GraphTools.generateValuedEdgeList, the weights are drawn in
+	 * [1,15], or in [-5,9] when neg is true.
+	 *
+	 * @param n the number of vertices
+	 * @param m the number of edges
+	 * @param multi at true if we want a multi-graph
+	 * @param s at true if the graph is symmetric
+	 * @param c at true if the graph is connected
+	 * @param neg at true if the graph has negative weights
+	 * @param seed the master seed, every chunk seed is derived from it
+	 * @param nbThreads the number of worker threads, it does not change the result
+	 * @return the generated list of valued arcs
+	 */
+	public static EdgeList generateValuedEdgeList(int n, long m, boolean multi, boolean s, boolean c, boolean neg, long seed, int nbThreads) {
+		EdgeList edges = new EdgeList(n, (int) Math.min(Integer.MAX_VALUE - 8, s ? 2 * m : m));
+		generate(n, m, multi, s, c, true, neg, seed, nbThreads, edges);
+		return edges;
+	}
+
+	/**
+	 * Generates the graph chunk by chunk and streams the arcs to sink in a deterministic order.
+	 * At most 2*nbThreads chunks are kept in memory, so the graph may be larger than the heap
+	 * when sink writes to disk.
+	 *
+	 * @param valued at true to draw a random weight for each edge, otherwise the weight is the
+	 * multiplicity for a multi-graph and 0 for a simple graph
+	 * @return the number of arcs sent to sink
+	 */
+	public static long generate(int n, long m, boolean multi, boolean s, boolean c, boolean valued, boolean neg,
+			long seed, int nbThreads, EdgeSink sink) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("The number of vertices must be positive");
+		}
+		if (nbThreads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive");
+		}
+		long nbPairs = s ? (long) n * (n - 1) / 2 : (long) n * (n - 1);
+		// A tree pair is drawn with multiplicity 1 and never again, so it loses 2 units of a multi-graph
+		long max = multi ? 3 * nbPairs + n - (c ? 2L * (n - 1) : 0) : nbPairs;
+		if (m > max) {
+			throw new IllegalArgumentException("Cannot draw " + m + " edges on " + n + " vertices (at most " + max + ")");
+		}
+
+		int nbChunks = (int) Math.max(1, Math.min(n, (m + TARGET_CHUNK_UNITS - 1) / TARGET_CHUNK_UNITS));
+		int[] bounds = new int[nbChunks + 1];
+		for (int k = 0; k <= nbChunks; k++) {
+			bounds[k] = (int) ((long) k * n / nbChunks);
+		}
+
+		// Spanning tree over a random permutation, drawn sequentially in O(n).
+		SplittableRandom treeRand = new SplittableRandom(mix64(seed));
+		int nbTree = c ? n - 1 : 0;
+		int[] treeFrom = new int[nbTree];
+		int[] treeTo = new int[nbTree];
+		int[] treeWeight = new int[nbTree];
+		if (c) {
+			int[] perm = new int[n];
+			for (int i = 0; i < n; i++) {
+				perm[i] = i;
+			}
+			for (int i = n - 1; i > 0; i--) {
+				int j = treeRand.nextInt(i + 1);
+				int tmp = perm[i];
+				perm[i] = perm[j];
+				perm[j] = tmp;
+			}
+			for (int k = 1; k < n; k++) {
+				treeFrom[k - 1] = perm[k];
+				treeTo[k - 1] = perm[treeRand.nextInt(k)];
+				treeWeight[k - 1] = valued ? drawWeight(treeRand, neg) : (multi ? 1 : 0);
+			}
+			m -= nbTree;
+		}
+
+		// Tree arcs bucketed by owner chunk.
+		int[] treeStart = new int[nbChunks + 1];
+		int[] ownerOf = new int[nbTree];
+		for (int k = 0; k < nbTree; k++) {
+			ownerOf[k] = chunkOf(owner(treeFrom[k], treeTo[k], s), bounds);
+			treeStart[ownerOf[k] + 1]++;
+		}
+		for (int k = 0; k < nbChunks; k++) {
+			treeStart[k + 1] += treeStart[k];
+		}
+		int[] treeOrder = new int[nbTree];
+		int[] next = treeStart.clone();
+		for (int k = 0; k < nbTree; k++) {
+			treeOrder[next[ownerOf[k]]++] = k;
+		}
+
+		// Number of edges of each chunk, proportional to its free capacity.
+		long[] free = new long[nbChunks];
+		long totalFree = 0;
+		for (int k = 0; k < nbChunks; k++) {
+			free[k] = capacity(bounds[k], bounds[k + 1], n, multi, s) - (multi ? 3L : 1L) * (treeStart[k + 1] - treeStart[k]);
+			totalFree += free[k];
+		}
+		long[] budget = new long[nbChunks];
+		long allocated = 0;
+		double cumul = 0;
+		long previous = 0;
+		for (int k = 0; k < nbChunks; k++) {
+			cumul += free[k];
+			long upTo = totalFree == 0 ? 0 : (long) Math.floor((double) m * cumul / totalFree);
+			budget[k] = Math.max(0, Math.min(free[k], upTo - previous));
+			previous = upTo;
+			allocated += budget[k];
+		}
+		for (int k = 0; k < nbChunks && allocated < m; k++) {
+			long extra = Math.min(m - allocated, free[k] - budget[k]);
+			budget[k] += extra;
+			allocated += extra;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(nbThreads);
+		long emitted = 0;
+		try {
+			int window = 2 * nbThreads;
+			for (int first = 0; first < nbChunks; first += window) {
+				List<Future<Chunk>> running = new ArrayList<>();
+				for (int k = first; k < Math.min(nbChunks, first + window); k++) {
+					final int chunk = k;
+					final long chunkBudget = budget[k];
+					final long chunkSeed = mix64(seed + (k + 1) * GOLDEN_GAMMA);
+					running.add(pool.submit(() -> generateChunk(bounds[chunk], bounds[chunk + 1], n, chunkBudget, multi, s,
+							valued, neg, chunkSeed, treeOrder, treeStart[chunk], treeStart[chunk + 1], treeFrom, treeTo, treeWeight)));
+				}
+				for (Future<Chunk> f : running) {
+					Chunk chunk = f.get();
+					sink.acceptBatch(chunk.from, chunk.to, chunk.weight, chunk.size);
+					emitted += chunk.size;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Graph generation interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Graph generation failed", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return emitted;
+	}
+
+	/**
+	 * Arcs produced by one chunk.
+	 */
+	private static class Chunk {
+		int[] from;
+		int[] to;
+		int[] weight;
+		int size;
+
+		Chunk(int capacity) {
+			this.from = new int[capacity];
+			this.to = new int[capacity];
+			this.weight = new int[capacity];
+		}
+
+		void add(int i, int j, int w, boolean s) {
+			from[size] = i;
+			to[size] = j;
+			weight[size] = w;
+			size++;
+			if (s && i != j) {
+				from[size] = j;
+				to[size] = i;
+				weight[size] = w;
+				size++;
+			}
+		}
+	}
+
+	/**
+	 * Draws the pairs owned by the vertices [lo,hi): first the tree arcs of the chunk, then
+	 * budget units of uniform pairs. For a symmetric graph the vertex u is picked with a
+	 * probability proportional to the number of pairs (u,v), v > u, it owns. A pair of a
+	 * multi-graph takes more than its random multiplicity when the pairs left could not hold
+	 * the rest of the budget, so a budget up to the capacity is always reached.
+	 */
+	private static Chunk generateChunk(int lo, int hi, int n, long budget, boolean multi, boolean s, boolean valued,
+			boolean neg, long chunkSeed, int[] treeOrder, int treeLo, int treeHi, int[] treeFrom, int[] treeTo, int[] treeWeight) {
+		SplittableRandom rand = new SplittableRandom(chunkSeed);
+		long nbPairs = budget + (treeHi - treeLo);
+		Chunk chunk = new Chunk((int) (s ? 2 * nbPairs : nbPairs));
+		LongHashSet seen = new LongHashSet((int) nbPairs);
+		long fresh = capacity(lo, hi, n, multi, s) - (multi ? 3L : 1L) * (treeHi - treeLo); // Units of the pairs not drawn yet
+		for (int t = treeLo; t < treeHi; t++) {
+			int k = treeOrder[t];
+			seen.add(pairKey(treeFrom[k], treeTo[k], s));
+			chunk.add(treeFrom[k], treeTo[k], treeWeight[k], s);
+		}
+		int width = hi - lo;
+		int maxSpan = multi ? n - lo : n - 1 - lo; // Largest number of partners v >= u (v > u) in the chunk
+		long m = budget;
+		while (m > 0) {
+			int i = lo + rand.nextInt(width);
+			int j;
+			if (s) {
+				int span = multi ? n - i : n - 1 - i;
+				if (span <= 0 || rand.nextInt(maxSpan) >= span) {
+					continue;
+				}
+				j = multi ? i + rand.nextInt(span) : i + 1 + rand.nextInt(span);
+			} else {
+				j = rand.nextInt(n);
+			}
+			if (!multi) {
+				if (i != j && seen.add(pairKey(i, j, s))) {
+					chunk.add(i, j, valued ? drawWeight(rand, neg) : 0, s);
+					m--;
+				}
+			} else {
+				if (seen.add(pairKey(i, j, s))) {
+					int val = (i != j ? (m < 3 ? (int) m : rand.nextInt(3) + 1) : 1);
+					fresh -= i != j ? 3 : 1;
+					val = (int) Math.min(m, Math.max(val, m - fresh));
+					chunk.add(i, j, valued ? drawWeight(rand, neg) : val, s);
+					m -= val;
+				}
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * @return the number of edge units the vertices [lo,hi) can own
+	 */
+	private static long capacity(int lo, int hi, int n, boolean multi, boolean s) {
+		long pairs;
+		if (s) {
+			// sum over u in [lo,hi) of (n-1-u)
+			pairs = (long) (hi - lo) * (n - 1) - ((long) hi * (hi - 1) / 2 - (long) lo * (lo - 1) / 2);
+		} else {
+			pairs = (long) (hi - lo) * (n - 1);
+		}
+		return multi ? 3 * pairs + (hi - lo) : pairs;
+	}
+
+	private static int owner(int i, int j, boolean s) {
+		return s ? Math.min(i, j) : i;
+	}
+
+	private static int chunkOf(int u, int[] bounds) {
+		int lo = 0;
+		int hi = bounds.length - 2;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (bounds[mid] <= u) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return lo;
+	}
+
+	private static long pairKey(int i, int j, boolean s) {
+		return s ? Hashing.pack(Math.min(i, j), Math.max(i, j)) : Hashing.pack(i, j);
+	}
+
+	private static int drawWeight(SplittableRandom rand, boolean neg) {
+		return rand.nextInt(15) + 1 + (neg ? -6 : 0);
+	}
+
+	/**
+	 * SplitMix64 finaliser, turns consecutive values into independent seeds.
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	public static void main(String[] args) {
+		EdgeList g1 = generateEdgeList(200000, 2000000, false, true, true, 100001L, 1);
+		EdgeList g4 = generateEdgeList(200000, 2000000, false, true, true, 100001L, 4);
+		boolean same = g1.size() == g4.size();
+		for (int i = 0; same && i < g1.size(); i++) {
+			same = g1.getSource(i) == g4.getSource(i) && g1.getTarget(i) == g4.getTarget(i) && g1.getWeight(i) == g4.getWeight(i);
+		}
+		System.out.println("Number of arcs = " + g1.size() + " (Should be 4000000) " + (g1.size() == 4000000 ? "✅" : "❌"));
+		System.out.println("Same graph with 1 and 4 threads? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+
+		boolean full = true;
+		for (boolean c : new boolean[] {false, true}) {
+			long max = 3 * 4 * 3 + 4 - (c ? 2 * 3 : 0);
+			EdgeList multi = generateEdgeList(4, max, true, false, c, 1L, 1);
+			long units = 0;
+			for (int i = 0; i < multi.size(); i++) {
+				units += multi.getWeight(i);
+			}
+			full &= units == max;
+		}
+		System.out.println("Multi-graph drawn up to its capacity? " + full + " (Should be TRUE) " + (full ? "✅" : "❌"));
+
+		EdgeList valued = generateValuedEdgeList(10, 20, false, false, true, true, 100007L, 2);
+		afficherMatrix(valued.toAdjacencyMatrix());
+	}
+}
@@ -0,0 +1,108 @@
+package GraphAlgorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import Collection.IntDeque;
+
+/**
+ * Result of a single source shortest path algorithm: the distance and the predecessor of
+ * every node on a shortest path from the source.
+ */
+public class ShortestPaths {
+
+	public static final int INFINITY = Integer.MAX_VALUE;
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int source;
+	private final int[] dist;	// INFINITY if the node is not reachable
+	private final int[] pred;	// -1 if the node is not reachable, the source is its own predecessor
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public ShortestPaths(int source, int[] dist, int[] pred) {
+		this.source = source;
+		this.dist = dist;
+		this.pred = pred;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the distance from the source to v, INFINITY if it is not reachable
+	 */
+	public int getDistance(int v) {
+		return dist[v];
+	}
+
+	/**
+	 * @return the predecessor of v on its shortest path, -1 if it is not reachable
+	 */
+	public int getPredecessor(int v) {
+		return pred[v];
+	}
+
+	public boolean isReachable(int v) {
+		return dist[v] != INFINITY;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * @return the nodes of a shortest path from the source to v, empty if v is not reachable
+	 */
+	public List<Integer> getPath(int v) {
+		List<Integer> path = new ArrayList<>();
+		if (!isReachable(v)) {
+			return path;
+		}
+		IntDeque nodes = new IntDeque();
+		for (int x = v; x != source; x = pred[x]) {
+			nodes.addFirst(x);
+		}
+		nodes.addFirst(source);
+		while (!nodes.isEmpty()) {
+			path.add(nodes.pollFirst());
+		}
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Distances depuis le sommet ").append(source).append(":\n");
+		for (int v = 0; v < dist.length; v++) {
+			if (isReachable(v)) {
+				s.append("Sommet ").append(v).append(": distance = ").append(dist[v])
+						.append(", prédécesseur = ").append(pred[v]).append('\n');
+			} else {
+				s.append("Sommet ").append(v).append(": INACCESSIBLE\n");
+			}
+		}
+		s.append("\nChemins optimaux:\n");
+		for (int v = 0; v < dist.length; v++) {
+			if (v != source && isReachable(v)) {
+				s.append("Chemin vers ").append(v).append(": ");
+				List<Integer> path = getPath(v);
+				for (int i = 0; i < path.size(); i++) {
+					s.append(i == 0 ? "" : " → ").append(path.get(i));
+				}
+				s.append(" (coût total: ").append(dist[v]).append(")\n");
+			}
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,117 @@
+package GraphAlgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a BFS or a DFS. One counter dates the events: debut[v] when v is discovered,
+ * fin[v] when all its successors have been handled, 0 for the nodes not reached.
+ */
+public class Traversal {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int[] order;		// Reached nodes, in discovery order
+	private final int nbReached;
+	private final int[] parent;		// -1 for the roots and the nodes not reached
+	private final int[] debut;
+	private final int[] fin;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	Traversal(int[] order, int nbReached, int[] parent, int[] debut, int[] fin) {
+		this.order = order;
+		this.nbReached = nbReached;
+		this.parent = parent;
+		this.debut = debut;
+		this.fin = fin;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int getNbReached() {
+		return nbReached;
+	}
+
+	/**
+	 * @return the reached nodes in discovery order
+	 */
+	public int[] getOrder() {
+		return Arrays.copyOf(order, nbReached);
+	}
+
+	public boolean isReached(int v) {
+		return debut[v] != 0;
+	}
+
+	/**
+	 * @return the node from which v was discovered, -1 for a root or a node not reached
+	 */
+	public int getParent(int v) {
+		return parent[v];
+	}
+
+	public int getDebut(int v) {
+		return debut[v];
+	}
+
+	public int getFin(int v) {
+		return fin[v];
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Only meaningful for a DFS: y is a descendant of x iff debut[x] < debut[y] < fin[y] < fin[x].
+	 */
+	public boolean isDescendant(int x, int y) {
+		return debut[x] < debut[y] && fin[y] < fin[x];
+	}
+
+	/**
+	 * @return the nodes by decreasing fin, the order of the second pass of Kosaraju
+	 */
+	public List<Integer> getOrdreFinDecroissant() {
+		// The dates are distinct and at most 2n, so one slot per date sorts in O(n).
+		int[] byDate = new int[2 * fin.length + 1];
+		Arrays.fill(byDate, -1);
+		for (int v = 0; v < fin.length; v++) {
+			byDate[fin[v]] = v;
+		}
+		List<Integer> ordre = new ArrayList<>(fin.length);
+		for (int date = byDate.length - 1; date > 0; date--) {
+			if (byDate[date] >= 0) {
+				ordre.add(byDate[date]);
+			}
+		}
+		for (int v = 0; v < fin.length; v++) {
+			if (fin[v] == 0) {
+				ordre.add(v);
+			}
+		}
+		return ordre;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Ordre de découverte :");
+		for (int i = 0; i < nbReached; i++) {
+			s.append(' ').append(order[i]);
+		}
+		s.append("\nTemps de fin des sommets :\n");
+		for (int v = 0; v < fin.length; v++) {
+			s.append("Sommet ").append(v).append(" : ").append(fin[v]).append('\n');
+		}
+		return s.toString();
+	}
+}
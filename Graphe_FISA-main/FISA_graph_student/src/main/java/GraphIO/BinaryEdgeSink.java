@@ -0,0 +1,72 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import AdjacencyCSR.EdgeSink;
+
+/**
+ * Writes the received arcs to a file as little-endian int triples (from, to, weight),
+ * 12 bytes per arc and no header, through a direct buffer flushed by a FileChannel.
+ */
+public class BinaryEdgeSink implements EdgeSink, Closeable {
+
+	public static final int BYTES_PER_ARC = 12;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private long nbArcs;
+
+	/**
+	 * @param path the file to create or truncate
+	 */
+	public BinaryEdgeSink(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - BUFFER_SIZE % BYTES_PER_ARC).order(ByteOrder.LITTLE_ENDIAN);
+		this.nbArcs = 0;
+	}
+
+	/**
+	 * @return the number of arcs written so far
+	 */
+	public long getNbArcs() {
+		return nbArcs;
+	}
+
+	@Override
+	public void accept(int from, int to, int weight) {
+		if (buffer.remaining() < BYTES_PER_ARC) {
+			flush();
+		}
+		buffer.putInt(from).putInt(to).putInt(weight);
+		nbArcs++;
+	}
+
+	/**
+	 * Writes the buffered arcs to the file.
+	 */
+	public void flush() {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+}
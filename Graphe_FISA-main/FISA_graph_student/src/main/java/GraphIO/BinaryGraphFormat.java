@@ -0,0 +1,164 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import AdjacencyCSR.CSRGraph;
+
+/**
+ * Versioned binary graph file, laid out so that it can be mapped and used without parsing.
+ * All values are little-endian and every section starts on an 8-byte boundary.
+ *
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "GRPH"
+ *      4     4  version (1)
+ *      8     4  flags: 1 = weights present, 2 = reverse index present
+ *     12     4  reserved (0)
+ *     16     8  number of nodes n
+ *     24     8  number of arcs m
+ *     32     8  position of offsets          long[n+1]
+ *     40     8  position of targets          int[m]
+ *     48     8  position of weights          int[m]    (0 if absent)
+ *     56     8  position of reverse offsets  long[n+1] (0 if absent)
+ *     64     8  position of reverse sources  int[m]    (0 if absent)
+ *     72     8  position of reverse weights  int[m]    (0 if absent or unweighted)
+ *    128        first section
+ * </pre>
+ *
+ * The reverse index lists the predecessors of each node, so backward searches do not
+ * have to rebuild the inverse graph.
+ */
+public class BinaryGraphFormat {
+
+	public static final int MAGIC = 0x48505247; // "GRPH" read as a little-endian int
+	public static final int VERSION = 1;
+	public static final int FLAG_WEIGHTS = 1;
+	public static final int FLAG_REVERSE = 2;
+	public static final int HEADER_SIZE = 128;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private BinaryGraphFormat() {
+
+	}
+
+	/**
+	 * Writes g to path.
+	 *
+	 * @param withWeights at true to store the weights section
+	 * @param withReverse at true to store the predecessors of each node
+	 */
+	public static void write(CSRGraph g, Path path, boolean withWeights, boolean withReverse) throws IOException {
+		int n = g.getNbNodes();
+		int m = g.getNbArcs();
+		long offsetsPos = HEADER_SIZE;
+		long targetsPos = offsetsPos + 8L * (n + 1);
+		long end = align(targetsPos + 4L * m);
+		long weightsPos = 0;
+		if (withWeights) {
+			weightsPos = end;
+			end = align(weightsPos + 4L * m);
+		}
+		long reverseOffsetsPos = 0;
+		long reverseSourcesPos = 0;
+		long reverseWeightsPos = 0;
+		if (withReverse) {
+			reverseOffsetsPos = end;
+			reverseSourcesPos = reverseOffsetsPos + 8L * (n + 1);
+			end = align(reverseSourcesPos + 4L * m);
+			if (withWeights) {
+				reverseWeightsPos = end;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt((withWeights ? FLAG_WEIGHTS : 0) | (withReverse ? FLAG_REVERSE : 0)).putInt(0);
+			header.putLong(n).putLong(m);
+			header.putLong(offsetsPos).putLong(targetsPos).putLong(weightsPos);
+			header.putLong(reverseOffsetsPos).putLong(reverseSourcesPos).putLong(reverseWeightsPos);
+			header.clear();
+			writeFully(channel, header, 0);
+
+			int[] offsets = g.getOffsets();
+			writeOffsets(channel, offsetsPos, offsets, n);
+			writeInts(channel, targetsPos, g.getTargets(), m);
+			if (withWeights) {
+				writeInts(channel, weightsPos, g.getWeights(), m);
+			}
+			if (withReverse) {
+				// Counting sort of the arcs by target.
+				int[] reverseOffsets = new int[n + 1];
+				int[] targets = g.getTargets();
+				for (int a = 0; a < m; a++) {
+					reverseOffsets[targets[a] + 1]++;
+				}
+				for (int v = 0; v < n; v++) {
+					reverseOffsets[v + 1] += reverseOffsets[v];
+				}
+				int[] next = new int[n];
+				System.arraycopy(reverseOffsets, 0, next, 0, n);
+				int[] sources = new int[m];
+				int[] reverseWeights = withWeights ? new int[m] : null;
+				for (int u = 0; u < n; u++) {
+					for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+						int r = next[targets[a]]++;
+						sources[r] = u;
+						if (withWeights) {
+							reverseWeights[r] = g.getWeight(a);
+						}
+					}
+				}
+				writeOffsets(channel, reverseOffsetsPos, reverseOffsets, n);
+				writeInts(channel, reverseSourcesPos, sources, m);
+				if (withWeights) {
+					writeInts(channel, reverseWeightsPos, reverseWeights, m);
+				}
+			}
+		}
+	}
+
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	private static void writeOffsets(FileChannel channel, long position, int[] offsets, int n) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i <= n; i++) {
+			if (buffer.remaining() < 8) {
+				buffer.flip();
+				position = writeFully(channel, buffer, position);
+				buffer.clear();
+			}
+			buffer.putLong(offsets[i]);
+		}
+		buffer.flip();
+		writeFully(channel, buffer, position);
+	}
+
+	private static void writeInts(FileChannel channel, long position, int[] values, int len) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		int i = 0;
+		while (i < len) {
+			int count = Math.min(len - i, BUFFER_SIZE / 4);
+			buffer.clear();
+			buffer.asIntBuffer().put(values, i, count);
+			buffer.limit(4 * count);
+			position = writeFully(channel, buffer, position);
+			i += count;
+		}
+	}
+
+	private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+		return position;
+	}
+}
@@ -0,0 +1,131 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import AdjacencyCSR.EdgeList;
+import AdjacencyCompressed.CompressedGraph;
+import AdjacencyCompressed.CompressedGraph.Coding;
+import GraphAlgorithms.GraphToolsParallel;
+
+/**
+ * File of a CompressedGraph, little-endian:
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "GRPZ"
+ *      4     4  version (1)
+ *      8     4  coding (0 varint, 1 gamma, 2 zeta)
+ *     12     4  flags: 1 = weights present
+ *     16     4  number of nodes n
+ *     20     4  number of arcs m
+ *     24     8  number of data bytes
+ *     32        bit offsets  long[n+1], then the data bytes
+ * </pre>
+ */
+public class CompressedGraphFormat {
+
+	public static final int MAGIC = 0x5A505247; // "GRPZ" read as a little-endian int
+	public static final int VERSION = 1;
+	public static final int FLAG_WEIGHTS = 1;
+	public static final int HEADER_SIZE = 32;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private CompressedGraphFormat() {
+
+	}
+
+	public static void write(CompressedGraph g, Path path) throws IOException {
+		long[] offsets = g.getOffsets();
+		byte[] data = g.getData();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(g.getCoding().ordinal())
+					.putInt(g.isWeighted() ? FLAG_WEIGHTS : 0).putInt(g.getNbNodes()).putInt(g.getNbArcs())
+					.putLong(data.length);
+			for (long offset : offsets) {
+				if (buffer.remaining() < 8) {
+					drain(channel, buffer);
+				}
+				buffer.putLong(offset);
+			}
+			drain(channel, buffer);
+			ByteBuffer bytes = ByteBuffer.wrap(data);
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		}
+	}
+
+	public static CompressedGraph read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			fill(channel, header);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				throw new IllegalArgumentException(path + " is not a version " + VERSION + " compressed graph file");
+			}
+			int codingIndex = header.getInt(8);
+			boolean weighted = (header.getInt(12) & FLAG_WEIGHTS) != 0;
+			int n = header.getInt(16);
+			int m = header.getInt(20);
+			long nbBytes = header.getLong(24);
+			if (codingIndex < 0 || codingIndex >= Coding.values().length || n < 0 || m < 0
+					|| nbBytes < 0 || nbBytes > Integer.MAX_VALUE - 8
+					|| channel.size() != HEADER_SIZE + 8L * (n + 1) + nbBytes) {
+				throw new IllegalArgumentException(path + " is truncated or corrupted");
+			}
+			long[] offsets = new long[n + 1];
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.flip();
+			for (int i = 0; i <= n; i++) {
+				if (!buffer.hasRemaining()) {
+					buffer.clear();
+					buffer.limit((int) Math.min(BUFFER_SIZE, 8L * (n + 1 - i)));
+					fill(channel, buffer);
+				}
+				offsets[i] = buffer.getLong();
+			}
+			byte[] data = new byte[(int) nbBytes];
+			fill(channel, ByteBuffer.wrap(data));
+			return new CompressedGraph(m, Coding.values()[codingIndex], weighted, offsets, data);
+		}
+	}
+
+	private static void fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("Unexpected end of file");
+			}
+		}
+		buffer.flip();
+	}
+
+	private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public static void main(String[] args) throws IOException {
+		EdgeList edges = GraphToolsParallel.generateEdgeList(100000, 1000000L, false, false, true, 42L, 1);
+		Path file = Files.createTempFile("graph", ".grpz");
+		for (Coding coding : Coding.values()) {
+			CompressedGraph g = CompressedGraph.fromEdgeList(edges, coding, false);
+			write(g, file);
+			CompressedGraph back = read(file);
+			boolean same = Arrays.equals(back.toCSRGraph().getTargets(), g.toCSRGraph().getTargets());
+			System.out.printf("%-6s %6.2f bits per arc, file of %d bytes, read back? %b (Should be TRUE) %s%n",
+					coding, g.getBitsPerArc(), Files.size(file), same, same ? "✅" : "❌");
+		}
+		System.out.println("CSR targets array: 32 bits per arc");
+		Files.delete(file);
+	}
+}
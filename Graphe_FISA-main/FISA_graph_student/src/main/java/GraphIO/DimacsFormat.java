@@ -0,0 +1,206 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.EdgeSink;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyList.AdjacencyListDirectedGraph;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import Nodes_Edges.Arc;
+import Nodes_Edges.DirectedNode;
+
+/**
+ * Reader and writer of the DIMACS shortest path format (.gr) used by the road networks of
+ * the 9th DIMACS challenge:
+ * <pre>
+ * c comment
+ * p sp n m
+ * a u v w      (labels from 1 to n)
+ * </pre>
+ * Labels are shifted to start at 0 in memory.
+ */
+public class DimacsFormat {
+
+	private DimacsFormat() {
+
+	}
+
+	// ------------------------------------------
+	// 				Readers
+	// ------------------------------------------
+
+	/**
+	 * Streams the arcs of the file to sink.
+	 *
+	 * @return the number of nodes declared in the problem line
+	 */
+	public static int read(Path path, EdgeSink sink) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			int n = (int) readProblemLine(in)[0];
+			readArcs(in, n, sink);
+			return n;
+		}
+	}
+
+	/**
+	 * @return the arcs of the file, in file order
+	 */
+	public static EdgeList read(Path path) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			long[] header = readProblemLine(in);
+			EdgeList edges = new EdgeList((int) header[0], (int) Math.min(header[1], Integer.MAX_VALUE - 8));
+			readArcs(in, (int) header[0], edges);
+			return edges;
+		}
+	}
+
+	public static AdjacencyListDirectedValuedGraph readDirectedValuedGraph(Path path) throws IOException {
+		return GraphConverter.toDirectedValuedGraph(read(path));
+	}
+
+	/**
+	 * Only meant for small graphs, the matrix costs O(n^2) and only keeps positive weights.
+	 */
+	public static AdjacencyMatrixDirectedValuedGraph readMatrixDirectedValuedGraph(Path path) throws IOException {
+		return new AdjacencyMatrixDirectedValuedGraph(read(path).toAdjacencyMatrix());
+	}
+
+	/**
+	 * @return {n, m} read from the "p sp n m" line
+	 */
+	private static long[] readProblemLine(TextReader in) throws IOException {
+		while (true) {
+			int b = in.peekLineStart();
+			if (b < 0) {
+				throw in.error("problem line \"p sp n m\" expected");
+			}
+			if (b == 'c' || b == '\n') {
+				in.skipLine();
+				continue;
+			}
+			if (b != 'p') {
+				throw in.error("problem line \"p sp n m\" expected before the arcs");
+			}
+			in.nextToken();
+			String kind = in.nextToken();
+			if (!kind.equals("sp")) {
+				throw in.error("unsupported problem type " + kind);
+			}
+			long n = in.nextLong();
+			long m = in.nextLong();
+			in.endLine();
+			if (n < 0 || n > Integer.MAX_VALUE - 1 || m < 0) {
+				throw in.error("invalid graph size");
+			}
+			return new long[] {n, m};
+		}
+	}
+
+	private static void readArcs(TextReader in, int n, EdgeSink sink) throws IOException {
+		int b;
+		while ((b = in.peekLineStart()) >= 0) {
+			if (b == 'a') {
+				in.nextToken();
+				int u = in.nextInt() - 1;
+				int v = in.nextInt() - 1;
+				int w = in.nextInt();
+				in.endLine();
+				if (u < 0 || u >= n || v < 0 || v >= n) {
+					throw in.error("arc (" + (u + 1) + "," + (v + 1) + ") out of range 1.." + n);
+				}
+				sink.accept(u, v, w);
+			} else if (b == 'c' || b == '\n') {
+				in.skipLine();
+			} else {
+				throw in.error("unexpected line");
+			}
+		}
+	}
+
+	// ------------------------------------------
+	// 				Writers
+	// ------------------------------------------
+
+	public static void write(AdjacencyListDirectedGraph g, Path path) throws IOException {
+		try (TextWriter out = new TextWriter(path)) {
+			writeProblemLine(out, g.getNbNodes(), g.getArcs().size());
+			for (DirectedNode n : g.getNodes()) {
+				for (Arc a : n.getArcSucc()) {
+					writeArc(out, a.getFirstNode().getLabel(), a.getSecondNode().getLabel(), a.getWeight());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes every positive cell of the matrix as an arc whose weight is the cell value.
+	 */
+	public static void write(AdjacencyMatrixDirectedGraph g, Path path) throws IOException {
+		int[][] matrix = g.getMatrix();
+		int n = g.getNbNodes();
+		long m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (matrix[i][j] > 0) {
+					m++;
+				}
+			}
+		}
+		try (TextWriter out = new TextWriter(path)) {
+			writeProblemLine(out, n, m);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (matrix[i][j] > 0) {
+						writeArc(out, i, j, matrix[i][j]);
+					}
+				}
+			}
+		}
+	}
+
+	public static void write(CSRGraph g, Path path) throws IOException {
+		try (TextWriter out = new TextWriter(path)) {
+			writeProblemLine(out, g.getNbNodes(), g.getNbArcs());
+			for (int u = 0; u < g.getNbNodes(); u++) {
+				for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+					writeArc(out, u, g.getTarget(a), g.getWeight(a));
+				}
+			}
+		}
+	}
+
+	private static void writeProblemLine(TextWriter out, int n, long m) throws IOException {
+		out.write("p sp ").write(n).write(' ').write(m).newLine();
+	}
+
+	private static void writeArc(TextWriter out, int u, int v, int w) throws IOException {
+		out.write("a ").write(u + 1).write(' ').write(v + 1).write(' ').write(w).newLine();
+	}
+
+	public static void main(String[] args) throws IOException {
+		int[][] matrix = {
+			{0, 3, 0, 4, 0},
+			{0, 0, 2, 0, 0},
+			{0, 0, 0, 5, 1},
+			{6, 0, 0, 0, 0},
+			{0, 7, 0, 0, 0}
+		};
+		AdjacencyListDirectedValuedGraph graph = new AdjacencyListDirectedValuedGraph(matrix);
+		Path file = Files.createTempFile("graph", ".gr");
+		write(graph, file);
+		System.out.println(new String(Files.readAllBytes(file), "US-ASCII"));
+		AdjacencyListDirectedValuedGraph back = readDirectedValuedGraph(file);
+		boolean same = back.getNbArcs() == graph.getNbArcs()
+				&& back.getNodes().get(4).getArcSucc().get(0).getWeight() == 7;
+		System.out.println("Graph read back equals the written one? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+		AdjacencyMatrixDirectedValuedGraph mat = readMatrixDirectedValuedGraph(file);
+		System.out.println(mat);
+		Files.delete(file);
+	}
+}
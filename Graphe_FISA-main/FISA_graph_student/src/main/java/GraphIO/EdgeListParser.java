@@ -0,0 +1,377 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyList.AdjacencyListBuilder;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyList.AdjacencyListUndirectedValuedGraph;
+import Collection.IdDictionary;
+import GraphAlgorithms.GraphToolsParallel;
+
+/**
+ * Parallel parser of whitespace-separated edge lists, one "src dst [weight]" arc per line.
+ * Empty lines and lines starting with '#' or '%' are ignored, a missing weight is 0.
+ *
+ * The file is cut into chunks of about 64 MB ending on a newline, each chunk is mapped with
+ * FileChannel.map and parsed byte by byte by its own thread, without String or Scanner.
+ * A first pass counts the arcs of each chunk, so the second pass can fill the arrays of the
+ * edge list at the right offsets in parallel without any synchronisation.
+ */
+public class EdgeListParser {
+
+	private static final long CHUNK_SIZE = 64L << 20;
+
+	private EdgeListParser() {
+
+	}
+
+	// ------------------------------------------
+	// 				Parsing
+	// ------------------------------------------
+
+	/**
+	 * @return the arcs of the file in file order, the number of nodes being the largest label plus one
+	 */
+	public static EdgeList parse(Path path, int nbThreads) throws IOException {
+		if (nbThreads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive");
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long[] bounds = splitOnNewlines(channel, nbThreads);
+			int nbChunks = bounds.length - 1;
+			ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+			try {
+				long[] base = countArcs(path, channel, bounds, pool);
+				int m = (int) base[nbChunks];
+				int[] sources = new int[m];
+				int[] targets = new int[m];
+				int[] weights = new int[m];
+
+				// Pass 2: each chunk fills its own slice.
+				List<Future<ChunkResult>> fills = new ArrayList<>();
+				for (int k = 0; k < nbChunks; k++) {
+					final long start = bounds[k];
+					final long end = bounds[k + 1];
+					final int offset = (int) base[k];
+					fills.add(pool.submit(() -> parseChunk(channel, start, end, sources, targets, null, null, weights, offset)));
+				}
+				long maxLabel = -1;
+				for (Future<ChunkResult> f : fills) {
+					maxLabel = Math.max(maxLabel, get(f).maxLabel);
+				}
+				return new EdgeList((int) (maxLabel + 1), sources, targets, weights, m);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Parses a file whose node labels are arbitrary long ids, for instance sparse database keys.
+	 * The chunks are parsed in parallel into id columns, then the ids are translated in file
+	 * order through ids, so a new id gets the next free label. The number of nodes of the
+	 * result is the size of the dictionary, which may already hold ids before the call.
+	 *
+	 * @return the arcs of the file in file order, with dense labels
+	 */
+	public static EdgeList parse(Path path, IdDictionary ids, int nbThreads) throws IOException {
+		if (nbThreads <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive");
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long[] bounds = splitOnNewlines(channel, nbThreads);
+			int nbChunks = bounds.length - 1;
+			ExecutorService pool = Executors.newFixedThreadPool(nbThreads);
+			try {
+				long[] base = countArcs(path, channel, bounds, pool);
+				int m = (int) base[nbChunks];
+				long[] idSources = new long[m];
+				long[] idTargets = new long[m];
+				int[] weights = new int[m];
+				List<Future<ChunkResult>> fills = new ArrayList<>();
+				for (int k = 0; k < nbChunks; k++) {
+					final long start = bounds[k];
+					final long end = bounds[k + 1];
+					final int offset = (int) base[k];
+					fills.add(pool.submit(() -> parseChunk(channel, start, end, null, null, idSources, idTargets, weights, offset)));
+				}
+				for (Future<ChunkResult> f : fills) {
+					get(f);
+				}
+				// The dictionary is not thread-safe: the translation is sequential, one probe per id.
+				int[] sources = new int[m];
+				int[] targets = new int[m];
+				for (int i = 0; i < m; i++) {
+					sources[i] = ids.getOrAdd(idSources[i]);
+					targets[i] = ids.getOrAdd(idTargets[i]);
+				}
+				return new EdgeList(ids.size(), sources, targets, weights, m);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Pass 1 of the parsing: counts the data lines of each chunk.
+	 *
+	 * @return the index of the first arc of each chunk, the last entry being the number of arcs
+	 */
+	private static long[] countArcs(Path path, FileChannel channel, long[] bounds, ExecutorService pool) throws IOException {
+		int nbChunks = bounds.length - 1;
+		List<Future<ChunkResult>> counts = new ArrayList<>();
+		for (int k = 0; k < nbChunks; k++) {
+			final long start = bounds[k];
+			final long end = bounds[k + 1];
+			counts.add(pool.submit(() -> parseChunk(channel, start, end, null, null, null, null, null, 0)));
+		}
+		long[] base = new long[nbChunks + 1];
+		for (int k = 0; k < nbChunks; k++) {
+			base[k + 1] = base[k] + get(counts.get(k)).nbArcs;
+		}
+		if (base[nbChunks] > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException(path + " holds " + base[nbChunks] + " arcs, more than an edge list can hold");
+		}
+		return base;
+	}
+
+	/**
+	 * @return the CSR form of the file, the arcs of a node keeping the file order
+	 */
+	public static CSRGraph parseCSR(Path path, int nbThreads) throws IOException {
+		return CSRGraph.fromEdgeList(parse(path, nbThreads));
+	}
+
+	/**
+	 * @return the directed valued graph of the file, built in bulk with the same threads,
+	 * a repeated arc keeping its last weight
+	 */
+	public static AdjacencyListDirectedValuedGraph parseDirectedValuedGraph(Path path, int nbThreads) throws IOException {
+		return new AdjacencyListBuilder(parse(path, nbThreads)).setNbThreads(nbThreads).buildDirectedValued();
+	}
+
+	/**
+	 * @return the undirected valued graph of the file, where (u,v) and (v,u) are the same edge
+	 * and a repeated edge keeps its last weight
+	 */
+	public static AdjacencyListUndirectedValuedGraph parseUndirectedValuedGraph(Path path, int nbThreads) throws IOException {
+		return new AdjacencyListBuilder(parse(path, nbThreads)).setNbThreads(nbThreads).buildUndirectedValued();
+	}
+
+	private static ChunkResult get(Future<ChunkResult> f) throws IOException {
+		try {
+			return f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Parsing interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * @return the chunk bounds, each inner bound being just after a newline
+	 */
+	private static long[] splitOnNewlines(FileChannel channel, int nbThreads) throws IOException {
+		long size = channel.size();
+		long nbChunks = Math.max(nbThreads, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		nbChunks = Math.max(1, Math.min(nbChunks, Math.max(1, size / 4096)));
+		long[] bounds = new long[(int) nbChunks + 1];
+		ByteBuffer probe = ByteBuffer.allocate(4096);
+		int count = 1;
+		for (long k = 1; k < nbChunks; k++) {
+			long pos = Math.max(bounds[count - 1], k * size / nbChunks);
+			long cut = size;
+			while (pos < size) {
+				probe.clear();
+				int read = channel.read(probe, pos);
+				if (read <= 0) {
+					break;
+				}
+				int i = 0;
+				while (i < read && probe.get(i) != '\n') {
+					i++;
+				}
+				if (i < read) {
+					cut = pos + i + 1;
+					break;
+				}
+				pos += read;
+			}
+			if (cut > bounds[count - 1] && cut < size) {
+				bounds[count++] = cut;
+			}
+		}
+		bounds[count++] = size;
+		long[] result = new long[count];
+		System.arraycopy(bounds, 0, result, 0, count);
+		return result;
+	}
+
+	private static class ChunkResult {
+		long nbArcs;
+		long maxLabel = -1;
+	}
+
+	/**
+	 * Parses the bytes [start,end) of the file. When both sources and idSources are null the data
+	 * lines are only counted without parsing the numbers, otherwise the arcs are written from
+	 * index offset, the labels as ints in sources/targets or as any long in idSources/idTargets.
+	 */
+	private static ChunkResult parseChunk(FileChannel channel, long start, long end,
+			int[] sources, int[] targets, long[] idSources, long[] idTargets, int[] weights, int offset) throws IOException {
+		ChunkResult result = new ChunkResult();
+		if (end <= start) {
+			return result;
+		}
+		MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		int lim = buf.limit();
+		int pos = 0;
+		if (sources == null && idSources == null) {
+			boolean lineStart = true;
+			boolean data = false;
+			for (; pos < lim; pos++) {
+				byte b = buf.get(pos);
+				if (b == '\n') {
+					lineStart = true;
+					if (data) {
+						result.nbArcs++;
+						data = false;
+					}
+				} else if (lineStart && b != ' ' && b != '\t' && b != '\r') {
+					lineStart = false;
+					data = b != '#' && b != '%';
+				}
+			}
+			if (data) {
+				result.nbArcs++;
+			}
+			return result;
+		}
+		long[] fields = new long[3];
+		int out = offset;
+		while (pos < lim) {
+			byte b = buf.get(pos);
+			if (b == '\n' || b == ' ' || b == '\t' || b == '\r') {
+				pos++;
+				continue;
+			}
+			if (b == '#' || b == '%') {
+				while (pos < lim && buf.get(pos) != '\n') {
+					pos++;
+				}
+				continue;
+			}
+			int lineStart = pos;
+			int nbFields = 0;
+			while (pos < lim && (b = buf.get(pos)) != '\n') {
+				if (b == ' ' || b == '\t' || b == '\r' || b == ',') {
+					pos++;
+					continue;
+				}
+				boolean negative = false;
+				if (b == '-') {
+					negative = true;
+					pos++;
+				}
+				long value = 0;
+				int digits = 0;
+				long max = idSources != null && nbFields < 2 ? Long.MAX_VALUE : Integer.MAX_VALUE + 1L;
+				while (pos < lim && (b = buf.get(pos)) >= '0' && b <= '9') {
+					if (value > (max - (b - '0')) / 10) {
+						throw malformed(start + lineStart, "number too large");
+					}
+					value = value * 10 + (b - '0');
+					pos++;
+					digits++;
+				}
+				if (digits == 0 || nbFields == 3) {
+					throw malformed(start + lineStart, digits == 0 ? "unexpected character" : "more than 3 fields");
+				}
+				fields[nbFields++] = negative ? -value : value;
+			}
+			if (nbFields < 2) {
+				throw malformed(start + lineStart, "less than 2 fields");
+			}
+			long weight = nbFields == 3 ? fields[2] : 0;
+			if (weight > Integer.MAX_VALUE) {
+				throw malformed(start + lineStart, "weight too large");
+			}
+			if (idSources != null) {
+				idSources[out] = fields[0];
+				idTargets[out] = fields[1];
+			} else {
+				if (fields[0] < 0 || fields[1] < 0 || fields[0] > Integer.MAX_VALUE - 1 || fields[1] > Integer.MAX_VALUE - 1) {
+					throw malformed(start + lineStart, "invalid node label");
+				}
+				sources[out] = (int) fields[0];
+				targets[out] = (int) fields[1];
+				result.maxLabel = Math.max(result.maxLabel, Math.max(fields[0], fields[1]));
+			}
+			weights[out] = (int) weight;
+			out++;
+			result.nbArcs++;
+		}
+		return result;
+	}
+
+	private static IllegalArgumentException malformed(long position, String reason) {
+		return new IllegalArgumentException("Malformed edge line at byte " + position + ": " + reason);
+	}
+
+	public static void main(String[] args) throws IOException {
+		Path file = Files.createTempFile("edges", ".txt");
+		try (TextEdgeSink sink = new TextEdgeSink(file, true)) {
+			sink.writeLine("# random test graph");
+			GraphToolsParallel.generate(1000000, 20000000, false, false, true, true, true, 100001L,
+					Runtime.getRuntime().availableProcessors(), sink);
+		}
+		long size = Files.size(file);
+		long start = System.nanoTime();
+		EdgeList edges = parse(file, Runtime.getRuntime().availableProcessors());
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println("Parsed " + edges.size() + " arcs (" + size / (1 << 20) + " MB) in " + seconds + " s, "
+				+ (int) (size / (1 << 20) / seconds) + " MB/s");
+		System.out.println("Number of arcs = " + edges.size() + " (Should be 20000000) " + (edges.size() == 20000000 ? "✅" : "❌"));
+		Files.delete(file);
+
+		Path small = Files.createTempFile("edges", ".txt");
+		Files.write(small, "% small graph\n0 1 4\n1 2 3\n2 0 -1\n0 1 5\n".getBytes("US-ASCII"));
+		AdjacencyListDirectedValuedGraph g = parseDirectedValuedGraph(small, 2);
+		System.out.println(g);
+		boolean updated = g.getNbArcs() == 3 && g.getNodes().get(0).getArcSucc().get(0).getWeight() == 5;
+		System.out.println("Repeated arc (0,1) merged with weight 5? " + updated + " (Should be TRUE) " + (updated ? "✅" : "❌"));
+		System.out.println(parseUndirectedValuedGraph(small, 2));
+		Files.delete(small);
+
+		Path sparse = Files.createTempFile("edges", ".txt");
+		Files.write(sparse, "# sparse ids\n9000000000001 77 3\n77 -5 1\n-5 9000000000001 2\n".getBytes("US-ASCII"));
+		IdDictionary ids = new IdDictionary();
+		EdgeList mapped = parse(sparse, ids, 2);
+		System.out.println(mapped);
+		boolean dense = mapped.getNbNodes() == 3 && ids.idOf(mapped.getSource(0)) == 9000000000001L
+				&& ids.idOf(mapped.getTarget(1)) == -5 && mapped.getWeight(2) == 2;
+		System.out.println("Sparse ids mapped to 3 dense labels? " + dense + " (Should be TRUE) " + (dense ? "✅" : "❌"));
+		Files.delete(sparse);
+	}
+}
@@ -0,0 +1,389 @@
+package GraphIO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyList.AdjacencyListDirectedGraph;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyList.AdjacencyListUndirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import Nodes_Edges.Arc;
+import Nodes_Edges.DirectedNode;
+import Nodes_Edges.Edge;
+import Nodes_Edges.UndirectedNode;
+
+/**
+ * Streaming exporter of graphs to DOT, GraphML, JSON adjacency or CSV edge list.
+ * The text is written node by node to an Appendable, so a large graph is dumped with a
+ * constant memory footprint instead of the whole StringBuilder of toString().
+ *
+ * Only the nodes of [from, to) are exported, with the arcs between two of them.
+ * An undirected edge is written once (smallest label first) except in JSON, where each
+ * node lists all its neighbours. Weight 0 means unvalued and is omitted in DOT and GraphML.
+ * An exporter keeps the state of the export in progress and must not be shared between threads.
+ */
+public class GraphExporter {
+
+	public enum Format { DOT, GRAPHML, JSON, CSV }
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final Format format;
+	private final int from;
+	private final int to;
+
+	// State of the export in progress
+	private Appendable out;
+	private boolean directed;
+	private boolean firstNode;
+	private boolean firstArc;
+	private final char[] digits = new char[20];
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Exports every node.
+	 */
+	public GraphExporter(Format format) {
+		this(format, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Exports the nodes of [from, to) only, to is clamped to the number of nodes.
+	 */
+	public GraphExporter(Format format, int from, int to) {
+		if (format == null) {
+			throw new IllegalArgumentException("Format cannot be null");
+		}
+		if (from < 0 || to < from) {
+			throw new IllegalArgumentException("Invalid node range [" + from + ", " + to + ")");
+		}
+		this.format = format;
+		this.from = from;
+		this.to = to;
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	public Format getFormat() {
+		return format;
+	}
+
+	//--------------------------------------------------
+	// 				Methods
+	//--------------------------------------------------
+
+	public void export(AdjacencyListDirectedGraph g, Appendable out) throws IOException {
+		int end = Math.min(to, g.getNbNodes());
+		begin(out, true);
+		for (int u = from; u < end; u++) {
+			DirectedNode n = g.getNodes().get(u);
+			beginNode(u);
+			for (Arc a : n.getArcSucc()) {
+				arc(u, a.getSecondNode().getLabel(), a.getWeight(), end);
+			}
+			endNode();
+		}
+		end();
+	}
+
+	public void export(AdjacencyListUndirectedGraph g, Appendable out) throws IOException {
+		int end = Math.min(to, g.getNbNodes());
+		begin(out, false);
+		for (int u = from; u < end; u++) {
+			UndirectedNode n = g.getNodes().get(u);
+			beginNode(u);
+			for (Edge e : n.getIncidentEdges()) {
+				arc(u, e.getSecondNode().getLabel(), e.getWeight(), end);
+			}
+			endNode();
+		}
+		end();
+	}
+
+	/**
+	 * Every non-zero cell is an arc whose weight is the cell value. Only the columns of
+	 * the range are read, so the cost is O((to - from)^2) and not O(n^2).
+	 */
+	public void export(AdjacencyMatrixDirectedGraph g, Appendable out) throws IOException {
+		exportMatrix(g.getMatrix(), g.getNbNodes(), true, out);
+	}
+
+	public void export(AdjacencyMatrixUndirectedGraph g, Appendable out) throws IOException {
+		exportMatrix(g.getMatrix(), g.getNbNodes(), false, out);
+	}
+
+	/**
+	 * @param directed at false if the CSR graph stores each edge in both directions
+	 */
+	public void export(CSRGraph g, boolean directed, Appendable out) throws IOException {
+		int end = Math.min(to, g.getNbNodes());
+		begin(out, directed);
+		for (int u = from; u < end; u++) {
+			beginNode(u);
+			for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+				arc(u, g.getTarget(a), g.getWeight(a), end);
+			}
+			endNode();
+		}
+		end();
+	}
+
+	/**
+	 * Memory-mapped graphs are typically the ones too large for toString().
+	 */
+	public void export(MappedCSRGraph g, Appendable out) throws IOException {
+		int end = Math.min(to, g.getNbNodes());
+		begin(out, true);
+		for (int u = from; u < end; u++) {
+			beginNode(u);
+			for (long a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+				arc(u, g.getTarget(a), g.getWeight(a), end);
+			}
+			endNode();
+		}
+		end();
+	}
+
+	public void export(AdjacencyListDirectedGraph g, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, w);
+		w.flush();
+	}
+
+	public void export(AdjacencyListUndirectedGraph g, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, w);
+		w.flush();
+	}
+
+	public void export(AdjacencyMatrixDirectedGraph g, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, w);
+		w.flush();
+	}
+
+	public void export(AdjacencyMatrixUndirectedGraph g, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, w);
+		w.flush();
+	}
+
+	public void export(CSRGraph g, boolean directed, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, directed, w);
+		w.flush();
+	}
+
+	public void export(MappedCSRGraph g, OutputStream os) throws IOException {
+		Writer w = writer(os);
+		export(g, w);
+		w.flush();
+	}
+
+	/**
+	 * The stream is flushed but not closed, it still belongs to the caller.
+	 */
+	private static Writer writer(OutputStream os) {
+		return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	private void exportMatrix(int[][] matrix, int n, boolean directed, Appendable out) throws IOException {
+		int end = Math.min(to, n);
+		begin(out, directed);
+		for (int u = from; u < end; u++) {
+			beginNode(u);
+			for (int v = from; v < end; v++) {
+				if (matrix[u][v] != 0) {
+					arc(u, v, matrix[u][v], end);
+				}
+			}
+			endNode();
+		}
+		end();
+	}
+
+	private void begin(Appendable out, boolean directed) throws IOException {
+		this.out = out;
+		this.directed = directed;
+		this.firstNode = true;
+		switch (format) {
+			case DOT:
+				out.append(directed ? "digraph G {\n" : "graph G {\n");
+				break;
+			case GRAPHML:
+				out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+						.append("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n")
+						.append("  <key id=\"w\" for=\"edge\" attr.name=\"weight\" attr.type=\"int\"/>\n")
+						.append(directed ? "  <graph id=\"G\" edgedefault=\"directed\">\n" : "  <graph id=\"G\" edgedefault=\"undirected\">\n");
+				break;
+			case JSON:
+				out.append(directed ? "{\"directed\":true,\"nodes\":[" : "{\"directed\":false,\"nodes\":[");
+				break;
+			case CSV:
+				out.append("source,target,weight\n");
+				break;
+		}
+	}
+
+	private void beginNode(int u) throws IOException {
+		firstArc = true;
+		switch (format) {
+			case DOT:
+				out.append("  ");
+				number(u);
+				out.append(";\n");
+				break;
+			case GRAPHML:
+				out.append("    <node id=\"n");
+				number(u);
+				out.append("\"/>\n");
+				break;
+			case JSON:
+				out.append(firstNode ? "\n{\"id\":" : ",\n{\"id\":");
+				number(u);
+				out.append(",\"adj\":[");
+				break;
+			case CSV:
+				break;
+		}
+		firstNode = false;
+	}
+
+	/**
+	 * Writes the arc (u,v) if v is in the range and, for an undirected graph, if it is the
+	 * first time the edge is met.
+	 */
+	private void arc(int u, int v, int w, int end) throws IOException {
+		if (v < from || v >= end || (!directed && v < u && format != Format.JSON)) {
+			return;
+		}
+		switch (format) {
+			case DOT:
+				out.append("  ");
+				number(u);
+				out.append(directed ? " -> " : " -- ");
+				number(v);
+				if (w != 0) {
+					out.append(" [weight=");
+					number(w);
+					out.append(",label=");
+					number(w);
+					out.append(']');
+				}
+				out.append(";\n");
+				break;
+			case GRAPHML:
+				out.append("    <edge source=\"n");
+				number(u);
+				out.append("\" target=\"n");
+				number(v);
+				if (w != 0) {
+					out.append("\"><data key=\"w\">");
+					number(w);
+					out.append("</data></edge>\n");
+				} else {
+					out.append("\"/>\n");
+				}
+				break;
+			case JSON:
+				out.append(firstArc ? "[" : ",[");
+				number(v);
+				out.append(',');
+				number(w);
+				out.append(']');
+				break;
+			case CSV:
+				number(u);
+				out.append(',');
+				number(v);
+				out.append(',');
+				number(w);
+				out.append('\n');
+				break;
+		}
+		firstArc = false;
+	}
+
+	private void endNode() throws IOException {
+		if (format == Format.JSON) {
+			out.append("]}");
+		}
+	}
+
+	private void end() throws IOException {
+		switch (format) {
+			case DOT:
+				out.append("}\n");
+				break;
+			case GRAPHML:
+				out.append("  </graph>\n</graphml>\n");
+				break;
+			case JSON:
+				out.append("\n]}\n");
+				break;
+			case CSV:
+				break;
+		}
+		out = null;
+	}
+
+	/**
+	 * Appends the decimal digits of v without creating a String.
+	 */
+	private void number(long v) throws IOException {
+		if (v < 0) {
+			out.append('-');
+		} else {
+			v = -v;
+		}
+		// Digits are taken from the negative value, which also covers Long.MIN_VALUE.
+		int i = digits.length;
+		do {
+			digits[--i] = (char) ('0' - (v % 10));
+			v /= 10;
+		} while (v != 0);
+		for (; i < digits.length; i++) {
+			out.append(digits[i]);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int[][] matrix = {
+			{0, 3, 0, 4, 0},
+			{0, 0, 2, 0, 0},
+			{0, 0, 0, 5, 1},
+			{6, 0, 0, 0, 0},
+			{0, 7, 0, 0, 0}
+		};
+		AdjacencyListDirectedValuedGraph graph = new AdjacencyListDirectedValuedGraph(matrix);
+		for (Format f : Format.values()) {
+			System.out.println("--- " + f + " ---");
+			new GraphExporter(f).export(graph, (OutputStream) System.out);
+		}
+
+		System.out.println("--- CSV of the nodes [1, 4) ---");
+		StringBuilder s = new StringBuilder();
+		new GraphExporter(Format.CSV, 1, 4).export(graph, s);
+		System.out.print(s);
+		boolean filtered = s.toString().equals("source,target,weight\n1,2,2\n2,3,5\n");
+		System.out.println("Only arcs inside the range? " + filtered + " (Should be TRUE) " + (filtered ? "✅" : "❌"));
+
+		StringBuilder t = new StringBuilder();
+		new GraphExporter(Format.CSV).export(new AdjacencyMatrixUndirectedGraph(new int[][] {{0, 1, 1}, {1, 0, 0}, {1, 0, 0}}), t);
+		boolean once = t.toString().equals("source,target,weight\n0,1,1\n0,2,1\n");
+		System.out.println("Undirected edges written once? " + once + " (Should be TRUE) " + (once ? "✅" : "❌"));
+	}
+}
@@ -0,0 +1,558 @@
+package GraphIO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import Abstraction.IGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import GraphAlgorithms.GraphToolsList;
+import GraphAlgorithms.GraphToolsParallel;
+import GraphAlgorithms.ShortestPaths;
+
+/**
+ * Embeddable server answering queries on a graph kept in memory, over a line protocol on TCP.
+ * Each request is one line of ASCII words, each answer one line starting with OK or ERR:
+ *
+ *   PATH s t       OK distance s ... t   (OK INF when t cannot be reached)
+ *   REACH s t      OK true | OK false
+ *   NEIGHBORS u    OK degree v:w v:w ...
+ *   MST [s]        OK weight of a minimum spanning tree of the component of s (0 by default),
+ *                  for a graph whose arcs go both ways
+ *   PING           OK PONG
+ *   QUIT           closes the connection
+ *
+ * Each connection has its own thread: a virtual thread when the JDK has them (21+, found by
+ * reflection), a platform thread otherwise. The queries themselves run on a bounded pool of
+ * workers whose queue is bounded too: when it is full the answer is ERR BUSY at once, and the
+ * client should retry later. Requests of a connection are answered one at a time, so a client
+ * sending faster than it reads is slowed down by TCP itself. Connections beyond the maximum are
+ * answered ERR BUSY and closed.
+ *
+ * The graph is only read: it can be changed while the server runs only if it is made for it,
+ * such as a ConcurrentDirectedGraph.
+ */
+public class GraphQueryServer implements Closeable {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	public static final int MAX_LINE = 1024;
+	private static final long ACCEPT_BACKOFF_MILLIS = 50;
+
+	private final IGraph graph;
+	private int nbWorkers;
+	private int queueCapacity;
+	private int maxConnections;
+
+	private ServerSocket serverSocket;
+	private Thread acceptor;
+	private ExecutorService connections;
+	private ThreadPoolExecutor workers;
+	private Semaphore connectionSlots;
+	private final Set<Socket> openSockets;
+	private boolean virtualThreads;
+	private volatile boolean running;
+	private final LongAdder nbRequests;
+	private final LongAdder nbRejected;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public GraphQueryServer(IGraph graph) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null");
+		}
+		this.graph = graph;
+		this.nbWorkers = Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = 64 * nbWorkers;
+		this.maxConnections = 1024;
+		this.nbRequests = new LongAdder();
+		this.nbRejected = new LongAdder();
+		this.openSockets = ConcurrentHashMap.newKeySet();
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	/**
+	 * @param nbWorkers the number of queries run at the same time
+	 */
+	public GraphQueryServer setNbWorkers(int nbWorkers) {
+		if (nbWorkers <= 0) {
+			throw new IllegalArgumentException("Number of workers must be positive");
+		}
+		checkNotStarted();
+		this.nbWorkers = nbWorkers;
+		return this;
+	}
+
+	/**
+	 * @param queueCapacity the number of queries waiting for a worker before ERR BUSY
+	 */
+	public GraphQueryServer setQueueCapacity(int queueCapacity) {
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("Queue capacity must be positive");
+		}
+		checkNotStarted();
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+	public GraphQueryServer setMaxConnections(int maxConnections) {
+		if (maxConnections <= 0) {
+			throw new IllegalArgumentException("Maximum number of connections must be positive");
+		}
+		checkNotStarted();
+		this.maxConnections = maxConnections;
+		return this;
+	}
+
+	public IGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the port the server listens to, once started
+	 */
+	public int getPort() {
+		if (serverSocket == null) {
+			throw new IllegalStateException("Server not started");
+		}
+		return serverSocket.getLocalPort();
+	}
+
+	public boolean isUsingVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * @return the number of requests answered, ERR BUSY included
+	 */
+	public long getNbRequests() {
+		return nbRequests.sum();
+	}
+
+	/**
+	 * @return the number of requests and connections turned down with ERR BUSY
+	 */
+	public long getNbRejected() {
+		return nbRejected.sum();
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Listens on the loopback interface.
+	 *
+	 * @param port the port, 0 for any free one
+	 * @return the port listened to
+	 */
+	public int start(int port) throws IOException {
+		return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+	}
+
+	public synchronized int start(InetSocketAddress address) throws IOException {
+		checkNotStarted();
+		ServerSocket socket = new ServerSocket();
+		try {
+			socket.bind(address, Math.min(maxConnections, 1024));
+		} catch (IOException | RuntimeException e) {
+			socket.close();
+			throw e;
+		}
+		serverSocket = socket;
+		workers = new ThreadPoolExecutor(nbWorkers, nbWorkers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), daemonThreads("graph-query-worker"));
+		connections = newConnectionExecutor();
+		connectionSlots = new Semaphore(maxConnections);
+		running = true;
+		acceptor = daemonThreads("graph-query-acceptor").newThread(this::acceptLoop);
+		acceptor.start();
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * One virtual thread per connection from Executors.newVirtualThreadPerTaskExecutor() when the
+	 * JDK has it, else up to maxConnections platform threads.
+	 */
+	private ExecutorService newConnectionExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			ExecutorService executor = (ExecutorService) factory.invoke(null);
+			virtualThreads = true;
+			return executor;
+		} catch (ReflectiveOperationException e) {
+			virtualThreads = false;
+			return new ThreadPoolExecutor(0, maxConnections, 30L, TimeUnit.SECONDS,
+					new SynchronousQueue<Runnable>(), daemonThreads("graph-query-connection"));
+		}
+	}
+
+	private static ThreadFactory daemonThreads(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return r -> {
+			Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		};
+	}
+
+	private void acceptLoop() {
+		while (running) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				if (!running) {
+					return;
+				}
+				// Out of file descriptors for instance: wait for connections to close instead of spinning
+				try {
+					Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+				} catch (InterruptedException interrupted) {
+					return;
+				}
+				continue;
+			}
+			if (!connectionSlots.tryAcquire()) {
+				nbRejected.increment();
+				refuse(socket);
+				continue;
+			}
+			try {
+				connections.execute(() -> {
+					try {
+						serve(socket);
+					} finally {
+						connectionSlots.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				connectionSlots.release();
+				refuse(socket);
+			}
+		}
+	}
+
+	private static void refuse(Socket socket) {
+		try (Socket s = socket) {
+			s.getOutputStream().write("ERR BUSY\n".getBytes(StandardCharsets.US_ASCII));
+		} catch (IOException e) {
+			// The client left already
+		}
+	}
+
+	private void serve(Socket socket) {
+		openSockets.add(socket);
+		try (Socket s = socket) {
+			s.setTcpNoDelay(true);
+			InputStream in = new BufferedInputStream(s.getInputStream());
+			OutputStream out = new BufferedOutputStream(s.getOutputStream());
+			String line;
+			while (running && (line = readLine(in)) != null) {
+				String request = line.trim();
+				if (request.equalsIgnoreCase("QUIT")) {
+					break;
+				}
+				String answer = request.isEmpty() ? null : submit(request);
+				if (answer != null) {
+					out.write(answer.getBytes(StandardCharsets.US_ASCII));
+					out.write('\n');
+					out.flush();
+				}
+			}
+		} catch (IOException e) {
+			// Connection reset, closed by close() or line too long: the connection is dropped
+		} finally {
+			openSockets.remove(socket);
+		}
+	}
+
+	/**
+	 * @return the line without its end, or null at the end of the stream
+	 */
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+		int b;
+		while ((b = in.read()) != -1 && b != '\n') {
+			if (line.size() == MAX_LINE) {
+				throw new IOException("Request longer than " + MAX_LINE + " bytes");
+			}
+			if (b != '\r') {
+				line.write(b);
+			}
+		}
+		if (b == -1 && line.size() == 0) {
+			return null;
+		}
+		return new String(line.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Runs the request on a worker and waits for its answer.
+	 */
+	private String submit(String request) {
+		nbRequests.increment();
+		Future<String> answer;
+		try {
+			answer = workers.submit(() -> answer(request));
+		} catch (RejectedExecutionException e) {
+			nbRejected.increment();
+			return "ERR BUSY";
+		}
+		try {
+			return answer.get();
+		} catch (InterruptedException e) {
+			answer.cancel(true);
+			Thread.currentThread().interrupt();
+			return "ERR interrupted";
+		} catch (ExecutionException e) {
+			return "ERR " + message(e.getCause());
+		}
+	}
+
+	/**
+	 * Answers one request in the calling thread, the errors of the client being answered ERR.
+	 */
+	public String answer(String request) {
+		String[] words = request.trim().split("\\s+");
+		try {
+			switch (words[0].toUpperCase(Locale.ROOT)) {
+			case "PING":
+				return "OK PONG";
+			case "PATH": {
+				checkArguments(words, 2);
+				int s = node(words[1]);
+				int t = node(words[2]);
+				ShortestPaths paths = GraphToolsList.dijkstra(graph, s);
+				if (!paths.isReachable(t)) {
+					return "OK INF";
+				}
+				StringBuilder sb = new StringBuilder("OK ").append(paths.getDistance(t));
+				for (int v : paths.getPath(t)) {
+					sb.append(' ').append(v);
+				}
+				return sb.toString();
+			}
+			case "REACH": {
+				checkArguments(words, 2);
+				int s = node(words[1]);
+				int t = node(words[2]);
+				return "OK " + GraphToolsList.parcoursBFSLargeur(graph, s).isReached(t);
+			}
+			case "NEIGHBORS": {
+				checkArguments(words, 1);
+				int u = node(words[1]);
+				StringBuilder sb = new StringBuilder();
+				int[] degree = {0};
+				graph.forEachArc(u, (v, w) -> {
+					sb.append(' ').append(v).append(':').append(w);
+					degree[0]++;
+				});
+				return "OK " + degree[0] + sb;
+			}
+			case "MST": {
+				if (words.length > 2) {
+					throw new IllegalArgumentException("MST takes at most 1 argument");
+				}
+				int s = words.length == 2 ? node(words[1]) : node("0");
+				return "OK " + GraphToolsList.primWeight(graph, s);
+			}
+			default:
+				return "ERR unknown request " + words[0];
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			return "ERR " + message(e);
+		}
+	}
+
+	/**
+	 * @return the message of e, or its class name when it has none
+	 */
+	private static String message(Throwable e) {
+		return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+	}
+
+	private static void checkArguments(String[] words, int count) {
+		if (words.length != count + 1) {
+			throw new IllegalArgumentException(words[0].toUpperCase(Locale.ROOT) + " takes " + count + " argument" + (count > 1 ? "s" : ""));
+		}
+	}
+
+	private int node(String word) {
+		int v;
+		try {
+			v = Integer.parseInt(word);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a node: " + word);
+		}
+		if (v < 0 || v >= graph.getNbNodes()) {
+			throw new IndexOutOfBoundsException("Vertex " + v + " is out of bounds (0.." + (graph.getNbNodes() - 1) + ")");
+		}
+		return v;
+	}
+
+	private void checkNotStarted() {
+		if (serverSocket != null) {
+			throw new IllegalStateException("Server already started");
+		}
+	}
+
+	/**
+	 * Stops accepting and drops the open connections, letting the running queries finish.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		serverSocket.close();
+		for (Socket socket : openSockets) {
+			socket.close();
+		}
+		connections.shutdown();
+		workers.shutdown();
+		try {
+			acceptor.join(TimeUnit.SECONDS.toMillis(10));
+			workers.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Blocking client of the protocol, one request at a time.
+	 */
+	public static final class Client implements Closeable {
+
+		private final Socket socket;
+		private final InputStream in;
+		private final OutputStream out;
+
+		public Client(String host, int port) throws IOException {
+			this.socket = new Socket(host, port);
+			socket.setTcpNoDelay(true);
+			this.in = new BufferedInputStream(socket.getInputStream());
+			this.out = new BufferedOutputStream(socket.getOutputStream());
+		}
+
+		/**
+		 * @return the answer line, or null if the server closed the connection
+		 */
+		public String send(String request) throws IOException {
+			out.write(request.getBytes(StandardCharsets.US_ASCII));
+			out.write('\n');
+			out.flush();
+			return readLine(in);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				out.write("QUIT\n".getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+			} catch (SocketException e) {
+				// Already closed by the server
+			} finally {
+				socket.close();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		EdgeList edges = GraphToolsParallel.generateValuedEdgeList(20000, 100000L, false, true, true, false, 50L, 1);
+		CSRGraph graph = CSRGraph.fromEdgeList(edges);
+		try (GraphQueryServer server = new GraphQueryServer(graph).setNbWorkers(2).setQueueCapacity(4)) {
+			int port = server.start(0);
+			System.out.println("Listening on localhost:" + port + (server.isUsingVirtualThreads() ? " with virtual threads" : " with platform threads"));
+			try (Client client = new Client("localhost", port)) {
+				System.out.println("PING -> " + client.send("PING"));
+				System.out.println("PATH 0 7 -> " + client.send("PATH 0 7"));
+				System.out.println("NEIGHBORS 3 -> " + client.send("NEIGHBORS 3"));
+				System.out.println("REACH 0 -1 -> " + client.send("REACH 0 -1"));
+				System.out.println("HELLO -> " + client.send("HELLO"));
+			}
+
+			int nbClients = 32;
+			int perClient = 20;
+			ExecutorService clients = Executors.newFixedThreadPool(nbClients);
+			List<Future<int[]>> results = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int c = 0; c < nbClients; c++) {
+				final long seed = c;
+				results.add(clients.submit((Callable<int[]>) () -> {
+					int[] counts = {0, 0, 0};	// Right answers, wrong answers, ERR BUSY
+					Random rand = new Random(seed);
+					try (Client client = new Client("localhost", port)) {
+						for (int i = 0; i < perClient; i++) {
+							int s = rand.nextInt(graph.getNbNodes());
+							int t = rand.nextInt(graph.getNbNodes());
+							String request = i % 4 == 3 ? "MST " + s : (i % 2 == 0 ? "PATH " : "REACH ") + s + " " + t;
+							String got = client.send(request);
+							if ("ERR BUSY".equals(got)) {
+								counts[2]++;
+							} else if (server.answer(request).equals(got)) {
+								counts[0]++;
+							} else {
+								counts[1]++;
+							}
+						}
+					}
+					return counts;
+				}));
+			}
+			int[] total = new int[3];
+			for (Future<int[]> f : results) {
+				int[] counts = f.get();
+				for (int k = 0; k < 3; k++) {
+					total[k] += counts[k];
+				}
+			}
+			long ms = (System.nanoTime() - start) / 1000000;
+			clients.shutdown();
+			System.out.println(nbClients * perClient + " requests from " + nbClients + " clients in " + ms + " ms: " + total[0]
+					+ " answered, " + total[2] + " turned down with ERR BUSY by a queue of 4");
+			boolean right = total[1] == 0 && total[0] + total[2] == nbClients * perClient && total[0] > 0;
+			System.out.println("Every answer matches the graph? " + right + " (Should be TRUE) " + (right ? "✅" : "❌"));
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+import Abstraction.ArcConsumer;
+import Abstraction.IDirectedGraph;
+import AdjacencyCSR.CSRGraph;
+import GraphAlgorithms.GraphToolsParallel;
+
+/**
+ * This class represents a read-only directed graph in CSR form, backed by a file in the
+ * BinaryGraphFormat mapped in memory. Opening only reads the header and maps the sections:
+ * no array is copied on the heap and the operating system loads the pages on demand.
+ * Arc indices are long, so the graph may hold more than 2^31 arcs.
+ */
+public class MappedCSRGraph implements IDirectedGraph, Closeable {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final FileChannel channel;
+	private final int nbNodes;
+	private final long nbArcs;
+	private final MappedLongArray offsets;
+	private final MappedIntArray targets;
+	private final MappedIntArray weights;			// null if the file has no weights
+	private final MappedLongArray reverseOffsets;	// null if the file has no reverse index
+	private final MappedIntArray reverseSources;
+	private final MappedIntArray reverseWeights;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	private MappedCSRGraph(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+				// Read the whole header.
+			}
+			if (header.hasRemaining()) {
+				throw new IOException(path + " is too short to be a graph file");
+			}
+			header.flip();
+			if (header.getInt() != BinaryGraphFormat.MAGIC) {
+				throw new IOException(path + " is not a graph file (bad magic number)");
+			}
+			int version = header.getInt();
+			if (version != BinaryGraphFormat.VERSION) {
+				throw new IOException("Unsupported graph file version " + version + " in " + path);
+			}
+			int flags = header.getInt();
+			header.getInt();
+			long n = header.getLong();
+			this.nbArcs = header.getLong();
+			if (n < 0 || n > Integer.MAX_VALUE - 1 || nbArcs < 0) {
+				throw new IOException("Invalid graph size in " + path);
+			}
+			this.nbNodes = (int) n;
+			long offsetsPos = header.getLong();
+			long targetsPos = header.getLong();
+			long weightsPos = header.getLong();
+			long reverseOffsetsPos = header.getLong();
+			long reverseSourcesPos = header.getLong();
+			long reverseWeightsPos = header.getLong();
+
+			long end = Math.max(offsetsPos + 8 * (n + 1), targetsPos + 4 * nbArcs);
+			if ((flags & BinaryGraphFormat.FLAG_WEIGHTS) != 0) {
+				end = Math.max(end, weightsPos + 4 * nbArcs);
+			}
+			if ((flags & BinaryGraphFormat.FLAG_REVERSE) != 0) {
+				end = Math.max(end, Math.max(reverseOffsetsPos + 8 * (n + 1), reverseSourcesPos + 4 * nbArcs));
+				if ((flags & BinaryGraphFormat.FLAG_WEIGHTS) != 0) {
+					end = Math.max(end, reverseWeightsPos + 4 * nbArcs);
+				}
+			}
+			if (end > channel.size()) {
+				throw new IOException(path + " is truncated: " + channel.size() + " bytes, " + end + " expected");
+			}
+
+			this.offsets = new MappedLongArray(channel, offsetsPos, n + 1);
+			this.targets = new MappedIntArray(channel, targetsPos, nbArcs);
+			this.weights = (flags & BinaryGraphFormat.FLAG_WEIGHTS) != 0 ? new MappedIntArray(channel, weightsPos, nbArcs) : null;
+			if ((flags & BinaryGraphFormat.FLAG_REVERSE) != 0) {
+				this.reverseOffsets = new MappedLongArray(channel, reverseOffsetsPos, n + 1);
+				this.reverseSources = new MappedIntArray(channel, reverseSourcesPos, nbArcs);
+				this.reverseWeights = this.weights != null ? new MappedIntArray(channel, reverseWeightsPos, nbArcs) : null;
+			} else {
+				this.reverseOffsets = null;
+				this.reverseSources = null;
+				this.reverseWeights = null;
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Maps the graph file at path. Only the 128 bytes of the header are read.
+	 */
+	public static MappedCSRGraph open(Path path) throws IOException {
+		return new MappedCSRGraph(path);
+	}
+
+	//--------------------------------------------------
+	// 					Accessors
+	//--------------------------------------------------
+
+	@Override
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	public long getNbArcs() {
+		return nbArcs;
+	}
+
+	public boolean hasWeights() {
+		return weights != null;
+	}
+
+	public boolean hasReverseIndex() {
+		return reverseOffsets != null;
+	}
+
+	/**
+	 * @return the index of the first out-going arc of u
+	 */
+	public long getFirstArc(int u) {
+		return offsets.get(u);
+	}
+
+	/**
+	 * @return the index following the last out-going arc of u
+	 */
+	public long getEndArc(int u) {
+		return offsets.get(u + 1L);
+	}
+
+	public int getOutDegree(int u) {
+		return (int) (offsets.get(u + 1L) - offsets.get(u));
+	}
+
+	/**
+	 * @return the destination of the arc stored at index a
+	 */
+	public int getTarget(long a) {
+		return targets.get(a);
+	}
+
+	/**
+	 * @return the weight of the arc stored at index a, 0 if the file has no weights
+	 */
+	public int getWeight(long a) {
+		return weights == null ? 0 : weights.get(a);
+	}
+
+	/**
+	 * @return the index of the first in-coming arc of v in the reverse index
+	 */
+	public long getFirstReverseArc(int v) {
+		checkReverse();
+		return reverseOffsets.get(v);
+	}
+
+	public long getEndReverseArc(int v) {
+		checkReverse();
+		return reverseOffsets.get(v + 1L);
+	}
+
+	public int getInDegree(int v) {
+		checkReverse();
+		return (int) (reverseOffsets.get(v + 1L) - reverseOffsets.get(v));
+	}
+
+	/**
+	 * @return the origin of the in-coming arc stored at index r of the reverse index
+	 */
+	public int getSource(long r) {
+		checkReverse();
+		return reverseSources.get(r);
+	}
+
+	public int getReverseWeight(long r) {
+		checkReverse();
+		return reverseWeights == null ? 0 : reverseWeights.get(r);
+	}
+
+	private void checkReverse() {
+		if (reverseOffsets == null) {
+			throw new UnsupportedOperationException("The graph file has no reverse index");
+		}
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	@Override
+	public void forEachSuccessor(int u, IntConsumer action) {
+		for (long a = offsets.get(u), end = offsets.get(u + 1L); a < end; a++) {
+			action.accept(targets.get(a));
+		}
+	}
+
+	/**
+	 * Reads the reverse index, which the file must hold.
+	 */
+	@Override
+	public void forEachPredecessor(int v, IntConsumer action) {
+		checkReverse();
+		for (long r = reverseOffsets.get(v), end = reverseOffsets.get(v + 1L); r < end; r++) {
+			action.accept(reverseSources.get(r));
+		}
+	}
+
+	@Override
+	public void forEachArc(int u, ArcConsumer action) {
+		for (long a = offsets.get(u), end = offsets.get(u + 1L); a < end; a++) {
+			action.accept(targets.get(a), weights == null ? 0 : weights.get(a));
+		}
+	}
+
+	/**
+	 * Reads the reverse index, which the file must hold.
+	 */
+	@Override
+	public void forEachInArc(int v, ArcConsumer action) {
+		checkReverse();
+		for (long r = reverseOffsets.get(v), end = reverseOffsets.get(v + 1L); r < end; r++) {
+			action.accept(reverseSources.get(r), reverseWeights == null ? 0 : reverseWeights.get(r));
+		}
+	}
+
+	/**
+	 * @return true if the arc (from,to) exists in the graph, in O(outdegree(from))
+	 */
+	public boolean isArc(int from, int to) {
+		for (long a = getFirstArc(from); a < getEndArc(from); a++) {
+			if (targets.get(a) == to) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return a copy of the graph on the heap, which requires less than 2^31 arcs
+	 */
+	public CSRGraph toCSRGraph() {
+		if (nbArcs > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many arcs to copy the graph on the heap: " + nbArcs);
+		}
+		int[] o = new int[nbNodes + 1];
+		for (int u = 0; u <= nbNodes; u++) {
+			o[u] = (int) offsets.get(u);
+		}
+		int[] t = new int[(int) nbArcs];
+		int[] w = new int[(int) nbArcs];
+		for (int a = 0; a < nbArcs; a++) {
+			t[a] = targets.get(a);
+			w[a] = getWeight(a);
+		}
+		return new CSRGraph(o, t, w);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	public static void main(String[] args) throws IOException {
+		CSRGraph g = CSRGraph.fromEdgeList(GraphToolsParallel.generateValuedEdgeList(1000000, 10000000,
+				false, false, true, false, 100001L, Runtime.getRuntime().availableProcessors()));
+		Path file = Files.createTempFile("graph", ".grph");
+		BinaryGraphFormat.write(g, file, true, true);
+		System.out.println("Written " + Files.size(file) + " bytes");
+
+		long start = System.nanoTime();
+		try (MappedCSRGraph mapped = open(file)) {
+			long opened = System.nanoTime();
+			System.out.println("Opened in " + (opened - start) / 1000 + " µs");
+			boolean same = mapped.getNbNodes() == g.getNbNodes() && mapped.getNbArcs() == g.getNbArcs();
+			for (int u = 0; same && u < g.getNbNodes(); u += 997) {
+				same = mapped.getOutDegree(u) == g.getOutDegree(u);
+				for (int a = g.getFirstArc(u); same && a < g.getEndArc(u); a++) {
+					same = mapped.getTarget(a) == g.getTarget(a) && mapped.getWeight(a) == g.getWeight(a);
+				}
+			}
+			System.out.println("Mapped graph equals the written one? " + same + " (Should be TRUE) " + (same ? "✅" : "❌"));
+			int v = g.getTarget(0);
+			boolean found = false;
+			for (long r = mapped.getFirstReverseArc(v); r < mapped.getEndReverseArc(v); r++) {
+				found |= mapped.getSource(r) == 0;
+			}
+			System.out.println("Node 0 is a predecessor of " + v + "? " + found + " (Should be TRUE) " + (found ? "✅" : "❌"));
+		}
+		Files.delete(file);
+	}
+}
@@ -0,0 +1,42 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only long array of any length mapped from a file region. A single mapping is
+ * limited to 2 GB, so the region is mapped in segments of 2^27 longs.
+ */
+class MappedLongArray {
+
+	private static final int SEGMENT_SHIFT = 27;
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	private final LongBuffer[] segments;
+	private final long length;
+
+	MappedLongArray(FileChannel channel, long position, long length) throws IOException {
+		this.length = length;
+		int nbSegments = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		this.segments = new LongBuffer[Math.max(1, nbSegments)];
+		if (nbSegments == 0) {
+			this.segments[0] = LongBuffer.allocate(0);
+		}
+		for (int k = 0; k < nbSegments; k++) {
+			long start = (long) k << SEGMENT_SHIFT;
+			long size = Math.min(length - start, 1L << SEGMENT_SHIFT);
+			this.segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, position + 8 * start, 8 * size)
+					.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+		}
+	}
+
+	long length() {
+		return length;
+	}
+
+	long get(long i) {
+		return segments[(int) (i >>> SEGMENT_SHIFT)].get((int) (i & SEGMENT_MASK));
+	}
+}
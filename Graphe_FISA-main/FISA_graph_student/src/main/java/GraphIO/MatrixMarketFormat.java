@@ -0,0 +1,277 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.EdgeSink;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyList.AdjacencyListDirectedGraph;
+import AdjacencyList.AdjacencyListDirectedValuedGraph;
+import AdjacencyList.AdjacencyListUndirectedGraph;
+import AdjacencyList.AdjacencyListUndirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixDirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import Nodes_Edges.Arc;
+import Nodes_Edges.DirectedNode;
+import Nodes_Edges.Edge;
+
+/**
+ * Reader and writer of the coordinate Matrix Market format (.mtx) of the SuiteSparse collection:
+ * <pre>
+ * %%MatrixMarket matrix coordinate real|integer|pattern general|symmetric|skew-symmetric
+ * % comment
+ * rows cols entries
+ * i j [value]   (indices from 1)
+ * </pre>
+ * An entry (i,j) is the arc i-1 -> j-1. Symmetric files only store the lower triangle and
+ * every entry off the diagonal is mirrored when reading. Real values are rounded to the
+ * nearest int and pattern entries get weight 0, the "unvalued" weight of the library.
+ */
+public class MatrixMarketFormat {
+
+	private static final String BANNER = "%%MatrixMarket";
+
+	private MatrixMarketFormat() {
+
+	}
+
+	// ------------------------------------------
+	// 				Readers
+	// ------------------------------------------
+
+	/**
+	 * Streams the arcs of the file to sink, mirrored entries included.
+	 *
+	 * @return the number of nodes, that is max(rows, cols)
+	 */
+	public static int read(Path path, EdgeSink sink) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			long[] header = readHeader(in);
+			readEntries(in, header, sink);
+			return (int) header[0];
+		}
+	}
+
+	/**
+	 * @return the arcs of the file, mirrored entries included
+	 */
+	public static EdgeList read(Path path) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			long[] header = readHeader(in);
+			long capacity = header[2] == 0 ? header[1] : 2 * header[1];
+			EdgeList edges = new EdgeList((int) header[0], (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+			readEntries(in, header, edges);
+			return edges;
+		}
+	}
+
+	public static AdjacencyListDirectedValuedGraph readDirectedValuedGraph(Path path) throws IOException {
+		return GraphConverter.toDirectedValuedGraph(read(path));
+	}
+
+	/**
+	 * Expects a symmetric file, or a general one listing each edge in one or both directions.
+	 */
+	public static AdjacencyListUndirectedValuedGraph readUndirectedValuedGraph(Path path) throws IOException {
+		return GraphConverter.toUndirectedValuedGraph(read(path));
+	}
+
+	/**
+	 * Only meant for small graphs, the matrix costs O(n^2) and only keeps positive weights.
+	 */
+	public static AdjacencyMatrixDirectedValuedGraph readMatrixDirectedValuedGraph(Path path) throws IOException {
+		return new AdjacencyMatrixDirectedValuedGraph(read(path).toAdjacencyMatrix());
+	}
+
+	/**
+	 * @return {n, entries, symmetry (0 general, 1 symmetric, -1 skew-symmetric), field (0 pattern, 1 integer, 2 real)}
+	 */
+	private static long[] readHeader(TextReader in) throws IOException {
+		if (in.peekLineStart() != '%') {
+			throw in.error("Matrix Market banner expected");
+		}
+		String[] banner = in.readLine().trim().toLowerCase(Locale.ROOT).split("[ \t]+");
+		if (banner.length != 5 || !banner[0].equals(BANNER.toLowerCase(Locale.ROOT)) || !banner[1].equals("matrix")) {
+			throw in.error("Matrix Market banner expected");
+		}
+		if (!banner[2].equals("coordinate")) {
+			throw in.error("only the coordinate format is supported, not " + banner[2]);
+		}
+		long field;
+		switch (banner[3]) {
+			case "pattern": field = 0; break;
+			case "integer": field = 1; break;
+			case "real": field = 2; break;
+			default: throw in.error("unsupported field " + banner[3]);
+		}
+		long symmetry;
+		switch (banner[4]) {
+			case "general": symmetry = 0; break;
+			case "symmetric": symmetry = 1; break;
+			case "skew-symmetric": symmetry = -1; break;
+			default: throw in.error("unsupported symmetry " + banner[4]);
+		}
+		while (in.peekLineStart() == '%' || in.peekLineStart() == '\n') {
+			in.skipLine();
+		}
+		long rows = in.nextLong();
+		long cols = in.nextLong();
+		long entries = in.nextLong();
+		in.endLine();
+		long n = Math.max(rows, cols);
+		if (rows < 0 || cols < 0 || n > Integer.MAX_VALUE - 1 || entries < 0) {
+			throw in.error("invalid size line");
+		}
+		if (symmetry != 0 && rows != cols) {
+			throw in.error("a " + banner[4] + " matrix must be square");
+		}
+		return new long[] {n, entries, symmetry, field};
+	}
+
+	private static void readEntries(TextReader in, long[] header, EdgeSink sink) throws IOException {
+		int n = (int) header[0];
+		long read = 0;
+		int b;
+		while ((b = in.peekLineStart()) >= 0) {
+			if (b == '%' || b == '\n') {
+				in.skipLine();
+				continue;
+			}
+			int i = in.nextInt() - 1;
+			int j = in.nextInt() - 1;
+			int w;
+			if (header[3] == 0) {
+				w = 0;
+			} else if (header[3] == 1) {
+				w = in.nextInt();
+			} else {
+				w = (int) Math.round(in.nextDouble());
+			}
+			in.endLine();
+			if (i < 0 || i >= n || j < 0 || j >= n) {
+				throw in.error("entry (" + (i + 1) + "," + (j + 1) + ") out of range 1.." + n);
+			}
+			sink.accept(i, j, w);
+			if (header[2] != 0 && i != j) {
+				sink.accept(j, i, header[2] < 0 ? -w : w);
+			}
+			read++;
+		}
+		if (read != header[1]) {
+			throw in.error(header[1] + " entries announced, " + read + " found");
+		}
+	}
+
+	// ------------------------------------------
+	// 				Writers
+	// ------------------------------------------
+
+	public static void write(AdjacencyListDirectedGraph g, Path path) throws IOException {
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, "general", g.getNbNodes(), g.getArcs().size());
+			for (DirectedNode n : g.getNodes()) {
+				for (Arc a : n.getArcSucc()) {
+					writeEntry(out, a.getFirstNode().getLabel(), a.getSecondNode().getLabel(), a.getWeight());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the lower triangle of the graph as a symmetric matrix.
+	 */
+	public static void write(AdjacencyListUndirectedGraph g, Path path) throws IOException {
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, "symmetric", g.getNbNodes(), g.getEdges().size());
+			for (Edge e : g.getEdges()) {
+				int u = e.getFirstNode().getLabel();
+				int v = e.getSecondNode().getLabel();
+				writeEntry(out, Math.max(u, v), Math.min(u, v), e.getWeight());
+			}
+		}
+	}
+
+	/**
+	 * Writes every non-zero cell of the matrix.
+	 */
+	public static void write(AdjacencyMatrixDirectedGraph g, Path path) throws IOException {
+		writeMatrix(g.getMatrix(), g.getNbNodes(), false, path);
+	}
+
+	/**
+	 * Writes every non-zero cell of the lower triangle of the matrix as a symmetric matrix.
+	 */
+	public static void write(AdjacencyMatrixUndirectedGraph g, Path path) throws IOException {
+		writeMatrix(g.getMatrix(), g.getNbNodes(), true, path);
+	}
+
+	public static void write(CSRGraph g, Path path) throws IOException {
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, "general", g.getNbNodes(), g.getNbArcs());
+			for (int u = 0; u < g.getNbNodes(); u++) {
+				for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+					writeEntry(out, u, g.getTarget(a), g.getWeight(a));
+				}
+			}
+		}
+	}
+
+	private static void writeMatrix(int[][] matrix, int n, boolean symmetric, Path path) throws IOException {
+		long entries = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < (symmetric ? i + 1 : n); j++) {
+				if (matrix[i][j] != 0) {
+					entries++;
+				}
+			}
+		}
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, symmetric ? "symmetric" : "general", n, entries);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < (symmetric ? i + 1 : n); j++) {
+					if (matrix[i][j] != 0) {
+						writeEntry(out, i, j, matrix[i][j]);
+					}
+				}
+			}
+		}
+	}
+
+	private static void writeHeader(TextWriter out, String symmetry, int n, long entries) throws IOException {
+		out.write(BANNER).write(" matrix coordinate integer ").write(symmetry).newLine();
+		out.write(n).write(' ').write(n).write(' ').write(entries).newLine();
+	}
+
+	private static void writeEntry(TextWriter out, int i, int j, int w) throws IOException {
+		out.write(i + 1).write(' ').write(j + 1).write(' ').write(w).newLine();
+	}
+
+	public static void main(String[] args) throws IOException {
+		int[][] matrix = {
+			{0, 2, 0, 6, 0},
+			{2, 0, 3, 8, 5},
+			{0, 3, 0, 0, 7},
+			{6, 8, 0, 0, 9},
+			{0, 5, 7, 9, 0}
+		};
+		Path file = Files.createTempFile("graph", ".mtx");
+		write(new AdjacencyListUndirectedValuedGraph(matrix), file);
+		System.out.println(new String(Files.readAllBytes(file), "US-ASCII"));
+		EdgeList edges = read(file);
+		System.out.println("Number of arcs read back = " + edges.size() + " (Should be 14) " + (edges.size() == 14 ? "✅" : "❌"));
+		AdjacencyListUndirectedValuedGraph back = readUndirectedValuedGraph(file);
+		System.out.println("Number of edges = " + back.getNbEdges() + " (Should be 7) " + (back.getNbEdges() == 7 ? "✅" : "❌"));
+
+		Files.write(file, ("%%MatrixMarket matrix coordinate real general\n% from a solver\n3 3 3\n"
+				+ "1 2 1.6\n2 3 2.2\n3 1 4\n").getBytes("US-ASCII"));
+		AdjacencyMatrixDirectedValuedGraph mat = readMatrixDirectedValuedGraph(file);
+		boolean rounded = mat.getMatrix()[0][1] == 2 && mat.getMatrix()[1][2] == 2 && mat.getMatrix()[2][0] == 4;
+		System.out.println("Real values rounded? " + rounded + " (Should be TRUE) " + (rounded ? "✅" : "❌"));
+		Files.delete(file);
+	}
+}
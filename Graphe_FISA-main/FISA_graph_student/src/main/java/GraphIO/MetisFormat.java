@@ -0,0 +1,241 @@
+package GraphIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import AdjacencyCSR.EdgeSink;
+import AdjacencyCSR.GraphConverter;
+import AdjacencyList.AdjacencyListUndirectedGraph;
+import AdjacencyList.AdjacencyListUndirectedValuedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedGraph;
+import AdjacencyMatrix.AdjacencyMatrixUndirectedValuedGraph;
+import Nodes_Edges.Edge;
+import Nodes_Edges.UndirectedNode;
+
+/**
+ * Reader and writer of the METIS graph format used by graph partitioners:
+ * <pre>
+ * % comment
+ * n m [fmt [ncon]]
+ * v1 [w1] v2 [w2] ...   (one line per vertex, neighbours labelled from 1 to n)
+ * </pre>
+ * m is the number of undirected edges, each edge being listed in the line of both
+ * extremities. fmt is a 3-digit flag: vertex sizes, vertex weights, edge weights.
+ * Vertex sizes and weights are skipped when reading and never written.
+ * Loops are not allowed by the format and are skipped when writing.
+ */
+public class MetisFormat {
+
+	private MetisFormat() {
+
+	}
+
+	// ------------------------------------------
+	// 				Readers
+	// ------------------------------------------
+
+	/**
+	 * Streams to sink one arc per neighbour entry, so each edge is received in both directions.
+	 *
+	 * @return the number of nodes declared in the header
+	 */
+	public static int read(Path path, EdgeSink sink) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			long[] header = readHeader(in);
+			readAdjacency(in, header, sink);
+			return (int) header[0];
+		}
+	}
+
+	/**
+	 * @return both directions of every edge of the file
+	 */
+	public static EdgeList read(Path path) throws IOException {
+		try (TextReader in = new TextReader(path)) {
+			long[] header = readHeader(in);
+			EdgeList edges = new EdgeList((int) header[0], (int) Math.min(2 * header[1], Integer.MAX_VALUE - 8));
+			readAdjacency(in, header, edges);
+			return edges;
+		}
+	}
+
+	public static AdjacencyListUndirectedValuedGraph readUndirectedValuedGraph(Path path) throws IOException {
+		return GraphConverter.toUndirectedValuedGraph(read(path));
+	}
+
+	/**
+	 * Only meant for small graphs, the matrix costs O(n^2) and only keeps positive weights.
+	 */
+	public static AdjacencyMatrixUndirectedValuedGraph readMatrixUndirectedValuedGraph(Path path) throws IOException {
+		return new AdjacencyMatrixUndirectedValuedGraph(read(path).toAdjacencyMatrix());
+	}
+
+	/**
+	 * @return {n, m, vertex sizes, number of vertex weights, edge weights}
+	 */
+	private static long[] readHeader(TextReader in) throws IOException {
+		while (in.peekLineStart() == '%') {
+			in.skipLine();
+		}
+		long n = in.nextLong();
+		long m = in.nextLong();
+		long fmt = in.hasToken() ? in.nextLong() : 0;
+		long ncon = in.hasToken() ? in.nextLong() : 1;
+		in.endLine();
+		if (n < 0 || n > Integer.MAX_VALUE - 1 || m < 0 || fmt < 0 || fmt > 111) {
+			throw in.error("invalid header");
+		}
+		long sizes = fmt / 100;
+		long vertexWeights = (fmt / 10) % 10 == 1 ? ncon : 0;
+		long edgeWeights = fmt % 10;
+		return new long[] {n, m, sizes, vertexWeights, edgeWeights};
+	}
+
+	private static void readAdjacency(TextReader in, long[] header, EdgeSink sink) throws IOException {
+		int n = (int) header[0];
+		for (int u = 0; u < n; u++) {
+			while (in.peekLineStart() == '%') {
+				in.skipLine();
+			}
+			if (in.peekLineStart() < 0) {
+				throw in.error("line of vertex " + (u + 1) + " expected, end of file reached");
+			}
+			for (long k = 0; k < header[2] + header[3]; k++) {
+				in.nextLong();
+			}
+			while (in.hasToken()) {
+				int v = in.nextInt() - 1;
+				int w = header[4] == 1 ? in.nextInt() : 0;
+				if (v < 0 || v >= n) {
+					throw in.error("neighbour " + (v + 1) + " out of range 1.." + n);
+				}
+				sink.accept(u, v, w);
+			}
+			in.endLine();
+		}
+	}
+
+	// ------------------------------------------
+	// 				Writers
+	// ------------------------------------------
+
+	/**
+	 * @param withWeights at true to write the edge weights (fmt 001)
+	 */
+	public static void write(AdjacencyListUndirectedGraph g, Path path, boolean withWeights) throws IOException {
+		long m = 0;
+		for (Edge e : g.getEdges()) {
+			if (!e.getFirstNode().equals(e.getSecondNode())) {
+				m++;
+			}
+		}
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, g.getNbNodes(), m, withWeights);
+			for (UndirectedNode n : g.getNodes()) {
+				boolean first = true;
+				for (Edge e : n.getIncidentEdges()) {
+					int v = e.getSecondNode().getLabel();
+					if (v != n.getLabel()) {
+						first = writeNeighbour(out, first, v, e.getWeight(), withWeights);
+					}
+				}
+				out.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Writes every positive cell of the matrix as a neighbour, the cell value being the weight.
+	 */
+	public static void write(AdjacencyMatrixUndirectedGraph g, Path path, boolean withWeights) throws IOException {
+		int[][] matrix = g.getMatrix();
+		int n = g.getNbNodes();
+		long m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				if (matrix[i][j] > 0) {
+					m++;
+				}
+			}
+		}
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, n, m, withWeights);
+			for (int i = 0; i < n; i++) {
+				boolean first = true;
+				for (int j = 0; j < n; j++) {
+					if (i != j && matrix[i][j] > 0) {
+						first = writeNeighbour(out, first, j, matrix[i][j], withWeights);
+					}
+				}
+				out.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Writes a symmetric CSR graph, each edge being stored in both directions.
+	 */
+	public static void write(CSRGraph g, Path path, boolean withWeights) throws IOException {
+		long m = 0;
+		for (int u = 0; u < g.getNbNodes(); u++) {
+			for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+				if (g.getTarget(a) != u) {
+					m++;
+				}
+			}
+		}
+		try (TextWriter out = new TextWriter(path)) {
+			writeHeader(out, g.getNbNodes(), m / 2, withWeights);
+			for (int u = 0; u < g.getNbNodes(); u++) {
+				boolean first = true;
+				for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+					if (g.getTarget(a) != u) {
+						first = writeNeighbour(out, first, g.getTarget(a), g.getWeight(a), withWeights);
+					}
+				}
+				out.newLine();
+			}
+		}
+	}
+
+	private static void writeHeader(TextWriter out, int n, long m, boolean withWeights) throws IOException {
+		out.write(n).write(' ').write(m);
+		if (withWeights) {
+			out.write(" 001");
+		}
+		out.newLine();
+	}
+
+	private static boolean writeNeighbour(TextWriter out, boolean first, int v, int w, boolean withWeights) throws IOException {
+		if (!first) {
+			out.write(' ');
+		}
+		out.write(v + 1);
+		if (withWeights) {
+			out.write(' ').write(w);
+		}
+		return false;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int[][] matrix = {
+			{0, 2, 0, 6, 0},
+			{2, 0, 3, 8, 5},
+			{0, 3, 0, 0, 7},
+			{6, 8, 0, 0, 9},
+			{0, 5, 7, 9, 0}
+		};
+		AdjacencyListUndirectedValuedGraph graph = new AdjacencyListUndirectedValuedGraph(matrix);
+		Path file = Files.createTempFile("graph", ".metis");
+		write(graph, file, true);
+		System.out.println(new String(Files.readAllBytes(file), "US-ASCII"));
+		AdjacencyListUndirectedValuedGraph back = readUndirectedValuedGraph(file);
+		boolean same = back.getNbEdges() == graph.getNbEdges();
+		System.out.println("Number of edges read back = " + back.getNbEdges() + " (Should be 7) " + (same ? "✅" : "❌"));
+		System.out.println(readMatrixUndirectedValuedGraph(file));
+		Files.delete(file);
+	}
+}
@@ -0,0 +1,302 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of graph mutations (op, from, to, weight), each one numbered by a
+ * sequence number. Appends only fill an in-memory batch; sync(seq) writes the pending
+ * batch as one frame and forces it to disk. Threads waiting at the same time share a single
+ * fsync (group commit): the first one writes and forces the frame while the others wait,
+ * and appends go on in a fresh batch meanwhile.
+ *
+ * <pre>
+ * frame:  int nbRecords, long firstSeq, nbRecords * (byte op, int from, int to, int weight), int crc32
+ * </pre>
+ * All values are little-endian. A frame torn by a crash fails its checksum and is cut off
+ * with everything after it when the log is opened again.
+ */
+public class MutationLog implements Closeable {
+
+	public static final byte PUT_ARC = 1;
+	public static final byte REMOVE_ARC = 2;
+
+	public static final int FRAME_HEADER_SIZE = 12;
+	public static final int RECORD_SIZE = 13;
+
+	/**
+	 * Receives the replayed mutations.
+	 */
+	public interface MutationSink {
+		void accept(byte op, int from, int to, int weight);
+	}
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final FileChannel channel;
+	private ByteBuffer batch; // records appended since the last frame
+	private ByteBuffer spare; // buffer of the frame being written, swapped with batch
+	private long batchFirstSeq;
+	private long nextSeq;
+	private long durableSeq; // every mutation up to this sequence number is on disk
+	private boolean flushing;
+	private IOException failure;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	/**
+	 * Opens the log for appending after the valid frames already written.
+	 *
+	 * @param lastSeq the last sequence number known before the log, the snapshot one
+	 */
+	public MutationLog(Path path, long lastSeq) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.batch = newBuffer(1 << 12);
+		this.spare = newBuffer(1 << 12);
+		long[] end = scan(channel, lastSeq, null);
+		channel.truncate(end[0]);
+		channel.position(end[0]);
+		this.nextSeq = end[1] + 1;
+		this.durableSeq = end[1];
+		this.batchFirstSeq = nextSeq;
+	}
+
+	//--------------------------------------------------
+	// 				Accessors
+	//--------------------------------------------------
+
+	/**
+	 * @return the sequence number of the last appended mutation
+	 */
+	public synchronized long getLastSeq() {
+		return nextSeq - 1;
+	}
+
+	/**
+	 * @return the sequence number of the last mutation forced to disk
+	 */
+	public synchronized long getDurableSeq() {
+		return durableSeq;
+	}
+
+	/**
+	 * @return the size of the log file, pending batch excluded
+	 */
+	public long size() throws IOException {
+		return channel.size();
+	}
+
+	//--------------------------------------------------
+	// 				Methods
+	//--------------------------------------------------
+
+	/**
+	 * Adds a mutation to the pending batch, it is durable only after sync.
+	 *
+	 * @return the sequence number of the mutation
+	 */
+	public synchronized long append(byte op, int from, int to, int weight) {
+		if (batch.remaining() < RECORD_SIZE) {
+			ByteBuffer larger = newBuffer(2 * batch.capacity());
+			batch.flip();
+			larger.put(batch);
+			batch = larger;
+		}
+		batch.put(op).putInt(from).putInt(to).putInt(weight);
+		return nextSeq++;
+	}
+
+	/**
+	 * Blocks until every mutation up to seq is forced to disk.
+	 */
+	public void sync(long seq) throws IOException {
+		ByteBuffer frame;
+		long firstSeq;
+		long lastSeq;
+		synchronized (this) {
+			while (true) {
+				if (failure != null) {
+					throw new IOException("The mutation log failed", failure);
+				}
+				if (durableSeq >= seq) {
+					return;
+				}
+				if (!flushing) {
+					break;
+				}
+				waitQuietly();
+			}
+			// This thread becomes the leader and writes every mutation appended so far.
+			flushing = true;
+			frame = batch;
+			batch = spare;
+			batch.clear();
+			firstSeq = batchFirstSeq;
+			lastSeq = nextSeq - 1;
+			batchFirstSeq = nextSeq;
+		}
+		IOException error = null;
+		try {
+			writeFrame(frame, firstSeq, lastSeq);
+		} catch (IOException e) {
+			error = e;
+		}
+		synchronized (this) {
+			spare = frame;
+			flushing = false;
+			if (error != null) {
+				failure = error;
+			} else {
+				durableSeq = lastSeq;
+			}
+			notifyAll();
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * Blocks until every mutation appended so far is forced to disk.
+	 */
+	public void sync() throws IOException {
+		sync(getLastSeq());
+	}
+
+	/**
+	 * Empties the log once a snapshot covers all its mutations, pending ones included.
+	 */
+	public synchronized void reset() throws IOException {
+		while (flushing) {
+			waitQuietly();
+		}
+		channel.truncate(0);
+		channel.position(0);
+		channel.force(true);
+		batch.clear();
+		batchFirstSeq = nextSeq;
+		durableSeq = nextSeq - 1;
+	}
+
+	private void writeFrame(ByteBuffer records, long firstSeq, long lastSeq) throws IOException {
+		records.flip();
+		int nbRecords = (int) (lastSeq - firstSeq + 1);
+		if (nbRecords == 0) {
+			return;
+		}
+		ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(nbRecords).putLong(firstSeq).flip();
+		CRC32 crc = new CRC32();
+		crc.update(header.array());
+		crc.update(records.duplicate());
+		ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		trailer.putInt((int) crc.getValue()).flip();
+		ByteBuffer[] parts = {header, records, trailer};
+		while (trailer.hasRemaining()) {
+			channel.write(parts);
+		}
+		channel.force(false);
+	}
+
+	private void waitQuietly() {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the mutation log", e);
+		}
+	}
+
+	/**
+	 * Replays to sink the mutations of the log numbered after afterSeq, in order.
+	 *
+	 * @return the last sequence number of the log, afterSeq if it holds none
+	 */
+	public static long replay(Path path, long afterSeq, MutationSink sink) throws IOException {
+		if (!Files.exists(path)) {
+			return afterSeq;
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return scan(channel, afterSeq, sink)[1];
+		}
+	}
+
+	/**
+	 * Reads the valid frames from the start of the channel.
+	 *
+	 * @return {position after the last valid frame, last sequence number}
+	 */
+	private static long[] scan(FileChannel channel, long afterSeq, MutationSink sink) throws IOException {
+		long position = 0;
+		long lastSeq = afterSeq;
+		long size = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer body = newBuffer(1 << 12);
+		while (position + FRAME_HEADER_SIZE <= size) {
+			header.clear();
+			readFully(channel, header, position);
+			int nbRecords = header.getInt(0);
+			long firstSeq = header.getLong(4);
+			long frameSize = FRAME_HEADER_SIZE + (long) nbRecords * RECORD_SIZE + 4;
+			if (nbRecords <= 0 || position + frameSize > size) {
+				break;
+			}
+			if (body.capacity() < frameSize - FRAME_HEADER_SIZE) {
+				body = newBuffer((int) (frameSize - FRAME_HEADER_SIZE));
+			}
+			body.clear().limit((int) (frameSize - FRAME_HEADER_SIZE));
+			readFully(channel, body, position + FRAME_HEADER_SIZE);
+			CRC32 crc = new CRC32();
+			crc.update(header.array());
+			crc.update(body.array(), 0, body.limit() - 4);
+			if ((int) crc.getValue() != body.getInt(body.limit() - 4)) {
+				break;
+			}
+			for (int k = 0; k < nbRecords; k++) {
+				long seq = firstSeq + k;
+				if (seq > afterSeq && sink != null) {
+					int at = k * RECORD_SIZE;
+					sink.accept(body.get(at), body.getInt(at + 1), body.getInt(at + 5), body.getInt(at + 9));
+				}
+			}
+			lastSeq = Math.max(lastSeq, firstSeq + nbRecords - 1);
+			position += frameSize;
+		}
+		return new long[] {position, lastSeq};
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("Unexpected end of the mutation log");
+			}
+			position += read;
+		}
+		buffer.flip();
+	}
+
+	private static ByteBuffer newBuffer(int capacity) {
+		return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			sync();
+		} finally {
+			channel.close();
+		}
+	}
+}
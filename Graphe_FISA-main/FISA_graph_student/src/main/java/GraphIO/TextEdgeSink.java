@@ -0,0 +1,67 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import AdjacencyCSR.EdgeSink;
+
+/**
+ * Writes the received arcs to a text file, one "from to [weight]" line per arc.
+ * The digits are written straight into the buffer of a TextWriter, so no String is
+ * created per arc and the file may be larger than the heap.
+ */
+public class TextEdgeSink implements EdgeSink, Closeable {
+
+	private final TextWriter out;
+	private final boolean withWeights;
+	private long nbArcs;
+
+	/**
+	 * @param path the file to create or truncate
+	 * @param withWeights at true to write the weight as a third column
+	 */
+	public TextEdgeSink(Path path, boolean withWeights) throws IOException {
+		this.out = new TextWriter(path);
+		this.withWeights = withWeights;
+		this.nbArcs = 0;
+	}
+
+	/**
+	 * @return the number of arcs written so far
+	 */
+	public long getNbArcs() {
+		return nbArcs;
+	}
+
+	@Override
+	public void accept(int from, int to, int weight) {
+		try {
+			out.write(from).write(' ').write(to);
+			if (withWeights) {
+				out.write(' ').write(weight);
+			}
+			out.newLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		nbArcs++;
+	}
+
+	/**
+	 * Writes a free text line, used for the headers and comments of the text formats.
+	 */
+	public void writeLine(String line) {
+		try {
+			out.write(line).newLine();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,204 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered ASCII tokenizer on a FileChannel, reading the file line by line and the
+ * numbers byte by byte. Only header lines are turned into Strings.
+ */
+class TextReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final Path path;
+	private long lineNumber;
+	private boolean eof;
+
+	TextReader(Path path) throws IOException {
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.buffer.flip();
+		this.lineNumber = 1;
+		this.eof = false;
+	}
+
+	/**
+	 * @return the next byte without consuming it, -1 at the end of the file
+	 */
+	int peek() throws IOException {
+		if (!buffer.hasRemaining()) {
+			if (eof) {
+				return -1;
+			}
+			buffer.clear();
+			int read = channel.read(buffer);
+			buffer.flip();
+			if (read <= 0) {
+				eof = true;
+				return -1;
+			}
+		}
+		return buffer.get(buffer.position());
+	}
+
+	private int read() throws IOException {
+		int b = peek();
+		if (b >= 0) {
+			buffer.get();
+			if (b == '\n') {
+				lineNumber++;
+			}
+		}
+		return b;
+	}
+
+	/**
+	 * Skips spaces and tabs, not newlines.
+	 */
+	private void skipBlanks() throws IOException {
+		int b = peek();
+		while (b == ' ' || b == '\t' || b == '\r') {
+			read();
+			b = peek();
+		}
+	}
+
+	/**
+	 * @return the first non-blank byte of the line, -1 at the end of the file
+	 */
+	int peekLineStart() throws IOException {
+		skipBlanks();
+		return peek();
+	}
+
+	/**
+	 * @return true if the current line has another token
+	 */
+	boolean hasToken() throws IOException {
+		skipBlanks();
+		int b = peek();
+		return b >= 0 && b != '\n';
+	}
+
+	/**
+	 * @return the next integer of the current line
+	 */
+	long nextLong() throws IOException {
+		skipBlanks();
+		boolean negative = false;
+		if (peek() == '-') {
+			negative = true;
+			read();
+		} else if (peek() == '+') {
+			read();
+		}
+		long value = 0;
+		int digits = 0;
+		int b = peek();
+		while (b >= '0' && b <= '9') {
+			if (value > (Long.MAX_VALUE - 9) / 10) {
+				throw error("number too large");
+			}
+			value = value * 10 + (b - '0');
+			read();
+			digits++;
+			b = peek();
+		}
+		if (digits == 0) {
+			throw error("number expected");
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * @return the next integer of the current line, checked to fit in an int
+	 */
+	int nextInt() throws IOException {
+		long v = nextLong();
+		if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+			throw error("number out of int range");
+		}
+		return (int) v;
+	}
+
+	/**
+	 * @return the next real number of the current line
+	 */
+	double nextDouble() throws IOException {
+		String token = nextToken();
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException e) {
+			throw error("real number expected, found " + token);
+		}
+	}
+
+	/**
+	 * @return the next blank-separated token of the current line
+	 */
+	String nextToken() throws IOException {
+		skipBlanks();
+		StringBuilder s = new StringBuilder();
+		int b = peek();
+		while (b >= 0 && b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+			s.append((char) read());
+			b = peek();
+		}
+		if (s.length() == 0) {
+			throw error("token expected");
+		}
+		return s.toString();
+	}
+
+	/**
+	 * @return the rest of the current line, which is consumed
+	 */
+	String readLine() throws IOException {
+		StringBuilder s = new StringBuilder();
+		int b = read();
+		while (b >= 0 && b != '\n') {
+			if (b != '\r') {
+				s.append((char) b);
+			}
+			b = read();
+		}
+		return s.toString();
+	}
+
+	/**
+	 * Consumes the rest of the current line, which must be blank.
+	 */
+	void endLine() throws IOException {
+		if (hasToken()) {
+			throw error("unexpected token");
+		}
+		read();
+	}
+
+	/**
+	 * Consumes the rest of the current line whatever it holds.
+	 */
+	void skipLine() throws IOException {
+		int b = read();
+		while (b >= 0 && b != '\n') {
+			b = read();
+		}
+	}
+
+	IllegalArgumentException error(String reason) {
+		return new IllegalArgumentException(path + ", line " + lineNumber + ": " + reason);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
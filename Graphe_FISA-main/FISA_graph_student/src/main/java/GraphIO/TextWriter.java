@@ -0,0 +1,101 @@
+package GraphIO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered ASCII writer on a FileChannel. Numbers are written digit by digit into a direct
+ * buffer, so dumping a graph never builds its whole text in memory nor a String per value.
+ */
+public class TextWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * @param path the file to create or truncate
+	 */
+	public TextWriter(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+	public TextWriter write(char c) throws IOException {
+		if (!buffer.hasRemaining()) {
+			flush();
+		}
+		buffer.put((byte) c);
+		return this;
+	}
+
+	/**
+	 * Writes an ASCII string.
+	 */
+	public TextWriter write(String s) throws IOException {
+		for (int i = 0; i < s.length(); i++) {
+			write(s.charAt(i));
+		}
+		return this;
+	}
+
+	public TextWriter write(long v) throws IOException {
+		if (buffer.remaining() < 20) {
+			flush();
+		}
+		if (v < 0) {
+			buffer.put((byte) '-');
+			if (v == Long.MIN_VALUE) {
+				// -Long.MIN_VALUE does not exist, write its digits one at a time.
+				buffer.put((byte) '9');
+				v = -223372036854775808L;
+			}
+			v = -v;
+		}
+		if (v == 0) {
+			buffer.put((byte) '0');
+			return this;
+		}
+		int start = buffer.position();
+		while (v > 0) {
+			buffer.put((byte) ('0' + (v % 10)));
+			v /= 10;
+		}
+		// Digits were written in reverse order.
+		int end = buffer.position() - 1;
+		while (start < end) {
+			byte tmp = buffer.get(start);
+			buffer.put(start, buffer.get(end));
+			buffer.put(end, tmp);
+			start++;
+			end--;
+		}
+		return this;
+	}
+
+	public TextWriter newLine() throws IOException {
+		return write('\n');
+	}
+
+	/**
+	 * Writes the buffered bytes to the file.
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+}
@@ -40,6 +40,14 @@ public abstract class AbstractNode {
 		return n instanceof AbstractNode && ((AbstractNode) n).getLabel() == this.getLabel();
 	}
 
+	/**
+	 * Consistent with equals, so that nodes can be keys of hash maps and sets.
+	 */
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(label);
+	}
+
 	public String toString() {
 		String s = "n_"+label;
 		return s;
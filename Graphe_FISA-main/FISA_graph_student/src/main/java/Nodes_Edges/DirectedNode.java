@@ -1,5 +1,6 @@
 package Nodes_Edges;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -21,6 +22,15 @@ public class DirectedNode extends AbstractNode {
         this.arcSucc = new LinkedList<Arc>();
         this.arcPred = new LinkedList<Arc>();
     }
+
+    /**
+     * Node whose lists are arrays sized for its known degrees, as filled by a bulk builder.
+     */
+    public DirectedNode(int i, int nbSuccs, int nbPreds) {
+        super(i);
+        this.arcSucc = new ArrayList<Arc>(nbSuccs);
+        this.arcPred = new ArrayList<Arc>(nbPreds);
+    }
     
     
     // ------------------------------------------
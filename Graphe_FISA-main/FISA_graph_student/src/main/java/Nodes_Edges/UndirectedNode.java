@@ -1,5 +1,6 @@
 package Nodes_Edges;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -24,6 +25,14 @@ public class UndirectedNode extends AbstractNode {
         this.incidentEdges = new LinkedList<Edge>();        
     }
 
+    /**
+     * Node whose list is an array sized for its known degree, as filled by a bulk builder.
+     */
+    public UndirectedNode(int i, int nbNeigh) {
+        super(i);
+        this.incidentEdges = new ArrayList<Edge>(nbNeigh);
+    }
+
     // ------------------------------------------
     // 				Accessors
     // ------------------------------------------
@@ -0,0 +1,88 @@
+package Properties;
+
+import java.util.Arrays;
+
+/**
+ * Column of double values, read and written without boxing.
+ */
+public class DoubleProperty extends Property {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final double defaultValue;
+	private double[] values;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public DoubleProperty(String name, int size, double defaultValue) {
+		super(name);
+		this.defaultValue = defaultValue;
+		this.values = new double[Math.max(size, 1)];
+		if (Double.doubleToRawLongBits(defaultValue) != 0) {
+			Arrays.fill(values, defaultValue);
+		}
+		ensureSize(size);
+	}
+
+	public DoubleProperty(String name, int size) {
+		this(name, size, 0.0);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public double getDefaultValue() {
+		return defaultValue;
+	}
+
+	public double get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	/**
+	 * Writes the value of i, growing the column if i is past its end.
+	 */
+	public void set(int i, double value) {
+		if (i >= size) {
+			ensureSize(i + 1);
+		}
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	/**
+	 * @return the array of the column, whose first size() cells are the values, for the
+	 * algorithms to read or write directly. It is replaced when the column grows.
+	 */
+	public double[] getArray() {
+		return values;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public void fill(double value) {
+		Arrays.fill(values, 0, size, value);
+	}
+
+	@Override
+	protected int capacity() {
+		return values.length;
+	}
+
+	@Override
+	protected void grow(int capacity) {
+		int length = values.length;
+		values = Arrays.copyOf(values, capacity);
+		if (Double.doubleToRawLongBits(defaultValue) != 0) {
+			Arrays.fill(values, length, capacity, defaultValue);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package Properties;
+
+import java.util.Arrays;
+
+/**
+ * Column of int values, read and written without boxing.
+ */
+public class IntProperty extends Property {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final int defaultValue;
+	private int[] values;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public IntProperty(String name, int size, int defaultValue) {
+		super(name);
+		this.defaultValue = defaultValue;
+		this.values = new int[Math.max(size, 1)];
+		if (defaultValue != 0) {
+			Arrays.fill(values, defaultValue);
+		}
+		ensureSize(size);
+	}
+
+	public IntProperty(String name, int size) {
+		this(name, size, 0);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+
+	public int get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	/**
+	 * Writes the value of i, growing the column if i is past its end.
+	 */
+	public void set(int i, int value) {
+		if (i >= size) {
+			ensureSize(i + 1);
+		}
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	/**
+	 * @return the array of the column, whose first size() cells are the values, for the
+	 * algorithms to read or write directly. It is replaced when the column grows.
+	 */
+	public int[] getArray() {
+		return values;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public void fill(int value) {
+		Arrays.fill(values, 0, size, value);
+	}
+
+	@Override
+	protected int capacity() {
+		return values.length;
+	}
+
+	@Override
+	protected void grow(int capacity) {
+		int length = values.length;
+		values = Arrays.copyOf(values, capacity);
+		if (defaultValue != 0) {
+			Arrays.fill(values, length, capacity, defaultValue);
+		}
+	}
+}
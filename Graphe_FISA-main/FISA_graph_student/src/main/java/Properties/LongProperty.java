@@ -0,0 +1,88 @@
+package Properties;
+
+import java.util.Arrays;
+
+/**
+ * Column of long values, read and written without boxing.
+ */
+public class LongProperty extends Property {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final long defaultValue;
+	private long[] values;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public LongProperty(String name, int size, long defaultValue) {
+		super(name);
+		this.defaultValue = defaultValue;
+		this.values = new long[Math.max(size, 1)];
+		if (defaultValue != 0L) {
+			Arrays.fill(values, defaultValue);
+		}
+		ensureSize(size);
+	}
+
+	public LongProperty(String name, int size) {
+		this(name, size, 0L);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public long getDefaultValue() {
+		return defaultValue;
+	}
+
+	public long get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	/**
+	 * Writes the value of i, growing the column if i is past its end.
+	 */
+	public void set(int i, long value) {
+		if (i >= size) {
+			ensureSize(i + 1);
+		}
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	/**
+	 * @return the array of the column, whose first size() cells are the values, for the
+	 * algorithms to read or write directly. It is replaced when the column grows.
+	 */
+	public long[] getArray() {
+		return values;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public void fill(long value) {
+		Arrays.fill(values, 0, size, value);
+	}
+
+	@Override
+	protected int capacity() {
+		return values.length;
+	}
+
+	@Override
+	protected void grow(int capacity) {
+		int length = values.length;
+		values = Arrays.copyOf(values, capacity);
+		if (defaultValue != 0L) {
+			Arrays.fill(values, length, capacity, defaultValue);
+		}
+	}
+}
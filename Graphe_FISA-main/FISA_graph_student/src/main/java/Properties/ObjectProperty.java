@@ -0,0 +1,81 @@
+package Properties;
+
+import java.util.Arrays;
+
+/**
+ * Column of references, for the attributes with no primitive form such as labels.
+ */
+public class ObjectProperty<T> extends Property {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final T defaultValue;
+	private Object[] values;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public ObjectProperty(String name, int size, T defaultValue) {
+		super(name);
+		this.defaultValue = defaultValue;
+		this.values = new Object[Math.max(size, 1)];
+		if (defaultValue != null) {
+			Arrays.fill(values, defaultValue);
+		}
+		ensureSize(size);
+	}
+
+	public ObjectProperty(String name, int size) {
+		this(name, size, null);
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public T getDefaultValue() {
+		return defaultValue;
+	}
+
+	@SuppressWarnings("unchecked")
+	public T get(int i) {
+		checkIndex(i);
+		return (T) values[i];
+	}
+
+	/**
+	 * Writes the value of i, growing the column if i is past its end.
+	 */
+	public void set(int i, T value) {
+		if (i >= size) {
+			ensureSize(i + 1);
+		}
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public void fill(T value) {
+		Arrays.fill(values, 0, size, value);
+	}
+
+	@Override
+	protected int capacity() {
+		return values.length;
+	}
+
+	@Override
+	protected void grow(int capacity) {
+		int length = values.length;
+		values = Arrays.copyOf(values, capacity);
+		if (defaultValue != null) {
+			Arrays.fill(values, length, capacity, defaultValue);
+		}
+	}
+}
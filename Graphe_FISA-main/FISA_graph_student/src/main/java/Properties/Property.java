@@ -0,0 +1,70 @@
+package Properties;
+
+/**
+ * Column of values indexed by the dense index of a node (its label) or of an arc (its index
+ * in a CSRGraph or an EdgeList). The values sit in one primitive array, which grows by
+ * doubling when an index past the end is written; indices never written read as the default
+ * value of the column.
+ */
+public abstract class Property {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final String name;
+	protected int size;		// 1 + the largest index written or reserved
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	protected Property(String name) {
+		this.name = name;
+		this.size = 0;
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public String getName() {
+		return name;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	/**
+	 * Makes the indices 0..size-1 valid, filled with the default value.
+	 */
+	public void ensureSize(int size) {
+		if (size > this.size) {
+			if (size > capacity()) {
+				grow(Math.max(size, (int) Math.min(Integer.MAX_VALUE - 8, 2L * capacity())));
+			}
+			this.size = size;
+		}
+	}
+
+	/**
+	 * @return the length of the array
+	 */
+	protected abstract int capacity();
+
+	/**
+	 * Copies the values into an array of the given length, filled past the end with the default value.
+	 */
+	protected abstract void grow(int capacity);
+
+	protected void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " is out of bounds (0.." + (size - 1) + ") of property " + name);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package Properties;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import Abstraction.IGraph;
+import AdjacencyCSR.CSRGraph;
+import AdjacencyCSR.EdgeList;
+import GraphAlgorithms.Coordinates;
+import GraphAlgorithms.GraphGenerators;
+import Nodes_Edges.DirectedNode;
+
+/**
+ * Named columns over the same elements, the nodes or the arcs of a graph: each attribute
+ * (capacity, coordinates, timestamp, label...) is one array indexed by the dense index of
+ * the element, instead of a map from node objects. All the columns keep the size of the
+ * table, which grows with the graph through ensureSize.
+ */
+public class PropertyTable {
+
+	//--------------------------------------------------
+	// 				Class variables
+	//--------------------------------------------------
+
+	private final Map<String, Property> columns;
+	private int size;
+
+	//--------------------------------------------------
+	// 				Constructors
+	//--------------------------------------------------
+
+	public PropertyTable(int size) {
+		this.columns = new LinkedHashMap<>();
+		this.size = size;
+	}
+
+	/**
+	 * @return a table over the nodes of g, indexed by label
+	 */
+	public static PropertyTable forNodes(IGraph g) {
+		return new PropertyTable(g.getNbNodes());
+	}
+
+	/**
+	 * @return a table over the arcs of g, indexed as in its targets array
+	 */
+	public static PropertyTable forArcs(CSRGraph g) {
+		return new PropertyTable(g.getNbArcs());
+	}
+
+	// ------------------------------------------
+	// 				Accessors
+	// ------------------------------------------
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(String name) {
+		return columns.containsKey(name);
+	}
+
+	/**
+	 * @return the names of the columns, in order of creation
+	 */
+	public List<String> getNames() {
+		return new ArrayList<>(columns.keySet());
+	}
+
+	public IntProperty getInt(String name) {
+		return get(name, IntProperty.class);
+	}
+
+	public LongProperty getLong(String name) {
+		return get(name, LongProperty.class);
+	}
+
+	public DoubleProperty getDouble(String name) {
+		return get(name, DoubleProperty.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> ObjectProperty<T> getObject(String name) {
+		return get(name, ObjectProperty.class);
+	}
+
+	// ------------------------------------------------
+	// 					Methods
+	// ------------------------------------------------
+
+	public IntProperty addInt(String name, int defaultValue) {
+		return add(new IntProperty(name, size, defaultValue));
+	}
+
+	public LongProperty addLong(String name, long defaultValue) {
+		return add(new LongProperty(name, size, defaultValue));
+	}
+
+	public DoubleProperty addDouble(String name, double defaultValue) {
+		return add(new DoubleProperty(name, size, defaultValue));
+	}
+
+	public <T> ObjectProperty<T> addObject(String name, T defaultValue) {
+		return add(new ObjectProperty<>(name, size, defaultValue));
+	}
+
+	public void remove(String name) {
+		columns.remove(name);
+	}
+
+	/**
+	 * Grows every column to size elements, the new ones taking the default values.
+	 */
+	public void ensureSize(int size) {
+		if (size > this.size) {
+			this.size = size;
+			for (Property p : columns.values()) {
+				p.ensureSize(size);
+			}
+		}
+	}
+
+	private <P extends Property> P add(P column) {
+		if (columns.containsKey(column.getName())) {
+			throw new IllegalArgumentException("Property " + column.getName() + " already exists");
+		}
+		columns.put(column.getName(), column);
+		return column;
+	}
+
+	private <P extends Property> P get(String name, Class<P> type) {
+		Property p = columns.get(name);
+		if (p == null) {
+			throw new IllegalArgumentException("No property " + name);
+		}
+		if (!type.isInstance(p)) {
+			throw new IllegalArgumentException("Property " + name + " is a " + p.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+		}
+		return type.cast(p);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append("Property table of ").append(size).append(" elements: ").append(columns.keySet()).append("\n");
+		return s.toString();
+	}
+
+	public static void main(String[] args) {
+		EdgeList edges = new EdgeList(100 * 100);
+		Coordinates grid = GraphGenerators.generateGrid(100, 100, false, 9, 7L, edges);
+		CSRGraph g = CSRGraph.fromEdgeList(edges);
+
+		PropertyTable nodes = forNodes(g);
+		DoubleProperty x = nodes.addDouble("x", 0.0);
+		DoubleProperty y = nodes.addDouble("y", 0.0);
+		ObjectProperty<String> name = nodes.addObject("name", "");
+		for (int u = 0; u < g.getNbNodes(); u++) {
+			x.set(u, grid.getX(u));
+			y.set(u, grid.getY(u));
+		}
+		name.set(0, "depot");
+
+		// An algorithm reads the columns as arrays, with no lookup per element.
+		PropertyTable arcs = forArcs(g);
+		IntProperty capacity = arcs.addInt("capacity", 1);
+		DoubleProperty length = arcs.addDouble("length", 0.0);
+		double[] xs = x.getArray();
+		double[] ys = y.getArray();
+		double[] lengths = length.getArray();
+		double total = 0;
+		for (int u = 0; u < g.getNbNodes(); u++) {
+			for (int a = g.getFirstArc(u); a < g.getEndArc(u); a++) {
+				int v = g.getTarget(a);
+				lengths[a] = Math.hypot(xs[u] - xs[v], ys[u] - ys[v]);
+				total += lengths[a] * capacity.get(a);
+			}
+		}
+		boolean grid1 = Math.abs(total - g.getNbArcs()) < 1e-9;
+		System.out.println("Total length of the grid arcs = " + total + " (Should be " + g.getNbArcs() + ") " + (grid1 ? "✅" : "❌"));
+
+		nodes.ensureSize(g.getNbNodes() + 10);
+		boolean grown = x.size() == g.getNbNodes() + 10 && name.get(g.getNbNodes() + 5).isEmpty() && name.get(0).equals("depot");
+		System.out.println("Columns grown with defaults? " + grown + " (Should be TRUE) " + (grown ? "✅" : "❌"));
+
+		Set<DirectedNode> set = new HashSet<>();
+		set.add(new DirectedNode(3));
+		set.add(new DirectedNode(3));
+		System.out.println("Equal nodes counted once in a HashSet? " + (set.size() == 1) + " (Should be TRUE) " + (set.size() == 1 ? "✅" : "❌"));
+	}
+}